@@ -4,6 +4,9 @@ import com.example.backend.security.AccessDeniedHandlerImpl;
 import com.example.backend.security.AuthenticationEntryPointImpl;
 import com.example.backend.security.UserDetailsServiceImpl;
 import com.example.backend.security.JwtAuthenticationFilter;
+import com.example.backend.security.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,10 +21,12 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import java.time.Duration;
 import java.util.Arrays;
 
 @Configuration
@@ -33,6 +38,7 @@ public class SecurityConfig {
     private final UserDetailsServiceImpl userDetailsService;
     private final AuthenticationEntryPointImpl authenticationEntryPoint;
     private final AccessDeniedHandlerImpl accessDeniedHandler;
+    private final MeterRegistry meterRegistry;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -47,6 +53,9 @@ public class SecurityConfig {
                                         .accessDeniedHandler(accessDeniedHandler))
                 .authorizeHttpRequests(
                         auth -> auth
+                                // Async dispatches of SSE streams were already authorized on the initial request
+                                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                                 // Public endpoints - không cần đăng nhập
                                 .requestMatchers("/auth/**").permitAll()
                                 .requestMatchers("/", "/index.html", "/sw.js", "/push-notifications.js").permitAll()
@@ -54,13 +63,17 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.GET, "/event", "/event/search/**", "/event/{id}", "/event/top", "/event/hottest").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/event/hosted/{userId}").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/post/**", "/comment/**").permitAll()
+                                // Like status and checks are per user, so unlike the other like reads they need a login
+                                .requestMatchers(HttpMethod.GET, "/like/status", "/like/post/check", "/like/comment/check").authenticated()
                                 .requestMatchers(HttpMethod.GET, "/like/**").permitAll()
                                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+                                .requestMatchers("/actuator/health").permitAll()
 
                                 // Admin only endpoints
                                 .requestMatchers("/event/admin/**").hasAuthority("ADMIN")
                                 .requestMatchers(HttpMethod.PATCH, "/event/{id}/accept").hasAuthority("ADMIN")
                                 .requestMatchers("/user/**").hasAuthority("ADMIN")
+                                .requestMatchers("/actuator/**").hasAuthority("ADMIN")
 
                                 // Host and Admin endpoints - tạo event
                                 .requestMatchers(HttpMethod.POST, "/event/create").hasAnyAuthority("HOST", "ADMIN")
@@ -88,6 +101,8 @@ public class SecurityConfig {
 
                                 // Like endpoints - authenticated users
                                 .requestMatchers(HttpMethod.POST, "/like/**").authenticated()
+                                .requestMatchers(HttpMethod.PUT, "/like/**").authenticated()
+                                .requestMatchers(HttpMethod.DELETE, "/like/**").authenticated()
 
                                 // Notification endpoints - authenticated users
                                 .requestMatchers("/notifications/**").authenticated()
@@ -95,11 +110,30 @@ public class SecurityConfig {
                                 // Các request còn lại cần authenticated
                                 .anyRequest().authenticated())
                 .authenticationProvider(authenticationProvider())
-                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter(), JwtAuthenticationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Rate limits per route group. Auth endpoints are keyed by client IP,
+     * write endpoints by user id (client IP for anonymous callers).
+     */
+    private RateLimitFilter rateLimitFilter() {
+        PathPatternRequestMatcher.Builder path = PathPatternRequestMatcher.withDefaults();
+        return new RateLimitFilter(meterRegistry)
+                .limit("auth", 10, Duration.ofMinutes(1),
+                        path.matcher(HttpMethod.POST, "/auth/login"),
+                        path.matcher(HttpMethod.POST, "/auth/register"))
+                .limit("like", 60, Duration.ofMinutes(1),
+                        path.matcher(HttpMethod.POST, "/like/**"),
+                        path.matcher(HttpMethod.PUT, "/like/**"),
+                        path.matcher(HttpMethod.DELETE, "/like/**"))
+                .limit("comment", 20, Duration.ofMinutes(1),
+                        path.matcher(HttpMethod.POST, "/comment/create"));
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService);
@@ -0,0 +1,28 @@
+package com.example.backend.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Open-in-view as Spring Boot would register it, minus the notification stream. An SSE
+ * response stays open for up to half an hour, and an EntityManager bound to it would keep
+ * its JDBC connection for as long; spring.jpa.open-in-view=false turns off Boot's own.
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public WebMvcConfig(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        OpenEntityManagerInViewInterceptor openInView = new OpenEntityManagerInViewInterceptor();
+        openInView.setEntityManagerFactory(entityManagerFactory);
+        registry.addWebRequestInterceptor(openInView).excludePathPatterns("/notifications/stream");
+    }
+}
@@ -4,13 +4,20 @@ import com.example.backend.dto.ApiResponse;
 import com.example.backend.dto.CommentRequest;
 import com.example.backend.dto.CommentUpdateRequest;
 import com.example.backend.service.CommentService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/comment")
 public class CommentController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_THREAD_DEPTH = 10;
+    private static final int MAX_REPLIES_PER_COMMENT = 50;
+
     private final CommentService commentService;
 
     public CommentController(CommentService commentService) {
@@ -26,27 +33,69 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.CREATED).body(apiResponse);
     }
 
+    /**
+     * Newest top-level comments first. For the next page pass the createdAt and id of the
+     * last comment received as {@code before} and {@code beforeId}.
+     */
     @GetMapping("/byPost/{postId}")
     public ResponseEntity<ApiResponse> getCommentsByPostId(
-            @PathVariable Long postId) {
+            @PathVariable Long postId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
         ApiResponse apiResponse =
                 new ApiResponse(
                         "Comments retrieved successfully",
-                        commentService.getCommentsByPostId(postId));
+                        commentService.getCommentsByPostId(
+                                postId, before, beforeId, Math.clamp(size, 1, MAX_PAGE_SIZE)));
         return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
     }
 
+    // Replies, paged the same way as top-level comments
     @GetMapping("/byParent/{parentId}")
     public ResponseEntity<ApiResponse> getCommentsByParentId(
-            @PathVariable Long parentId) {
+            @PathVariable Long parentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
         ApiResponse apiResponse =
                 new ApiResponse(
                         "Comments retrived successfully",
-                        commentService.getCommentsByParentId(parentId)
+                        commentService.getCommentsByParentId(
+                                parentId, before, beforeId, Math.clamp(size, 1, MAX_PAGE_SIZE))
                 );
         return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
     }
 
+    /**
+     * A page of top-level comments (paged like /byPost) with replies nested below them,
+     * up to {@code depth} levels and {@code replies} newest replies per comment. Each
+     * comment's {@code hiddenReplies} tells how many direct replies were left out.
+     */
+    @GetMapping("/thread/{postId}")
+    public ResponseEntity<ApiResponse> getThread(
+            @PathVariable Long postId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "3") int depth,
+            @RequestParam(defaultValue = "3") int replies) {
+        ApiResponse apiResponse =
+                new ApiResponse(
+                        "Comments retrieved successfully",
+                        commentService.getThread(
+                                postId,
+                                before,
+                                beforeId,
+                                Math.clamp(size, 1, MAX_PAGE_SIZE),
+                                Math.clamp(depth, 1, MAX_THREAD_DEPTH),
+                                Math.clamp(replies, 0, MAX_REPLIES_PER_COMMENT)));
+        return ResponseEntity.status(HttpStatus.OK).body(apiResponse);
+    }
+
     @PutMapping("/update")
     public ResponseEntity<ApiResponse> updateComment(@RequestParam Long commentId, @RequestBody CommentUpdateRequest commentUpdateRequest) {
         ApiResponse apiResponse =
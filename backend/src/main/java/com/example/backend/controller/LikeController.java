@@ -1,73 +1,91 @@
 package com.example.backend.controller;
 
 import com.example.backend.dto.ApiResponse;
-import com.example.backend.model.LikeComment;
-import com.example.backend.model.LikePost;
+import com.example.backend.dto.LikeStatusResponse;
+import com.example.backend.security.CurrentUser;
 import com.example.backend.service.LikeService;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/like")
 public class LikeController {
     private final LikeService likeService;
+    private final CurrentUser currentUser;
 
-    public LikeController(LikeService likeService) {
+    public LikeController(LikeService likeService, CurrentUser currentUser) {
         this.likeService = likeService;
+        this.currentUser = currentUser;
     }
 
-    @PostMapping("/post")
-    public ResponseEntity<ApiResponse> likePost(
-            @RequestParam Long user_id, @RequestParam Long post_id) {
-        LikePost likePost = likeService.likePost(user_id, post_id);
+    // PUT likes and DELETE unlikes as the current user; both are idempotent, so clients
+    // can safely retry them
 
-        if (likePost == null) {
-            ApiResponse apiResponse = new ApiResponse("Unlike post successfully", null);
-            return ResponseEntity.ok(apiResponse);
-        }
+    @PutMapping("/post/{postId}")
+    public ResponseEntity<ApiResponse> likePost(@PathVariable Long postId) {
+        likeService.likePost(currentUser.id(), postId);
+        return ResponseEntity.ok(new ApiResponse("Like post successfully", true));
+    }
 
-        ApiResponse apiResponse =
-                new ApiResponse("Like post successfully", likePost);
-        return ResponseEntity.ok(apiResponse);
+    @DeleteMapping("/post/{postId}")
+    public ResponseEntity<ApiResponse> unlikePost(@PathVariable Long postId) {
+        likeService.unlikePost(currentUser.id(), postId);
+        return ResponseEntity.ok(new ApiResponse("Unlike post successfully", false));
     }
 
-    @PostMapping("/comment")
-    public ResponseEntity<ApiResponse> likeComment(
-            @RequestParam Long user_id, @RequestParam Long comment_id) {
-        LikeComment likeComment = likeService.likeComment(user_id, comment_id);
+    @PutMapping("/comment/{commentId}")
+    public ResponseEntity<ApiResponse> likeComment(@PathVariable Long commentId) {
+        likeService.likeComment(currentUser.id(), commentId);
+        return ResponseEntity.ok(new ApiResponse("Like comment successfully", true));
+    }
+
+    @DeleteMapping("/comment/{commentId}")
+    public ResponseEntity<ApiResponse> unlikeComment(@PathVariable Long commentId) {
+        likeService.unlikeComment(currentUser.id(), commentId);
+        return ResponseEntity.ok(new ApiResponse("Unlike comment successfully", false));
+    }
 
-        if (likeComment == null) {
-            ApiResponse apiResponse = new ApiResponse("Unlike comment successfully", null);
-            return ResponseEntity.ok(apiResponse);
-        }
+    // Toggle endpoints are kept for older clients; data is whether the target is now liked.
+    // They act as the current user too; a user_id sent by those clients is ignored
+
+    @PostMapping("/post")
+    public ResponseEntity<ApiResponse> toggleLikePost(@RequestParam Long post_id) {
+        boolean liked = likeService.toggleLikePost(currentUser.id(), post_id);
+        String message = liked ? "Like post successfully" : "Unlike post successfully";
+        return ResponseEntity.ok(new ApiResponse(message, liked));
+    }
+
+    @PostMapping("/comment")
+    public ResponseEntity<ApiResponse> toggleLikeComment(@RequestParam Long comment_id) {
+        boolean liked = likeService.toggleLikeComment(currentUser.id(), comment_id);
+        String message = liked ? "Like comment successfully" : "Unlike comment successfully";
+        return ResponseEntity.ok(new ApiResponse(message, liked));
+    }
 
-        ApiResponse apiResponse =
-                new ApiResponse(
-                        "Like comment successfully", likeComment);
-        return ResponseEntity.ok(apiResponse);
+    // Which of the given posts and comments the current user has liked
+    @GetMapping("/status")
+    public ResponseEntity<ApiResponse> getLikeStatus(
+            @RequestParam(required = false) List<Long> post_ids,
+            @RequestParam(required = false) List<Long> comment_ids) {
+        LikeStatusResponse status =
+                likeService.getLikeStatus(
+                        currentUser.id(),
+                        post_ids == null ? List.of() : post_ids,
+                        comment_ids == null ? List.of() : comment_ids);
+        return ResponseEntity.ok(new ApiResponse("Get like status successfully", status));
     }
 
     @GetMapping("/post/check")
-    public ResponseEntity<ApiResponse> checkLikePost(
-            @RequestParam Long user_id, @RequestParam Long post_id) {
-        LikePost likePost = likeService.checkLikePost(user_id, post_id);
-        if (likePost == null) {
-            ApiResponse apiResponse = new ApiResponse("Check like post successfully", false);
-            return ResponseEntity.ok(apiResponse);
-        }
-        ApiResponse apiResponse = new ApiResponse("Check like post successfully", true);
-        return ResponseEntity.ok(apiResponse);
+    public ResponseEntity<ApiResponse> checkLikePost(@RequestParam Long post_id) {
+        boolean liked = likeService.checkLikePost(currentUser.id(), post_id);
+        return ResponseEntity.ok(new ApiResponse("Check like post successfully", liked));
     }
 
     @GetMapping("/comment/check")
-    public ResponseEntity<ApiResponse> checkLikeComment(
-            @RequestParam Long user_id, @RequestParam Long comment_id) {
-        LikeComment likeComment = likeService.checkLikeComment(user_id, comment_id);
-        if (likeComment == null) {
-            ApiResponse apiResponse = new ApiResponse("Check like comment successfully", false);
-            return ResponseEntity.ok(apiResponse);
-        }
-        ApiResponse apiResponse = new ApiResponse("Check like comment successfully", true);
-        return ResponseEntity.ok(apiResponse);
+    public ResponseEntity<ApiResponse> checkLikeComment(@RequestParam Long comment_id) {
+        boolean liked = likeService.checkLikeComment(currentUser.id(), comment_id);
+        return ResponseEntity.ok(new ApiResponse("Check like comment successfully", liked));
     }
 }
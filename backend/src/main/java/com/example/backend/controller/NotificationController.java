@@ -3,33 +3,89 @@ package com.example.backend.controller;
 import com.example.backend.dto.ApiResponse;
 import com.example.backend.dto.NotificationRequest;
 import com.example.backend.dto.PushSubscriptionRequest;
+import com.example.backend.model.NotificationMessage;
 import com.example.backend.model.User;
+import com.example.backend.security.CurrentUser;
 import com.example.backend.service.NotificationService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.Locale;
 
 @RestController
 @RequestMapping("/notifications")
 public class NotificationController {
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final NotificationService notificationService;
+    private final CurrentUser currentUser;
 
-    public NotificationController(NotificationService notificationService) {
+    public NotificationController(NotificationService notificationService, CurrentUser currentUser) {
         this.notificationService = notificationService;
+        this.currentUser = currentUser;
+    }
+
+    /**
+     * Live notifications for the current user as Server-Sent Events. EventSource cannot
+     * send headers, so the token may also be passed as {@code access_token}. On reconnect
+     * the browser sends Last-Event-ID and everything newer is replayed first.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return notificationService.openStream(currentUser.id(), lastEventId);
     }
 
+    /**
+     * Newest notifications first. For the next page pass the createdAt and id of the
+     * last item received as {@code before} and {@code beforeId}. {@code lang} selects the
+     * language the stored templates are rendered in.
+     */
     @GetMapping("/{userId}")
-    public ResponseEntity<ApiResponse> getUserNotifications(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse> getUserNotifications(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    LocalDateTime before,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "vi") String lang) {
+        int pageSize = Math.clamp(size, 1, MAX_PAGE_SIZE);
         return ResponseEntity.ok(
-                new ApiResponse("Success", notificationService.getUserNotifications(userId))
+                new ApiResponse(
+                        "Success",
+                        notificationService.getUserNotifications(
+                                userId, before, beforeId, pageSize, Locale.forLanguageTag(lang)))
         );
     }
 
+    @GetMapping("/count/{userId}")
+    public ResponseEntity<ApiResponse> countUnread(@PathVariable Long userId) {
+        return ResponseEntity.ok(new ApiResponse("Success", notificationService.countUnread(userId)));
+    }
+
     @PutMapping("/read/{notificationId}")
     public ResponseEntity<ApiResponse> markAsRead(@PathVariable Long notificationId) {
         notificationService.markAsRead(notificationId);
         return ResponseEntity.ok(new ApiResponse("Marked as read", null));
     }
 
+    @PutMapping("/read-all/{userId}")
+    public ResponseEntity<ApiResponse> markAllAsRead(@PathVariable Long userId) {
+        notificationService.markAllAsRead(userId);
+        return ResponseEntity.ok(new ApiResponse("Marked all as read", null));
+    }
+
+    @PutMapping("/read-up-to/{userId}")
+    public ResponseEntity<ApiResponse> markAsReadUpTo(
+            @PathVariable Long userId, @RequestParam Long maxId) {
+        notificationService.markAsReadUpTo(userId, maxId);
+        return ResponseEntity.ok(new ApiResponse("Marked as read", null));
+    }
+
     @PostMapping("/subscribe/{userId}")
     public ResponseEntity<ApiResponse> subscribe(
             @PathVariable Long userId,
@@ -42,8 +98,7 @@ public class NotificationController {
     public ResponseEntity<ApiResponse> pushNotification(@RequestBody NotificationRequest request) {
         notificationService.createAndSendNotification(
                 request.getUserId(),
-                request.getContent(),
-                request.getLink()
+                NotificationMessage.literal(request.getContent(), request.getLink())
         );
         return ResponseEntity.ok(new ApiResponse("Notification sent", null));
     }
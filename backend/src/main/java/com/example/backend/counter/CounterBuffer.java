@@ -0,0 +1,197 @@
+package com.example.backend.counter;
+
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind buffer for the like/comment/reply counters. Each change only adds to a
+ * striped in-memory {@link CounterCell} per (counter, id), so concurrent likes on a
+ * trending post contend neither on the posts row nor on one cache line; every
+ * {@code flush-interval-ms} the accumulated deltas of each counter are written through the
+ * repositories with one multi-row UPDATE. Reads add {@link #pending} to the persisted value.
+ */
+@Slf4j
+@Component
+public class CounterBuffer {
+
+    public enum Counter {
+        POST_LIKES,
+        POST_COMMENTS,
+        COMMENT_LIKES,
+        COMMENT_REPLIES
+    }
+
+    private record Key(Counter counter, Long id) {}
+
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+
+    @Value("${counters.buffer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    // Flushes an entry may stay at zero before it is dropped from the map
+    @Value("${counters.buffer.idle-flushes:50}")
+    private int idleFlushes;
+
+    // A cell idle long enough is retired and leaves the map; a writer that still holds it
+    // is refused and starts a new cell, so no add can land after the cell's last flush
+    private final Map<Key, CounterCell> deltas = new ConcurrentHashMap<>();
+    private final Map<Key, Integer> idle = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+
+    // Lazy: PendingCounterListener needs this buffer while the EntityManagerFactory the
+    // repositories depend on is still being built
+    public CounterBuffer(@Lazy PostRepository postRepository, @Lazy CommentRepository commentRepository) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        flusher =
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("counter-flush").daemon(true).factory());
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Buffer a counter change. Inside a transaction it only counts once that transaction
+     * commits, so a rolled-back like or comment never moves a counter.
+     */
+    public void add(Counter counter, Long id, long delta) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            apply(counter, id, delta);
+                        }
+                    });
+        } else {
+            apply(counter, id, delta);
+        }
+    }
+
+    private void apply(Counter counter, Long id, long delta) {
+        Key key = new Key(counter, id);
+        while (true) {
+            CounterCell cell = deltas.computeIfAbsent(key, k -> new CounterCell());
+            if (cell.add(delta)) {
+                return;
+            }
+            deltas.remove(key, cell);
+        }
+    }
+
+    /**
+     * Delta not yet written to the database
+     */
+    public long pending(Counter counter, Long id) {
+        CounterCell cell = deltas.get(new Key(counter, id));
+        return cell == null ? 0 : cell.sum();
+    }
+
+    /**
+     * Persisted value plus the pending delta, for counters read without the entity.
+     */
+    public Integer withPending(Integer persisted, Counter counter, Long id) {
+        long delta = pending(counter, id);
+        if (delta == 0) {
+            return persisted;
+        }
+        return (int) Math.max(0, (persisted == null ? 0 : persisted) + delta);
+    }
+
+    public synchronized void flush() {
+        Map<Counter, Map<Long, Long>> batch = new EnumMap<>(Counter.class);
+
+        for (Map.Entry<Key, CounterCell> entry : deltas.entrySet()) {
+            Key key = entry.getKey();
+            CounterCell cell = entry.getValue();
+            long delta = cell.drain();
+            if (delta != 0) {
+                idle.remove(key);
+            } else if (idle.merge(key, 1, Integer::sum) >= idleFlushes) {
+                // Whatever raced in since the drain goes out with this batch
+                delta = cell.retire();
+                deltas.remove(key, cell);
+                idle.remove(key);
+            }
+            if (delta != 0) {
+                batch.computeIfAbsent(key.counter(), c -> new HashMap<>()).merge(key.id(), delta, Long::sum);
+            }
+        }
+
+        batch.forEach(
+                (counter, byId) -> {
+                    try {
+                        write(counter, byId);
+                    } catch (Exception e) {
+                        // Put the deltas back; they go out with the next flush
+                        log.warn("Failed to flush {} {} delta(s): {}", byId.size(), counter, e.getMessage());
+                        byId.forEach((id, delta) -> apply(counter, id, delta));
+                    }
+                });
+    }
+
+    /**
+     * Run a recount of the ids in (after, upTo] with the buffer held off them. Their pending
+     * deltas are taken out first; they only exist once their transaction has committed, so
+     * the recount sees those rows and the deltas are dropped when it succeeds, or put back
+     * if it fails. No flush runs meanwhile, so none of them is written on top of the recount.
+     * Only a change that commits between the drain and the recount's snapshot can still be
+     * counted twice, and the next recount corrects that.
+     */
+    public synchronized <T> T recount(Set<Counter> counters, long after, long upTo, Supplier<T> recount) {
+        Map<Key, Long> drained = new HashMap<>();
+        for (Map.Entry<Key, CounterCell> entry : deltas.entrySet()) {
+            Key key = entry.getKey();
+            if (counters.contains(key.counter()) && key.id() > after && key.id() <= upTo) {
+                long delta = entry.getValue().drain();
+                if (delta != 0) {
+                    drained.put(key, delta);
+                }
+            }
+        }
+        try {
+            return recount.get();
+        } catch (RuntimeException e) {
+            drained.forEach((key, delta) -> apply(key.counter(), key.id(), delta));
+            throw e;
+        }
+    }
+
+    private void write(Counter counter, Map<Long, Long> byId) {
+        switch (counter) {
+            case POST_LIKES -> postRepository.addLikes(byId);
+            case POST_COMMENTS -> postRepository.addComments(byId);
+            case COMMENT_LIKES -> commentRepository.addLikes(byId);
+            case COMMENT_REPLIES -> commentRepository.addReplies(byId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+}
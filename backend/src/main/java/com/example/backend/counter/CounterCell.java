@@ -0,0 +1,126 @@
+package com.example.backend.counter;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The pending delta of one counter, striped like a LongAdder: writers CAS a single base
+ * value until they collide, after which the cell spreads them over per-core stripes, each
+ * on its own cache line. Unlike a LongAdder it can be retired: every slot is swapped to
+ * {@link #RETIRED}, and an add that finds the marker fails instead of landing in a cell
+ * that no flush will read again.
+ */
+final class CounterCell {
+
+    static final long RETIRED = Long.MIN_VALUE;
+
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1));
+
+    // Longs per 64-byte cache line; only the first of each line is used
+    private static final int PAD = 8;
+
+    // Installed in place of the stripes by retire() so none can appear afterwards
+    private static final AtomicLongArray SEALED = sealed();
+
+    private final AtomicLong base = new AtomicLong();
+    private final AtomicReference<AtomicLongArray> stripes = new AtomicReference<>();
+
+    /**
+     * Add the delta; false if the cell has been retired and the caller needs a new one.
+     */
+    boolean add(long delta) {
+        int stripe = -1;
+        while (true) {
+            AtomicLongArray striped = stripes.get();
+            if (striped == null) {
+                long current = base.get();
+                if (current == RETIRED) {
+                    return false;
+                }
+                if (base.compareAndSet(current, current + delta)) {
+                    return true;
+                }
+                // Contended: writers of this cell use the stripes from now on
+                stripes.compareAndSet(null, new AtomicLongArray(STRIPES * PAD));
+            } else {
+                if (stripe < 0) {
+                    stripe = stripeOf(Thread.currentThread().threadId());
+                }
+                int slot = stripe * PAD;
+                long current = striped.get(slot);
+                if (current == RETIRED) {
+                    return false;
+                }
+                if (striped.compareAndSet(slot, current, current + delta)) {
+                    return true;
+                }
+                stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+            }
+        }
+    }
+
+    /**
+     * Current delta; 0 once retired.
+     */
+    long sum() {
+        long total = base.get();
+        if (total == RETIRED) {
+            return 0;
+        }
+        AtomicLongArray striped = stripes.get();
+        if (striped != null) {
+            for (int slot = 0; slot < striped.length(); slot += PAD) {
+                long value = striped.get(slot);
+                if (value == RETIRED) {
+                    return 0;
+                }
+                total += value;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Reset the cell and return what it held. Only the flushing thread drains or retires,
+     * so no slot is RETIRED here.
+     */
+    long drain() {
+        long total = base.getAndSet(0);
+        AtomicLongArray striped = stripes.get();
+        if (striped != null) {
+            for (int slot = 0; slot < striped.length(); slot += PAD) {
+                total += striped.getAndSet(slot, 0);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Seal the cell against further adds and return what was added since the last drain.
+     */
+    long retire() {
+        long total = base.getAndSet(RETIRED);
+        if (!stripes.compareAndSet(null, SEALED)) {
+            AtomicLongArray striped = stripes.get();
+            for (int slot = 0; slot < striped.length(); slot += PAD) {
+                total += striped.getAndSet(slot, RETIRED);
+            }
+        }
+        return total;
+    }
+
+    private static int stripeOf(long threadId) {
+        return (int) ((threadId * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+    }
+
+    private static AtomicLongArray sealed() {
+        AtomicLongArray sealed = new AtomicLongArray(STRIPES * PAD);
+        for (int slot = 0; slot < sealed.length(); slot += PAD) {
+            sealed.set(slot, RETIRED);
+        }
+        return sealed;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.backend.counter;
+
+import com.example.backend.counter.CounterBuffer.Counter;
+import com.example.backend.model.Comment;
+import com.example.backend.model.Post;
+import jakarta.persistence.PostLoad;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Adds not-yet-flushed deltas to counters as posts and comments are loaded, so readers see
+ * likes the moment they happen. Hibernate obtains this listener from the Spring context.
+ * The adjusted value is never written back: the counter columns are not updatable.
+ */
+@Component
+@RequiredArgsConstructor
+public class PendingCounterListener {
+
+    private final CounterBuffer counterBuffer;
+
+    @PostLoad
+    public void applyPending(Object entity) {
+        if (entity instanceof Post post) {
+            post.setLikesCount(
+                    counterBuffer.withPending(post.getLikesCount(), Counter.POST_LIKES, post.getId()));
+            post.setCommentsCount(
+                    counterBuffer.withPending(
+                            post.getCommentsCount(), Counter.POST_COMMENTS, post.getId()));
+        } else if (entity instanceof Comment comment) {
+            comment.setLikesCount(
+                    counterBuffer.withPending(
+                            comment.getLikesCount(), Counter.COMMENT_LIKES, comment.getId()));
+            comment.setRepliesCount(
+                    counterBuffer.withPending(
+                            comment.getRepliesCount(), Counter.COMMENT_REPLIES, comment.getId()));
+        }
+    }
+}
@@ -5,7 +5,6 @@ import lombok.Data;
 @Data
 public class CommentRequest {
     private Long postId;
-    private Long userId;
     private String content;
     private Long parentCommentId;
 }
@@ -0,0 +1,44 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Comment;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentResponse {
+    private Long id;
+    private String content;
+    private Integer likesCount;
+    private Integer repliesCount;
+    private LocalDateTime createdAt;
+    private Long parentCommentId;
+    private Author user;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Author {
+        private Long id;
+        private String username;
+    }
+
+    // Expects the user to be fetched; the parent is only read for its id
+    public static CommentResponse fromComment(Comment comment) {
+        return new CommentResponse(
+                comment.getId(),
+                comment.getContent(),
+                comment.getLikesCount(),
+                comment.getRepliesCount(),
+                comment.getCreatedAt(),
+                comment.getParentComment() == null ? null : comment.getParentComment().getId(),
+                new Author(comment.getUser().getId(), comment.getUser().getUsername()));
+    }
+}
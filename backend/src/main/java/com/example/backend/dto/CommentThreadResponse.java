@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A comment with the replies loaded under it. {@code hiddenReplies} counts the direct
+ * replies cut off by the depth or per-comment limit; fetch them with /comment/byParent.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CommentThreadResponse extends CommentResponse {
+    private List<CommentThreadResponse> replies = new ArrayList<>();
+    private int hiddenReplies;
+}
@@ -0,0 +1,35 @@
+package com.example.backend.dto;
+
+import com.example.backend.model.Notification;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationResponse {
+    private Long id;
+    private String content;
+    private String link;
+    private boolean read;
+    private LocalDateTime createdAt;
+    // When a coalesced notification last took a new actor; equal to createdAt otherwise
+    private LocalDateTime updatedAt;
+
+    public static NotificationResponse fromNotification(Notification notification, String content) {
+        return new NotificationResponse(
+                notification.getId(),
+                content,
+                notification.getLink(),
+                notification.isRead(),
+                notification.getCreatedAt(),
+                notification.getUpdatedAt() == null
+                        ? notification.getCreatedAt()
+                        : notification.getUpdatedAt());
+    }
+}
@@ -1,22 +1,42 @@
 package com.example.backend.exception;
 
 import com.example.backend.dto.ApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+/**
+ * Maps exceptions thrown by the services to API responses.
+ *
+ * <p>An {@link AppException} is answered with its own status: a 4xx carries the plain
+ * message (e.g. {@code ACCOUNT_LOCKED}, which clients compare against), and a 5xx, or an
+ * exception without a status, is a server error whose message is prefixed with
+ * {@code Lỗi Server (<status>)} and logged with its stack trace.
+ */
+@Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
     @ExceptionHandler(AppException.class)
     public ResponseEntity<ApiResponse> handleAppException(AppException ex) {
-        ex.printStackTrace();
+        HttpStatus status = ex.getStatus() == null ? HttpStatus.INTERNAL_SERVER_ERROR : ex.getStatus();
+        if (status.is5xxServerError()) {
+            log.error("Request failed", ex);
+            return ResponseEntity.status(status)
+                    .body(new ApiResponse("Lỗi Server (" + status.value() + "): " + ex.getMessage(), null));
+        }
+        return ResponseEntity.status(status).body(new ApiResponse(ex.getMessage(), null));
+    }
 
-        ApiResponse response = new ApiResponse(
-                "Lỗi Server (500): " + ex.getMessage(),
-                null
-        );
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        // Overload is expected under load, so answer fast without a stack trace
+        ApiResponse response = new ApiResponse(ex.getMessage(), null);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(response);
     }
 }
@@ -1,5 +1,6 @@
 package com.example.backend.model;
 
+import com.example.backend.counter.PendingCounterListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
@@ -7,11 +8,22 @@ import lombok.Data;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@EntityListeners(PendingCounterListener.class)
+@Table(
+        name = "comments",
+        indexes = {
+            // Keyset pages of top-level comments and of replies, newest first
+            @Index(name = "idx_comments_post_parent_created", columnList = "post_id, parent_id, created_at, id"),
+            @Index(name = "idx_comments_parent_created", columnList = "parent_id, created_at, id"),
+            @Index(name = "idx_comments_root", columnList = "root_id")
+        })
 @Data
 public class Comment {
+    // Drawn from the id column's own sequence before the INSERT, so path, which ends with
+    // the id, goes out in that same INSERT
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comments_id")
+    @SequenceGenerator(name = "comments_id", sequenceName = "comments_id_seq", allocationSize = 1)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -29,7 +41,20 @@ public class Comment {
     @Column(columnDefinition = "TEXT")
     private String content;
 
+    // Ids from the top-level comment down to this one, each followed by '/', e.g. "12/57/".
+    // A subtree is every comment whose path starts with this one's; the text_pattern_ops
+    // index that makes this a range scan is created in schema.sql
+    @Column(columnDefinition = "TEXT")
+    private String path;
+
+    // Top-level comment of the thread; its own id for a top-level comment
+    private Long rootId;
+
+    // Maintained by CounterBuffer; never written back from a loaded entity
+    @Column(updatable = false)
     private Integer likesCount;
+
+    @Column(updatable = false)
     private Integer repliesCount;
     
     private LocalDateTime createdAt = LocalDateTime.now();
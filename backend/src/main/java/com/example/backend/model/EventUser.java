@@ -8,7 +8,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "event_user")
+@Table(name = "event_user", indexes = @Index(name = "idx_event_user_event", columnList = "event_id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -3,8 +3,12 @@ package com.example.backend.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
+// Unique (user_id, target) index is created in schema.sql
 @Entity
-@Table(name = "like_comments")
+@Table(
+        name = "like_comments",
+        // Cascade deletes and recounts look likes up by comment
+        indexes = @Index(name = "idx_like_comments_comment", columnList = "comment_id"))
 @Data
 public class LikeComment {
     @Id
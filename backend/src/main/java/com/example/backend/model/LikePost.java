@@ -3,8 +3,12 @@ package com.example.backend.model;
 import jakarta.persistence.*;
 import lombok.Data;
 
+// Unique (user_id, target) index is created in schema.sql
 @Entity
-@Table(name = "like_posts")
+@Table(
+        name = "like_posts",
+        // Cascade deletes and recounts look likes up by post
+        indexes = @Index(name = "idx_like_posts_post", columnList = "post_id"))
 @Data
 public class LikePost {
     @Id
@@ -7,7 +7,13 @@ import java.time.LocalDateTime;
 
 @Entity
 @Data
-@Table(name="notifications")
+@Table(
+        name = "notifications",
+        indexes = {
+            @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id"),
+            @Index(name = "idx_notifications_user_kind_entity", columnList = "user_id, kind, entity_id"),
+            @Index(name = "idx_notifications_user_updated", columnList = "user_id, updated_at, id")
+        })
 public class Notification {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,7 +23,16 @@ public class Notification {
     @JoinColumn(name = "user_id", referencedColumnName = "id")
     private User user;
 
-    @Column(nullable = false, columnDefinition = "TEXT")
+    // Template id; null for free-form notifications, which keep their content instead
+    @Enumerated(EnumType.STRING)
+    @Column(length = 32)
+    private NotificationKind kind;
+
+    private Long actorId;
+
+    private Long entityId;
+
+    @Column(columnDefinition = "TEXT")
     private String content;
 
     @Column(nullable = true)
@@ -26,6 +41,17 @@ public class Notification {
     @Column(nullable = false)
     private boolean isRead = false;
 
+    // Never changes, so the (createdAt, id) inbox cursor stays stable
     @Column(nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
+
+    // Last time a coalesced row took a new actor; equal to createdAt for every other row
+    private LocalDateTime updatedAt = createdAt;
+
+    @Column(nullable = false, columnDefinition = "integer default 1")
+    private int actorCount = 1;
+
+    // Coalesced notifications only: most recent actor ids, comma separated, newest first
+    @Column(nullable = true, length = 64)
+    private String actorIds;
 }
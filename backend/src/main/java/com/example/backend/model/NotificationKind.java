@@ -0,0 +1,45 @@
+package com.example.backend.model;
+
+/**
+ * Template id of a stored notification. The row keeps only the template and typed
+ * parameters (actor and entity ids); the text is rendered from messages*.properties
+ * when the notification is read.
+ */
+public enum NotificationKind {
+    EVENT_CREATED(Target.EVENT),
+    EVENT_ACCEPTED(Target.EVENT),
+    EVENT_POST(Target.EVENT),
+    EVENT_REGISTERED(Target.EVENT),
+    REGISTRATION_ACCEPTED(Target.EVENT),
+    REGISTRATION_DENIED(Target.EVENT),
+    ROLE_CHANGED(Target.ROLE),
+
+    // Coalesced per target: every like on one post ends up in one row
+    POST_LIKE(Target.NONE),
+    COMMENT_LIKE(Target.NONE),
+    POST_COMMENT(Target.NONE),
+    COMMENT_REPLY(Target.NONE);
+
+    /**
+     * What entity_id refers to when its name appears in the text
+     */
+    public enum Target {
+        EVENT,
+        ROLE,
+        NONE
+    }
+
+    private final Target target;
+
+    NotificationKind(Target target) {
+        this.target = target;
+    }
+
+    public Target getTarget() {
+        return target;
+    }
+
+    public String messageKey() {
+        return "notification." + name();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.model;
+
+/**
+ * What to store for a notification: a template with its actor and entity ids,
+ * or literal content for free-form notifications sent through /notifications/push.
+ */
+public record NotificationMessage(
+        NotificationKind kind, Long actorId, Long entityId, String content, String link) {
+
+    public static NotificationMessage of(
+            NotificationKind kind, Long actorId, Long entityId, String link) {
+        return new NotificationMessage(kind, actorId, entityId, null, link);
+    }
+
+    public static NotificationMessage literal(String content, String link) {
+        return new NotificationMessage(null, null, null, content, link);
+    }
+}
@@ -1,12 +1,14 @@
 package com.example.backend.model;
 
+import com.example.backend.counter.PendingCounterListener;
 import jakarta.persistence.*;
 import lombok.Data;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "posts")
+@EntityListeners(PendingCounterListener.class)
+@Table(name = "posts", indexes = @Index(name = "idx_posts_event", columnList = "event_id"))
 @Data
 public class Post {
     @Id
@@ -24,7 +26,11 @@ public class Post {
     private String content;
     private String imageUrl;
 
+    // Maintained by CounterBuffer; never written back from a loaded entity
+    @Column(updatable = false)
     private Integer likesCount;
+
+    @Column(updatable = false)
     private Integer commentsCount;
 
     private LocalDateTime createdAt = LocalDateTime.now();
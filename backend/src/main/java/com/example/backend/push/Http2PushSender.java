@@ -0,0 +1,88 @@
+package com.example.backend.push;
+
+import com.example.backend.model.PushSubscription;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import nl.martijndwars.webpush.Encoding;
+import nl.martijndwars.webpush.Notification;
+import nl.martijndwars.webpush.PushService;
+import nl.martijndwars.webpush.Subscription;
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.util.EntityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Web Push over one shared java.net.http client. The client negotiates HTTP/2 and keeps
+ * its connections per push service origin, so thousands of sends to the same provider
+ * are multiplexed over a handful of connections instead of a TLS handshake each.
+ *
+ * <p>PushService is only used to encrypt the payload and sign the VAPID headers; the
+ * request itself is sent here. Endpoints are taken from the subscription as-is, so a
+ * subscription pointing at a local http:// stub works the same way (over HTTP/1.1).
+ */
+@Component
+@RequiredArgsConstructor
+public class Http2PushSender implements PushSender {
+
+    // Managed by the HTTP client itself and rejected if set on a request
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("content-length", "host", "connection", "expect", "upgrade");
+
+    private final PushService pushService;
+
+    @Value("${push.http.connect-timeout-ms:5000}")
+    private long connectTimeoutMs;
+
+    @Value("${push.http.request-timeout-ms:10000}")
+    private long requestTimeoutMs;
+
+    private HttpClient client;
+
+    @PostConstruct
+    public void init() {
+        client =
+                HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                        .build();
+    }
+
+    @Override
+    public CompletableFuture<Integer> send(PushSubscription subscription, String payload) {
+        HttpRequest request;
+        try {
+            request = toRequest(subscription, payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(HttpResponse::statusCode);
+    }
+
+    private HttpRequest toRequest(PushSubscription subscription, String payload) throws Exception {
+        Subscription librarySub =
+                new Subscription(
+                        subscription.getEndpoint(),
+                        new Subscription.Keys(subscription.getP256dh(), subscription.getAuth()));
+        HttpPost post = pushService.preparePost(new Notification(librarySub, payload), Encoding.AES128GCM);
+
+        HttpRequest.Builder builder =
+                HttpRequest.newBuilder(post.getURI()).timeout(Duration.ofMillis(requestTimeoutMs));
+        for (Header header : post.getAllHeaders()) {
+            if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase())) {
+                builder.header(header.getName(), header.getValue());
+            }
+        }
+        byte[] body = post.getEntity() == null ? new byte[0] : EntityUtils.toByteArray(post.getEntity());
+        return builder.POST(HttpRequest.BodyPublishers.ofByteArray(body)).build();
+    }
+}
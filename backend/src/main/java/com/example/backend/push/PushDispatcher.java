@@ -0,0 +1,231 @@
+package com.example.backend.push;
+
+import com.example.backend.model.PushSubscription;
+import com.example.backend.repository.PushSubscriptionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers Web Push messages off the request path.
+ *
+ * <ul>
+ *   <li>Sends are asynchronous; a virtual thread only waits for the origin's permit and
+ *       hands the request to the {@link PushSender}.
+ *   <li>At most {@code queue-capacity} messages are pending (queued, in flight or waiting
+ *       to retry). Beyond that new messages are dropped and counted.
+ *   <li>Each push service origin (fcm.googleapis.com, updates.push.services.mozilla.com, ...)
+ *       gets its own concurrency limit.
+ *   <li>429, 5xx and I/O errors are retried with exponential backoff and full jitter;
+ *       404/410 mean the subscription is gone; gone subscriptions are deleted in one batch
+ *       every {@code prune-interval-ms}.
+ *   <li>On shutdown, new messages are refused and pending ones get a bounded time to drain.
+ * </ul>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PushDispatcher {
+
+    private final PushSender pushSender;
+    private final PushSubscriptionRepository subscriptionRepo;
+    private final PushSubscriptionCache subscriptionCache;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${push.dispatcher.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${push.dispatcher.per-origin-concurrency:16}")
+    private int perOriginConcurrency;
+
+    @Value("${push.dispatcher.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${push.dispatcher.base-backoff-ms:500}")
+    private long baseBackoffMs;
+
+    @Value("${push.dispatcher.max-backoff-ms:30000}")
+    private long maxBackoffMs;
+
+    @Value("${push.dispatcher.drain-timeout-ms:10000}")
+    private long drainTimeoutMs;
+
+    @Value("${push.dispatcher.prune-interval-ms:5000}")
+    private long pruneIntervalMs;
+
+    private final Map<String, Semaphore> originLimits = new ConcurrentHashMap<>();
+    private final Queue<PushSubscription> expired = new ConcurrentLinkedQueue<>();
+
+    private Semaphore pending;
+    private ExecutorService senders;
+    private ScheduledExecutorService retryTimer;
+    private volatile boolean accepting = true;
+
+    @PostConstruct
+    public void init() {
+        pending = new Semaphore(queueCapacity);
+        senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("push-", 0).factory());
+        retryTimer =
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("push-retry").daemon(true).factory());
+        retryTimer.scheduleWithFixedDelay(
+                this::pruneExpired, pruneIntervalMs, pruneIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Queue a message for one subscription. Returns false if it was dropped.
+     */
+    public boolean dispatch(PushSubscription subscription, String payload) {
+        if (!accepting || !pending.tryAcquire()) {
+            count("dropped");
+            return false;
+        }
+        senders.execute(() -> attempt(subscription, payload, 1));
+        return true;
+    }
+
+    private void attempt(PushSubscription subscription, String payload, int attempt) {
+        // The per-origin permit bounds in-flight requests; the send itself is async,
+        // so this thread is released as soon as the request is handed to the client
+        Semaphore limit =
+                originLimits.computeIfAbsent(
+                        originOf(subscription), o -> new Semaphore(perOriginConcurrency));
+        try {
+            limit.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            count("dropped");
+            pending.release();
+            return;
+        }
+
+        CompletableFuture<Integer> response;
+        try {
+            response = pushSender.send(subscription, payload);
+        } catch (Exception e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        response.whenComplete(
+                (status, error) -> {
+                    limit.release();
+                    boolean done;
+                    if (error != null) {
+                        log.debug("Push to {} failed: {}", originOf(subscription), error.getMessage());
+                        done = !scheduleRetry(subscription, payload, attempt);
+                    } else {
+                        done = handleStatus(subscription, payload, attempt, status);
+                    }
+                    if (done) {
+                        pending.release();
+                    }
+                });
+    }
+
+    /**
+     * Classify the push service's answer. Returns false if a retry was scheduled.
+     */
+    private boolean handleStatus(
+            PushSubscription subscription, String payload, int attempt, int status) {
+        if (status >= 200 && status < 300) {
+            count("sent");
+        } else if (status == 404 || status == 410) {
+            count("expired");
+            expired.add(subscription);
+        } else if (status == 429 || status >= 500) {
+            return !scheduleRetry(subscription, payload, attempt);
+        } else {
+            count("rejected");
+            log.warn("Push to {} rejected with status {}", originOf(subscription), status);
+        }
+        return true;
+    }
+
+    // Expired subscriptions are removed in one batch delete per interval
+    private void pruneExpired() {
+        List<PushSubscription> batch = new ArrayList<>();
+        PushSubscription sub;
+        while ((sub = expired.poll()) != null) {
+            batch.add(sub);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            subscriptionRepo.deleteAllByIdInBatch(
+                    batch.stream().map(PushSubscription::getId).distinct().toList());
+            batch.stream()
+                    .map(PushSubscription::getUserId)
+                    .distinct()
+                    .forEach(subscriptionCache::invalidate);
+        } catch (Exception e) {
+            log.warn("Failed to prune {} expired push subscription(s): {}", batch.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns true if a retry was scheduled; the pending permit then stays held.
+     */
+    private boolean scheduleRetry(PushSubscription subscription, String payload, int attempt) {
+        if (attempt >= maxAttempts || retryTimer.isShutdown()) {
+            count("failed");
+            return false;
+        }
+
+        // Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        long delayMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        count("retried");
+        retryTimer.schedule(
+                () -> senders.execute(() -> attempt(subscription, payload, attempt + 1)),
+                delayMs,
+                TimeUnit.MILLISECONDS);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        accepting = false;
+
+        // Wait until every pending message has finished (or the drain timeout expires)
+        if (!pending.tryAcquire(queueCapacity, drainTimeoutMs, TimeUnit.MILLISECONDS)) {
+            log.warn(
+                    "Push dispatcher stopped with {} message(s) still pending",
+                    queueCapacity - pending.availablePermits());
+        }
+        retryTimer.shutdownNow();
+        senders.shutdownNow();
+        pruneExpired();
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("push.dispatch", "outcome", outcome).increment();
+    }
+
+    private static String originOf(PushSubscription subscription) {
+        try {
+            URI uri = URI.create(subscription.getEndpoint());
+            return uri.getScheme() + "://" + uri.getAuthority();
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backend.push;
+
+import com.example.backend.model.PushSubscription;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Transport for a single Web Push message. Completes with the push service's HTTP status,
+ * or exceptionally on I/O errors.
+ *
+ * <p>PushDispatcher only depends on this interface, so tests can point subscriptions
+ * at a local stub push server or replace the sender bean altogether.
+ */
+public interface PushSender {
+
+    CompletableFuture<Integer> send(PushSubscription subscription, String payload);
+}
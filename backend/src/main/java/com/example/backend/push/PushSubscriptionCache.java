@@ -0,0 +1,81 @@
+package com.example.backend.push;
+
+import com.example.backend.model.PushSubscription;
+import com.example.backend.repository.PushSubscriptionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Push subscriptions per user, bounded by size. Users without any subscription are cached
+ * as an empty list, so the common "never enabled push" case costs no query at all.
+ *
+ * <p>Entries are invalidated when a user subscribes and when a subscription is pruned.
+ */
+@Component
+@RequiredArgsConstructor
+public class PushSubscriptionCache {
+
+    private final PushSubscriptionRepository subscriptionRepo;
+
+    @Value("${push.subscription-cache.max-size:50000}")
+    private long maxSize;
+
+    private Cache<Long, List<PushSubscription>> subscriptions;
+
+    @PostConstruct
+    public void init() {
+        subscriptions = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Subscriptions of the given users; users without any are left out of the result.
+     * Missing entries are loaded with one query.
+     */
+    public Map<Long, List<PushSubscription>> getAll(Collection<Long> userIds) {
+        Map<Long, List<PushSubscription>> cached = subscriptions.getAll(userIds, this::load);
+        return cached.entrySet().stream()
+                .filter(e -> !e.getValue().isEmpty())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    /**
+     * Drop the user's entry. Inside a transaction this happens after commit, so a
+     * concurrent lookup cannot re-cache the state from before the change.
+     */
+    public void invalidate(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCompletion(int status) {
+                            subscriptions.invalidate(userId);
+                        }
+                    });
+        } else {
+            subscriptions.invalidate(userId);
+        }
+    }
+
+    private Map<Long, List<PushSubscription>> load(Iterable<? extends Long> userIds) {
+        Map<Long, List<PushSubscription>> loaded = new HashMap<>();
+        userIds.forEach(id -> loaded.put(id, List.of()));
+
+        Collection<Long> ids = List.copyOf(loaded.keySet());
+        subscriptionRepo.findByUserIdIn(ids).stream()
+                .collect(Collectors.groupingBy(PushSubscription::getUserId))
+                .forEach((userId, subs) -> loaded.put(userId, List.copyOf(subs)));
+        return loaded;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.backend.repository;
+
+import java.util.Map;
+
+/**
+ * Counter updates for comments. Each call adds many deltas, keyed by comment id, in one
+ * statement; CounterBuffer batches changes and flushes them through here.
+ */
+public interface CommentCounterOperations {
+
+    void addLikes(Map<Long, Long> deltas);
+
+    void addReplies(Map<Long, Long> deltas);
+}
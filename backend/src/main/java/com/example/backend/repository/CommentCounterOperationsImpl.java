@@ -0,0 +1,22 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class CommentCounterOperationsImpl implements CommentCounterOperations {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addLikes(Map<Long, Long> deltas) {
+        CounterUpdates.add(jdbcTemplate, "comments", "likes_count", deltas);
+    }
+
+    @Override
+    public void addReplies(Map<Long, Long> deltas) {
+        CounterUpdates.add(jdbcTemplate, "comments", "replies_count", deltas);
+    }
+}
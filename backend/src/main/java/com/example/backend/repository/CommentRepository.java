@@ -1,21 +1,49 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Comment;
-import com.example.backend.model.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByParentCommentOrderByCreatedAtDesc(Comment parentComment);
-
-    List<Comment> findByPostAndParentCommentOrderByCreatedAtDesc(Post post, Object o);
-
-    List<Comment> findByPostOrderByCreatedAtDesc(Post post);
-
-    List<Comment> findByPost(Post post);
-
-    List<Comment> findByParentComment(Comment parentComment);
-
-    List<Comment> findByPostAndParentComment(Post post, Object o);
+public interface CommentRepository
+        extends JpaRepository<Comment, Long>, CommentThreadOperations, CommentCounterOperations {
+    // Keyset pages, newest first: the first page, then everything strictly older than
+    // the (createdAt, id) cursor. The author is fetched for the response.
+    @Query(
+            "SELECT c FROM Comment c JOIN FETCH c.user"
+                    + " WHERE c.post.id = :postId AND c.parentComment IS NULL"
+                    + " ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelPage(@Param("postId") Long postId, Pageable pageable);
+
+    @Query(
+            "SELECT c FROM Comment c JOIN FETCH c.user"
+                    + " WHERE c.post.id = :postId AND c.parentComment IS NULL"
+                    + " AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))"
+                    + " ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findTopLevelPageBefore(
+            @Param("postId") Long postId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    @Query(
+            "SELECT c FROM Comment c JOIN FETCH c.user"
+                    + " WHERE c.parentComment.id = :parentId"
+                    + " ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRepliesPage(@Param("parentId") Long parentId, Pageable pageable);
+
+    @Query(
+            "SELECT c FROM Comment c JOIN FETCH c.user"
+                    + " WHERE c.parentComment.id = :parentId"
+                    + " AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id))"
+                    + " ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findRepliesPageBefore(
+            @Param("parentId") Long parentId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
 }
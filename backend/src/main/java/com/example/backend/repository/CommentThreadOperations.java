@@ -0,0 +1,34 @@
+package com.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Comment-tree reads that fetch a whole thread in one statement.
+ */
+public interface CommentThreadOperations {
+
+    record ThreadRow(
+            Long id,
+            Long parentId,
+            Long userId,
+            String username,
+            String content,
+            Integer likesCount,
+            Integer repliesCount,
+            LocalDateTime createdAt,
+            int depth) {}
+
+    /**
+     * A page of the post's newest top-level comments (older than the cursor when given)
+     * and, below each, up to {@code repliesPerComment} newest replies per comment down to
+     * {@code maxDepth} levels, top level being depth 1. Rows come back in no particular order.
+     */
+    List<ThreadRow> findThread(
+            Long postId,
+            LocalDateTime before,
+            Long beforeId,
+            int rootLimit,
+            int repliesPerComment,
+            int maxDepth);
+}
@@ -0,0 +1,83 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class CommentThreadOperationsImpl implements CommentThreadOperations {
+
+    // Each level takes the newest children of every node of the level above through a
+    // LATERAL ... LIMIT, so one statement walks the tree without loading whole branches.
+    // Both the root page and the per-node lookups are range scans on the comment indexes.
+    private static final String THREAD =
+            """
+            WITH RECURSIVE thread AS (
+                SELECT r.id, r.parent_id, r.user_id, r.content, r.likes_count, r.replies_count,
+                       r.created_at, 1 AS depth
+                FROM (
+                    SELECT c.* FROM comments c
+                    WHERE c.post_id = ? AND c.parent_id IS NULL %s
+                    ORDER BY c.created_at DESC, c.id DESC
+                    LIMIT ?) r
+                UNION ALL
+                SELECT ch.id, ch.parent_id, ch.user_id, ch.content, ch.likes_count, ch.replies_count,
+                       ch.created_at, t.depth + 1
+                FROM thread t
+                CROSS JOIN LATERAL (
+                    SELECT c.* FROM comments c
+                    WHERE c.parent_id = t.id
+                    ORDER BY c.created_at DESC, c.id DESC
+                    LIMIT ?) ch
+                WHERE t.depth < ?
+            )
+            SELECT t.*, u.username FROM thread t JOIN users u ON u.id = t.user_id
+            """;
+
+    private static final String THREAD_FIRST_PAGE = THREAD.formatted("");
+
+    private static final String THREAD_PAGE_BEFORE =
+            THREAD.formatted("AND (c.created_at, c.id) < (?, ?)");
+
+    private static final RowMapper<ThreadRow> ROW_MAPPER =
+            (rs, rowNum) ->
+                    new ThreadRow(
+                            rs.getLong("id"),
+                            rs.getObject("parent_id", Long.class),
+                            rs.getLong("user_id"),
+                            rs.getString("username"),
+                            rs.getString("content"),
+                            rs.getObject("likes_count", Integer.class),
+                            rs.getObject("replies_count", Integer.class),
+                            rs.getTimestamp("created_at").toLocalDateTime(),
+                            rs.getInt("depth"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<ThreadRow> findThread(
+            Long postId,
+            LocalDateTime before,
+            Long beforeId,
+            int rootLimit,
+            int repliesPerComment,
+            int maxDepth) {
+        if (before == null || beforeId == null) {
+            return jdbcTemplate.query(
+                    THREAD_FIRST_PAGE, ROW_MAPPER, postId, rootLimit, repliesPerComment, maxDepth);
+        }
+        return jdbcTemplate.query(
+                THREAD_PAGE_BEFORE,
+                ROW_MAPPER,
+                postId,
+                Timestamp.valueOf(before),
+                beforeId,
+                rootLimit,
+                repliesPerComment,
+                maxDepth);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.Map;
+
+/**
+ * Adds a delta per row to a counter column in one UPDATE ... FROM unnest(ids, deltas).
+ * The update is relative, so it never overwrites concurrent changes.
+ */
+final class CounterUpdates {
+
+    private CounterUpdates() {}
+
+    static void add(JdbcTemplate jdbcTemplate, String table, String column, Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Long[] ids = new Long[deltas.size()];
+        Long[] values = new Long[deltas.size()];
+        int i = 0;
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            ids[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        String sql =
+                "UPDATE " + table + " t SET " + column + " = COALESCE(t." + column + ", 0) + d.delta"
+                        + " FROM unnest(?::bigint[], ?::bigint[]) AS d(id, delta)"
+                        + " WHERE t.id = d.id";
+        jdbcTemplate.update(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(sql);
+                    ps.setArray(1, con.createArrayOf("bigint", ids));
+                    ps.setArray(2, con.createArrayOf("bigint", values));
+                    return ps;
+                });
+    }
+}
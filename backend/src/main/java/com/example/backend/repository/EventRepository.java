@@ -6,12 +6,17 @@ import com.example.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
     List<Event> findByStatus(EventStatus status);
     List<Event> findByType(String type);
+
+    @Query("SELECT e.id AS id, e.title AS name FROM Event e WHERE e.id IN :ids")
+    List<IdAndName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
     
     // Find all events managed/hosted by a user
     List<Event> findByManager(User manager);
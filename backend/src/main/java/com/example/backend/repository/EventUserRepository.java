@@ -4,6 +4,8 @@ import com.example.backend.model.Event;
 import com.example.backend.model.EventUser;
 import com.example.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -30,4 +32,8 @@ public interface EventUserRepository extends JpaRepository<EventUser, Long> {
     Optional<EventUser> findByUserAndEvent(User user, Event event);
 
     boolean existsByUserIdAndEventId(Long userId, Long eventId);
+
+    // Recipient ids for event-wide notifications, without loading users
+    @Query("SELECT eu.user.id FROM EventUser eu WHERE eu.event.id = :eventId")
+    List<Long> findUserIdsByEventId(@Param("eventId") Long eventId);
 }
@@ -0,0 +1,10 @@
+package com.example.backend.repository;
+
+/**
+ * Id/display-name projection for lookups that only need a label.
+ */
+public interface IdAndName {
+    Long getId();
+
+    String getName();
+}
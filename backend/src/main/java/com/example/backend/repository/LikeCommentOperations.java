@@ -0,0 +1,15 @@
+package com.example.backend.repository;
+
+import java.util.Optional;
+
+/**
+ * Comment like insert that relies on the unique (user_id, comment_id) index.
+ */
+public interface LikeCommentOperations {
+
+    /**
+     * Insert the like unless it already exists (uk_like_comments_user_comment).
+     * Returns the comment's owner and post only when a row was inserted.
+     */
+    Optional<LikeTarget> insertIfAbsent(Long userId, Long commentId);
+}
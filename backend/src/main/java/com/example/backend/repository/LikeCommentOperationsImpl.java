@@ -0,0 +1,37 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class LikeCommentOperationsImpl implements LikeCommentOperations {
+
+    // A data-modifying CTE: it writes but returns rows, which a derived @Query can only
+    // run as a read, so it goes through JdbcTemplate within the caller's transaction
+    private static final String INSERT_IF_ABSENT =
+            """
+            WITH inserted AS (
+                INSERT INTO like_comments (user_id, comment_id)
+                SELECT ?, c.id FROM comments c WHERE c.id = ?
+                ON CONFLICT (user_id, comment_id) DO NOTHING
+                RETURNING comment_id)
+            SELECT c.user_id, c.post_id
+            FROM inserted i JOIN comments c ON c.id = i.comment_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<LikeTarget> insertIfAbsent(Long userId, Long commentId) {
+        return jdbcTemplate
+                .query(
+                        INSERT_IF_ABSENT,
+                        (rs, rowNum) -> new LikeTarget(rs.getLong("user_id"), rs.getLong("post_id")),
+                        userId,
+                        commentId)
+                .stream()
+                .findFirst();
+    }
+}
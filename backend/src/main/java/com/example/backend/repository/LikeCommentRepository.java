@@ -1,16 +1,29 @@
 package com.example.backend.repository;
 
-import com.example.backend.model.Comment;
 import com.example.backend.model.LikeComment;
-import com.example.backend.model.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LikeCommentRepository extends JpaRepository<LikeComment, Integer> {
-    LikeComment findByUserAndComment(User user, Comment comment);
+public interface LikeCommentRepository extends JpaRepository<LikeComment, Integer>, LikeCommentOperations {
+    boolean existsByUserIdAndCommentId(Long userId, Long commentId);
 
-    List<LikeComment> findByComment(Comment comment);
+    // Served by the (user_id, comment_id) unique index
+    @Query(
+            "SELECT l.comment.id FROM LikeComment l"
+                    + " WHERE l.user.id = :userId AND l.comment.id IN :commentIds")
+    List<Long> findLikedCommentIds(
+            @Param("userId") Long userId, @Param("commentIds") Collection<Long> commentIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LikeComment l WHERE l.user.id = :userId AND l.comment.id = :commentId")
+    int deleteByUserIdAndCommentId(@Param("userId") Long userId, @Param("commentId") Long commentId);
 }
@@ -0,0 +1,15 @@
+package com.example.backend.repository;
+
+import java.util.Optional;
+
+/**
+ * Post like insert that relies on the unique (user_id, post_id) index.
+ */
+public interface LikePostOperations {
+
+    /**
+     * Insert the like unless it already exists (uk_like_posts_user_post).
+     * Returns the post's owner only when a row was inserted.
+     */
+    Optional<LikeTarget> insertIfAbsent(Long userId, Long postId);
+}
@@ -0,0 +1,37 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class LikePostOperationsImpl implements LikePostOperations {
+
+    // A data-modifying CTE: it writes but returns rows, which a derived @Query can only
+    // run as a read, so it goes through JdbcTemplate within the caller's transaction
+    private static final String INSERT_IF_ABSENT =
+            """
+            WITH inserted AS (
+                INSERT INTO like_posts (user_id, post_id)
+                SELECT ?, p.id FROM posts p WHERE p.id = ?
+                ON CONFLICT (user_id, post_id) DO NOTHING
+                RETURNING post_id)
+            SELECT p.user_id, p.id
+            FROM inserted i JOIN posts p ON p.id = i.post_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public Optional<LikeTarget> insertIfAbsent(Long userId, Long postId) {
+        return jdbcTemplate
+                .query(
+                        INSERT_IF_ABSENT,
+                        (rs, rowNum) -> new LikeTarget(rs.getLong("user_id"), rs.getLong("id")),
+                        userId,
+                        postId)
+                .stream()
+                .findFirst();
+    }
+}
@@ -1,16 +1,27 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.LikePost;
-import com.example.backend.model.Post;
-import com.example.backend.model.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface LikePostRepository extends JpaRepository<LikePost, Integer> {
-    LikePost findByUserAndPost(User user, Post post);
+public interface LikePostRepository extends JpaRepository<LikePost, Integer>, LikePostOperations {
+    boolean existsByUserIdAndPostId(Long userId, Long postId);
 
-    List<LikePost> findByPost(Post post);
+    // Served by the (user_id, post_id) unique index
+    @Query("SELECT l.post.id FROM LikePost l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(
+            @Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM LikePost l WHERE l.user.id = :userId AND l.post.id = :postId")
+    int deleteByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
 }
@@ -0,0 +1,7 @@
+package com.example.backend.repository;
+
+/**
+ * Owner and post of a liked post or comment, returned by the like inserts so the
+ * notification needs no extra lookup.
+ */
+public record LikeTarget(Long ownerId, Long postId) {}
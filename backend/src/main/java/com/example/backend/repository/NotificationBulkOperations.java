@@ -0,0 +1,62 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Notification writes that bypass entity loading and IDENTITY-per-row inserts.
+ */
+public interface NotificationBulkOperations {
+
+    record InsertedNotification(Long id, Long userId, LocalDateTime createdAt, LocalDateTime updatedAt) {}
+
+    record NotificationGroup(Long id, int actorCount, String actorIds, LocalDateTime createdAt) {}
+
+    // A user's acknowledgement of one of their notifications
+    record ReadAck(Long notificationId, Long userId) {}
+
+    /**
+     * Insert the same notification for every recipient that still exists.
+     * Returns the generated ids with their recipients.
+     */
+    List<InsertedNotification> insertForRecipients(
+            Collection<Long> userIds, NotificationMessage message);
+
+    /**
+     * Mark the acknowledged notifications read in one statement. An acknowledgement only
+     * counts for the notification's own recipient. Returns the recipient of every row
+     * that was still unread.
+     */
+    List<Long> markReadByIds(Collection<ReadAck> acks);
+
+    /**
+     * The user's newest unread row of the group updated since the given time, locked
+     * for update, or null if the next notification of the group should start a new row.
+     */
+    NotificationGroup findOpenGroupForUpdate(
+            Long userId, NotificationKind kind, Long entityId, LocalDateTime since);
+
+    InsertedNotification insertGroup(
+            Long userId,
+            NotificationKind kind,
+            Long entityId,
+            String link,
+            Long actorId,
+            int actorCount,
+            String actorIds);
+
+    /**
+     * Merge new actors into an open group. Returns the new updated_at; created_at is kept.
+     */
+    LocalDateTime updateGroup(Long id, Long actorId, int actorCount, String actorIds);
+
+    /**
+     * Record the actors of a coalesced notification.
+     * Returns how many of them were not recorded yet.
+     */
+    int addActors(Long notificationId, Collection<Long> actorIds);
+}
@@ -0,0 +1,196 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class NotificationBulkOperationsImpl implements NotificationBulkOperations {
+
+    // Recipients per statement; keeps each array parameter and result set bounded
+    private static final int CHUNK_SIZE = 1000;
+
+    // One statement per chunk; the join on users skips recipients that have been deleted
+    private static final String INSERT_FOR_RECIPIENTS =
+            """
+            INSERT INTO notifications
+                (user_id, kind, actor_id, entity_id, content, link, is_read, created_at, updated_at)
+            SELECT u.id, ?, ?, ?, ?, ?, false, ?, ?
+            FROM users u
+            WHERE u.id = ANY (?)
+            RETURNING id, user_id, created_at
+            """;
+
+    private static final String MARK_READ_BY_IDS =
+            """
+            UPDATE notifications n SET is_read = true
+            FROM unnest(?::bigint[], ?::bigint[]) AS r(id, user_id)
+            WHERE n.id = r.id AND n.user_id = r.user_id AND n.is_read = false
+            RETURNING n.user_id
+            """;
+
+    private static final String FIND_OPEN_GROUP =
+            """
+            SELECT id, actor_count, actor_ids, created_at FROM notifications
+            WHERE user_id = ? AND kind = ? AND entity_id = ? AND is_read = false AND updated_at >= ?
+            ORDER BY updated_at DESC
+            LIMIT 1
+            FOR UPDATE
+            """;
+
+    private static final String INSERT_GROUP =
+            """
+            INSERT INTO notifications
+                (user_id, kind, entity_id, link, actor_id, actor_count, actor_ids, is_read, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, false, ?, ?)
+            RETURNING id
+            """;
+
+    // Only updated_at moves: created_at is the inbox cursor and must not change under a
+    // client that is paging through it
+    private static final String UPDATE_GROUP =
+            """
+            UPDATE notifications SET actor_id = ?, actor_count = ?, actor_ids = ?, updated_at = ?
+            WHERE id = ?
+            """;
+
+    // The primary key makes repeat actors no-ops, so the update count is the number of new ones
+    private static final String ADD_ACTORS =
+            """
+            INSERT INTO notification_actors (notification_id, actor_id)
+            SELECT ?, unnest(?::bigint[])
+            ON CONFLICT DO NOTHING
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public List<InsertedNotification> insertForRecipients(
+            Collection<Long> userIds, NotificationMessage message) {
+        List<Long> recipients = userIds.stream().distinct().toList();
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        String kind = message.kind() == null ? null : message.kind().name();
+        List<InsertedNotification> inserted = new ArrayList<>(recipients.size());
+
+        for (int from = 0; from < recipients.size(); from += CHUNK_SIZE) {
+            Object[] chunk =
+                    recipients.subList(from, Math.min(from + CHUNK_SIZE, recipients.size())).toArray();
+            inserted.addAll(
+                    jdbcTemplate.query(
+                            con -> {
+                                PreparedStatement ps = con.prepareStatement(INSERT_FOR_RECIPIENTS);
+                                ps.setObject(1, kind, Types.VARCHAR);
+                                ps.setObject(2, message.actorId(), Types.BIGINT);
+                                ps.setObject(3, message.entityId(), Types.BIGINT);
+                                ps.setObject(4, message.content(), Types.VARCHAR);
+                                ps.setString(5, message.link());
+                                ps.setTimestamp(6, createdAt);
+                                ps.setTimestamp(7, createdAt);
+                                ps.setArray(8, con.createArrayOf("bigint", chunk));
+                                return ps;
+                            },
+                            (rs, rowNum) ->
+                                    new InsertedNotification(
+                                            rs.getLong("id"),
+                                            rs.getLong("user_id"),
+                                            rs.getTimestamp("created_at").toLocalDateTime(),
+                                            rs.getTimestamp("created_at").toLocalDateTime())));
+        }
+        return inserted;
+    }
+
+    @Override
+    public NotificationGroup findOpenGroupForUpdate(
+            Long userId, NotificationKind kind, Long entityId, LocalDateTime since) {
+        List<NotificationGroup> groups =
+                jdbcTemplate.query(
+                        FIND_OPEN_GROUP,
+                        (rs, rowNum) ->
+                                new NotificationGroup(
+                                        rs.getLong("id"),
+                                        rs.getInt("actor_count"),
+                                        rs.getString("actor_ids"),
+                                        rs.getTimestamp("created_at").toLocalDateTime()),
+                        userId,
+                        kind.name(),
+                        entityId,
+                        Timestamp.valueOf(since));
+        return groups.isEmpty() ? null : groups.get(0);
+    }
+
+    @Override
+    public InsertedNotification insertGroup(
+            Long userId,
+            NotificationKind kind,
+            Long entityId,
+            String link,
+            Long actorId,
+            int actorCount,
+            String actorIds) {
+        LocalDateTime createdAt = now();
+        Long id =
+                jdbcTemplate.queryForObject(
+                        INSERT_GROUP,
+                        Long.class,
+                        userId,
+                        kind.name(),
+                        entityId,
+                        link,
+                        actorId,
+                        actorCount,
+                        actorIds,
+                        Timestamp.valueOf(createdAt),
+                        Timestamp.valueOf(createdAt));
+        return new InsertedNotification(id, userId, createdAt, createdAt);
+    }
+
+    @Override
+    public LocalDateTime updateGroup(Long id, Long actorId, int actorCount, String actorIds) {
+        LocalDateTime updatedAt = now();
+        jdbcTemplate.update(
+                UPDATE_GROUP, actorId, actorCount, actorIds, Timestamp.valueOf(updatedAt), id);
+        return updatedAt;
+    }
+
+    // The column keeps microseconds; returning more would give clients a cursor that sorts
+    // after the row it came from
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @Override
+    public int addActors(Long notificationId, Collection<Long> actorIds) {
+        Object[] idArray = actorIds.toArray();
+        return jdbcTemplate.update(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(ADD_ACTORS);
+                    ps.setLong(1, notificationId);
+                    ps.setArray(2, con.createArrayOf("bigint", idArray));
+                    return ps;
+                });
+    }
+
+    @Override
+    public List<Long> markReadByIds(Collection<ReadAck> acks) {
+        Long[] ids = acks.stream().map(ReadAck::notificationId).toArray(Long[]::new);
+        Long[] userIds = acks.stream().map(ReadAck::userId).toArray(Long[]::new);
+        return jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(MARK_READ_BY_IDS);
+                    ps.setArray(1, con.createArrayOf("bigint", ids));
+                    ps.setArray(2, con.createArrayOf("bigint", userIds));
+                    return ps;
+                },
+                (rs, rowNum) -> rs.getLong("user_id"));
+    }
+}
@@ -1,10 +1,56 @@
 package com.example.backend.repository;
 
 import com.example.backend.model.Notification;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
-    List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+public interface NotificationRepository
+        extends JpaRepository<Notification, Long>, NotificationBulkOperations {
+    // First page of the inbox; served by idx_notifications_user_created
+    List<Notification> findByUserIdOrderByCreatedAtDescIdDesc(Long userId, Pageable pageable);
+
+    // Replay for a reconnecting notification stream whose last event is gone
+    List<Notification> findByUserIdAndIdGreaterThanOrderByIdAsc(
+            Long userId, Long id, Pageable pageable);
+
+    // Replay: rows created or merged into after the (updatedAt, id) the last event was sent with,
+    // so a coalesced row is sent again when it takes new actors
+    @Query(
+            "SELECT n FROM Notification n WHERE n.user.id = :userId"
+                    + " AND (n.updatedAt > :updatedAt OR (n.updatedAt = :updatedAt AND n.id > :id))"
+                    + " ORDER BY n.updatedAt, n.id")
+    List<Notification> findChangedAfter(
+            @Param("userId") Long userId,
+            @Param("updatedAt") LocalDateTime updatedAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
+    // Keyset page: everything strictly older than the (createdAt, id) cursor
+    @Query(
+            "SELECT n FROM Notification n WHERE n.user.id = :userId"
+                    + " AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id))"
+                    + " ORDER BY n.createdAt DESC, n.id DESC")
+    List<Notification> findPageBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable);
+
     Long countByUserIdAndIsReadFalse(Long userId);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.user.id = :userId AND n.isRead = false")
+    int markAllRead(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(
+            "UPDATE Notification n SET n.isRead = true"
+                    + " WHERE n.user.id = :userId AND n.isRead = false AND n.id <= :maxId")
+    int markReadUpTo(@Param("userId") Long userId, @Param("maxId") Long maxId);
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.backend.repository;
+
+import java.util.Map;
+
+/**
+ * Counter updates for posts. Each call adds many deltas, keyed by post id, in one
+ * statement; CounterBuffer batches changes and flushes them through here.
+ */
+public interface PostCounterOperations {
+
+    void addLikes(Map<Long, Long> deltas);
+
+    void addComments(Map<Long, Long> deltas);
+}
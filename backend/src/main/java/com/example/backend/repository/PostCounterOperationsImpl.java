@@ -0,0 +1,22 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PostCounterOperationsImpl implements PostCounterOperations {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void addLikes(Map<Long, Long> deltas) {
+        CounterUpdates.add(jdbcTemplate, "posts", "likes_count", deltas);
+    }
+
+    @Override
+    public void addComments(Map<Long, Long> deltas) {
+        CounterUpdates.add(jdbcTemplate, "posts", "comments_count", deltas);
+    }
+}
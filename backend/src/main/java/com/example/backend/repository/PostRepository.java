@@ -9,13 +9,11 @@ import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
-public interface PostRepository extends JpaRepository<Post, Long> {
+public interface PostRepository extends JpaRepository<Post, Long>, PostCounterOperations {
     List<Post> findByEventOrderByCreatedAtDesc(Event event);
 
     List<Post> findByUserOrderByCreatedAtDesc(User user);
 
-    List<Post> findByEvent(Event event);
-
     List<Post> findByUser(User user);
 
     // Find all posts with null event (global posts for news feed)
@@ -2,11 +2,12 @@ package com.example.backend.repository;
 
 import com.example.backend.model.PushSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface PushSubscriptionRepository extends JpaRepository<PushSubscription, Long> {
-    List<PushSubscription> findByUserId(Long userId);
+    List<PushSubscription> findByUserIdIn(Collection<Long> userIds);
 
     Optional<PushSubscription> findByEndpoint(String endpoint);
 
@@ -3,7 +3,10 @@ package com.example.backend.repository;
 import com.example.backend.model.User;
 import com.example.backend.model.RoleName;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,11 +16,19 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
 
+    // Login lookup: username or email in one query, with the role fetched in the same row
+    @Query("SELECT u FROM User u JOIN FETCH u.role WHERE u.username = :login OR u.email = :login")
+    List<User> findByUsernameOrEmail(@Param("login") String login);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
     List<User> findByUsernameContaining(String name);
 
-    List<User> findByRole_Name(RoleName name);
+    @Query("SELECT u.id FROM User u WHERE u.role.name = :name")
+    List<Long> findIdsByRoleName(@Param("name") RoleName name);
+
+    @Query("SELECT u.id AS id, u.username AS name FROM User u WHERE u.id IN :ids")
+    List<IdAndName> findNamesByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,24 @@
+package com.example.backend.security;
+
+import com.example.backend.model.RoleName;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Principal built from JWT claims, so authenticated requests don't need a user lookup.
+ */
+public record AuthenticatedUser(Long id, String username, RoleName role) implements Principal {
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    public List<GrantedAuthority> authorities() {
+        // USER, HOST, ADMIN (no ROLE_ prefix), same as UserDetailsServiceImpl
+        return List.of(new SimpleGrantedAuthority(role.name()));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.backend.security;
+
+import com.example.backend.model.RoleName;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The authenticated user of the current request, resolved from the SecurityContext
+ * at most once per request and shared by every service that needs it.
+ */
+@Component
+@RequestScope
+public class CurrentUser {
+
+    private AuthenticatedUser principal;
+
+    public AuthenticatedUser get() {
+        if (principal == null) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null
+                    || !authentication.isAuthenticated()
+                    || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+                throw new AccessDeniedException("User not authenticated");
+            }
+            principal = user;
+        }
+        return principal;
+    }
+
+    public Long id() {
+        return get().id();
+    }
+
+    public String username() {
+        return get().username();
+    }
+
+    public RoleName role() {
+        return get().role();
+    }
+
+    public boolean isAdmin() {
+        return role() == RoleName.ADMIN;
+    }
+
+    /**
+     * Check if current user is the given owner or an admin
+     */
+    public boolean canModify(Long ownerId) {
+        return isAdmin() || id().equals(ownerId);
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.backend.security;
 
+import com.example.backend.model.RoleName;
+import com.example.backend.model.User;
+import com.example.backend.telemetry.RequestTimings;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,92 +23,135 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final UserStateRegistry userStateRegistry;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    private static final String STREAM_PATH = "/notifications/stream";
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
-        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-
-        // DEBUG LOG 1
-        System.out.println("---------- JWT FILTER START (" + request.getMethod() + ") ----------");
-        System.out.println("URL: " + request.getRequestURI());
+        long start = System.nanoTime();
+        boolean proceed;
+        try {
+            proceed = authenticate(request, response);
+        } finally {
+            RequestTimings.record(RequestTimings.Phase.AUTH, System.nanoTime() - start);
+        }
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            System.out.println(">> Bỏ qua: Không có Header hoặc sai định dạng");
+        if (proceed) {
             filterChain.doFilter(request, response);
-            return;
         }
+    }
 
-        final String token = authHeader.substring(7);
-        System.out.println(">> Token tìm thấy. Đang kiểm tra tính hợp lệ...");
+    /**
+     * Set the Authentication for a valid bearer token.
+     * Returns false when an error response has already been written.
+     */
+    private boolean authenticate(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
 
-        // Thêm Try-Catch cho đoạn validate để chắc chắn không bị lỗi ngầm
-        try {
-            if (!jwtService.isTokenValid(token)) {
-                System.out.println(">> Token KHÔNG hợp lệ hoặc hết hạn!");
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                Map<String, Object> body = new HashMap<>();
-                body.put("message", "Invalid or expired token");
-                response.getWriter().write(objectMapper.writeValueAsString(body));
-                return;
-            }
-        } catch (Exception e) {
-            System.out.println(">> Lỗi khi validate token: " + e.getMessage());
-            e.printStackTrace();
-            // Cho phép request đi tiếp để ErrorHandler xử lý (hoặc return 401 tại đây)
-            filterChain.doFilter(request, response);
-            return;
+        final String token = resolveToken(request);
+        if (token == null) {
+            return true;
         }
 
-        String username = jwtService.extractUsername(token);
-        System.out.println(">> Username extract được: " + username);
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            System.out.println(">> Đang load user từ DB...");
-            try {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                System.out.println(">> Load user thành công: " + userDetails.getUsername() + " | Authorities: " + userDetails.getAuthorities());
-
-                // Check if user is locked
-                if (userDetailsService.isUserLocked(username)) {
-                    System.out.println(">> User is LOCKED! Returning 403...");
-                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
-                    Map<String, Object> body = new HashMap<>();
-                    body.put("message", "ACCOUNT_LOCKED");
-                    response.getWriter().write(objectMapper.writeValueAsString(body));
-                    return;
-                }
+        // Verify once; the claims are reused below instead of re-parsing the token
+        final Claims claims = jwtService.verify(token);
+        if (claims == null) {
+            log.debug("Invalid or expired token for {} {}", request.getMethod(), request.getRequestURI());
+            writeError(response, HttpServletResponse.SC_UNAUTHORIZED, "Invalid or expired token");
+            return false;
+        }
 
-                UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+        String username = claims.getSubject();
+        if (username == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return true;
+        }
 
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        try {
+            Long userId = claims.get(JwtService.CLAIM_USER_ID, Long.class);
+            String role = claims.get(JwtService.CLAIM_ROLE, String.class);
+            UserStateRegistry.UserState state = userStateRegistry.get(userId);
+
+            // Tokens issued before startup (or without uid/role claims) may predate a
+            // lock or role change this instance never saw, so resolve them from the DB.
+            // A user that is not found is recorded too, so a stale token costs one lookup
+            if (state == null
+                    && (userId == null
+                            || role == null
+                            || userStateRegistry.issuedBeforeStartup(claims.getIssuedAt()))
+                    && !(userId == null && userStateRegistry.isMissing(username))) {
+                User user = userDetailsService.findUser(username).orElse(null);
+                // The name may have been taken by a new user since the token was issued
+                if (user != null && (userId == null || userId.equals(user.getId()))) {
+                    userStateRegistry.remember(user);
+                    userId = user.getId();
+                } else {
+                    userStateRegistry.markMissing(userId, username);
+                    userId = null;
+                }
+                state = userStateRegistry.get(userId);
+            }
 
-                // QUAN TRỌNG: Set vào context
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-                System.out.println(">> Đã set Authentication vào Context!");
+            if (userId == null || (state != null && state.deleted())) {
+                log.debug("Token subject {} no longer exists", username);
+                return true;
+            }
 
-            } catch (Exception e) {
-                System.out.println(">> LỖI KHI LOAD USER: " + e.getMessage());
-                e.printStackTrace();
+            // Check if user is locked
+            if (state != null && state.locked()) {
+                writeError(response, HttpServletResponse.SC_FORBIDDEN, "ACCOUNT_LOCKED");
+                return false;
             }
-        } else {
-            System.out.println(">> Skip: Username null hoặc Context đã có Auth");
+
+            RoleName roleName = state != null ? state.role() : RoleName.valueOf(role);
+            AuthenticatedUser principal = new AuthenticatedUser(userId, username, roleName);
+
+            UsernamePasswordAuthenticationToken authToken =
+                    new UsernamePasswordAuthenticationToken(
+                            principal, null, principal.authorities());
+
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+        } catch (Exception e) {
+            // Continue unauthenticated and let the entry point answer protected routes
+            log.warn("Failed to authenticate token subject {}: {}", username, e.getMessage());
         }
+        return true;
+    }
+
+    /**
+     * Bearer token from the Authorization header, or from the access_token query parameter
+     * on the notification stream, since EventSource cannot set headers.
+     */
+    private String resolveToken(HttpServletRequest request) {
+        final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        if (STREAM_PATH.equals(request.getServletPath())) {
+            return request.getParameter("access_token");
+        }
+        return null;
+    }
 
-        System.out.println("---------- JWT FILTER END -> CHAIN CONTINUE ----------");
-        filterChain.doFilter(request, response);
+    private void writeError(HttpServletResponse response, int status, String message)
+            throws IOException {
+        response.setStatus(status);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        Map<String, Object> body = new HashMap<>();
+        body.put("message", message);
+        response.getWriter().write(objectMapper.writeValueAsString(body));
     }
 }
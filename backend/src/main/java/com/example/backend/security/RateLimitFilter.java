@@ -0,0 +1,115 @@
+package com.example.backend.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Applies a token bucket per route group. The first group matching the request wins;
+ * requests outside every group pass through untouched.
+ *
+ * <p>Groups are declared in SecurityConfig. Runs after JwtAuthenticationFilter so that
+ * authenticated requests are keyed by the user id from the token; only anonymous callers
+ * are keyed by client IP. The IP is the servlet remote address, which honours forwarded
+ * headers only through server.forward-headers-strategy.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private record Group(
+            String name,
+            RequestMatcher matcher,
+            TokenBucketRateLimiter limiter,
+            Counter rejected) {}
+
+    private static final long MAX_KEYS_PER_GROUP = 100_000;
+
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+    private final List<Group> groups = new ArrayList<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public RateLimitFilter(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::nanoTime);
+    }
+
+    RateLimitFilter(MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Allow {@code capacity} requests per {@code period} for each key in this group.
+     */
+    public RateLimitFilter limit(
+            String name, int capacity, Duration period, RequestMatcher... matchers) {
+        groups.add(
+                new Group(
+                        name,
+                        new OrRequestMatcher(matchers),
+                        new TokenBucketRateLimiter(capacity, period, MAX_KEYS_PER_GROUP, nanoClock),
+                        Counter.builder("rate.limit.rejected")
+                                .description("Requests rejected by the rate limiter")
+                                .tag("group", name)
+                                .register(meterRegistry)));
+        return this;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        for (Group group : groups) {
+            if (!group.matcher().matches(request)) {
+                continue;
+            }
+
+            long waitNanos = group.limiter().tryAcquire(keyOf(request));
+            if (waitNanos > 0) {
+                group.rejected().increment();
+                reject(response, waitNanos);
+                return;
+            }
+            break;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return "u:" + user.id();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter()
+                .write(objectMapper.writeValueAsString(Map.of("message", "TOO_MANY_REQUESTS")));
+    }
+}
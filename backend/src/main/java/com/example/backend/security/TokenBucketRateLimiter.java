@@ -0,0 +1,59 @@
+package com.example.backend.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per key (user id or client IP).
+ *
+ * <p>Each bucket is a single AtomicLong holding the time at which it will be full again
+ * (the GCRA form of a token bucket), updated with compare-and-set. There is no lock, and
+ * requests only contend when they share a key. Idle buckets are full, so they are evicted.
+ */
+public class TokenBucketRateLimiter {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketRateLimiter(int capacity, Duration refillPeriod, long maxKeys) {
+        this(capacity, refillPeriod, maxKeys, System::nanoTime);
+    }
+
+    // The clock drives both refill and eviction; tests pass a manual one
+    TokenBucketRateLimiter(int capacity, Duration refillPeriod, long maxKeys, LongSupplier nanoClock) {
+        this.nanosPerToken = refillPeriod.toNanos() / capacity;
+        this.burstNanos = nanosPerToken * capacity;
+        this.nanoClock = nanoClock;
+        this.buckets =
+                Caffeine.newBuilder()
+                        .maximumSize(maxKeys)
+                        .expireAfterAccess(Duration.ofNanos(burstNanos))
+                        .ticker(nanoClock::getAsLong)
+                        .build();
+    }
+
+    /**
+     * Take one token. Returns 0 if allowed, otherwise the nanoseconds until a token is free.
+     */
+    public long tryAcquire(String key) {
+        AtomicLong bucket = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = bucket.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
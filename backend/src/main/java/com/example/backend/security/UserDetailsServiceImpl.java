@@ -6,6 +6,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.*;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -29,10 +31,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                 .build();
     }
 
-    public boolean isUserLocked(String username) {
-        return userRepository
-                .findByUsername(username)
-                .map(User::isLocked)
-                .orElse(false);
+    public Optional<User> findUser(String username) {
+        return userRepository.findByUsername(username);
     }
 }
@@ -0,0 +1,66 @@
+package com.example.backend.security;
+
+import com.example.backend.model.RoleName;
+import com.example.backend.model.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory table of lock, role and delete changes made since this instance started.
+ *
+ * <p>Tokens carry the user id and role, so the auth filter only needs this table to
+ * know whether the claims are still current. Tokens issued before startup may predate
+ * a change that this table never saw; the filter resolves those from the database once
+ * and records the result here, including when the user no longer exists.
+ */
+@Component
+public class UserStateRegistry {
+
+    public record UserState(boolean locked, boolean deleted, RoleName role) {}
+
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<Long, UserState> states = new ConcurrentHashMap<>();
+    // Subjects of tokens without a uid claim whose user was not found
+    private final Set<String> missingUsernames = ConcurrentHashMap.newKeySet();
+
+    public UserState get(Long userId) {
+        return userId == null ? null : states.get(userId);
+    }
+
+    public boolean issuedBeforeStartup(Date issuedAt) {
+        return issuedAt == null || issuedAt.getTime() < startedAt;
+    }
+
+    /**
+     * Record the current lock flag and role of a user after it has been saved.
+     */
+    public void remember(User user) {
+        RoleName role = user.getRole() == null ? null : user.getRole().getName();
+        states.put(user.getId(), new UserState(user.isLocked(), false, role));
+    }
+
+    public void markDeleted(Long userId) {
+        states.put(userId, new UserState(false, true, null));
+    }
+
+    /**
+     * Record that the user of a token could not be found, so the token's later requests
+     * are turned away without another lookup. Ids are never reused, so a missing id stays
+     * missing; tokens without a uid claim are remembered by their subject instead.
+     */
+    public void markMissing(Long userId, String username) {
+        if (userId != null) {
+            markDeleted(userId);
+        } else {
+            missingUsernames.add(username);
+        }
+    }
+
+    public boolean isMissing(String username) {
+        return missingUsernames.contains(username);
+    }
+}
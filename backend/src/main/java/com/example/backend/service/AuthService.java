@@ -11,23 +11,23 @@ import com.example.backend.model.User;
 import com.example.backend.repository.RoleRepository;
 import com.example.backend.repository.UserRepository;
 import com.example.backend.security.JwtService;
+import com.example.backend.security.PasswordVerifier;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
 
-    private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final PasswordVerifier passwordVerifier;
 
     public ApiResponse register(RegisterRequest request) {
 
@@ -61,35 +61,36 @@ public class AuthService {
     }
 
     public ApiResponse login(LoginRequest request) {
-        User user = userRepository.findByEmail(request.getUsername()).orElse(null);
-        if (user == null) {
-            user =
-                    userRepository
-                            .findByUsername(request.getUsername())
-                            .orElseThrow(
-                                    () ->
-                                            new AppException(
-                                                    "User doesn't exist", HttpStatus.NOT_FOUND));
-        }
+        User user = findByLogin(request.getUsername());
 
         // Check if user is locked
         if (user.isLocked()) {
             throw new AppException("ACCOUNT_LOCKED", HttpStatus.FORBIDDEN);
         }
 
-        try {
-            authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(
-                            user.getUsername(), request.getPassword()));
-        } catch (BadCredentialsException ex) {
+        if (!passwordVerifier.matches(request.getPassword(), user.getPassword())) {
             throw new AppException("Invalid password", HttpStatus.UNAUTHORIZED);
         }
 
-        String token = jwtService.generateToken(user.getUsername());
+        String token = jwtService.generateToken(user);
 
         AuthResponse authResponse =
                 new AuthResponse(token, user);
 
         return new ApiResponse("Login successful", authResponse);
     }
+
+    /**
+     * Resolve a username or email with a single query (role included)
+     */
+    private User findByLogin(String login) {
+        List<User> matches = userRepository.findByUsernameOrEmail(login);
+
+        // An email match wins, as it did when email and username were looked up separately
+        return matches.stream()
+                .filter(u -> u.getEmail().equals(login))
+                .findFirst()
+                .or(() -> matches.stream().findFirst())
+                .orElseThrow(() -> new AppException("User doesn't exist", HttpStatus.NOT_FOUND));
+    }
 }
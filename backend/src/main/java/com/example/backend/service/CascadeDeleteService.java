@@ -0,0 +1,116 @@
+package com.example.backend.service;
+
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.counter.CounterBuffer.Counter;
+import com.example.backend.exception.AppException;
+import com.example.backend.model.Comment;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Removes a comment subtree, a post or an event together with everything that hangs off
+ * it. Each cascade is a fixed list of set-based DELETEs run children-first, so its cost in
+ * statements does not grow with the number of posts, comments or likes underneath.
+ * Callers check permissions; nothing here loads entities.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CascadeDeleteService {
+
+    // A comment's subtree is every row under its path (see Comment.path)
+    private static final List<Step> COMMENT_TREE = List.of(
+            new Step("like_comments", "DELETE FROM like_comments WHERE comment_id IN"
+                    + " (SELECT id FROM comments WHERE path LIKE ? || '%')"),
+            new Step("comments", "DELETE FROM comments WHERE path LIKE ? || '%'"));
+
+    // The same subtree found by walking parent_id from the comment's id, for a comment
+    // whose path was never set
+    private static final String SUBTREE =
+            "WITH RECURSIVE subtree AS (SELECT id FROM comments WHERE id = ?"
+                    + " UNION ALL SELECT c.id FROM comments c JOIN subtree s ON c.parent_id = s.id) ";
+
+    private static final List<Step> COMMENT_TREE_BY_ID = List.of(
+            new Step("like_comments", SUBTREE
+                    + "DELETE FROM like_comments WHERE comment_id IN (SELECT id FROM subtree)"),
+            new Step("comments", SUBTREE + "DELETE FROM comments WHERE id IN (SELECT id FROM subtree)"));
+
+    private static final List<Step> POST = List.of(
+            new Step("like_comments", "DELETE FROM like_comments WHERE comment_id IN"
+                    + " (SELECT id FROM comments WHERE post_id = ?)"),
+            new Step("comments", "DELETE FROM comments WHERE post_id = ?"),
+            new Step("like_posts", "DELETE FROM like_posts WHERE post_id = ?"),
+            new Step("posts", "DELETE FROM posts WHERE id = ?"));
+
+    private static final List<Step> EVENT = List.of(
+            new Step("event_user", "DELETE FROM event_user WHERE event_id = ?"),
+            new Step("like_comments", "DELETE FROM like_comments WHERE comment_id IN"
+                    + " (SELECT c.id FROM comments c JOIN posts p ON p.id = c.post_id WHERE p.event_id = ?)"),
+            new Step("comments", "DELETE FROM comments WHERE post_id IN"
+                    + " (SELECT id FROM posts WHERE event_id = ?)"),
+            new Step("like_posts", "DELETE FROM like_posts WHERE post_id IN"
+                    + " (SELECT id FROM posts WHERE event_id = ?)"),
+            new Step("posts", "DELETE FROM posts WHERE event_id = ?"),
+            new Step("events", "DELETE FROM events WHERE id = ?"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CounterBuffer counterBuffer;
+
+    /**
+     * Delete the comment and all of its replies, then take them off the post's comment
+     * count and the comment off its parent's reply count. 404 if the comment is already
+     * gone, so no counter moves for a delete that did nothing.
+     */
+    @Transactional
+    public void deleteCommentTree(Comment comment) {
+        int comments =
+                (comment.getPath() == null
+                                ? run(COMMENT_TREE_BY_ID, comment.getId())
+                                : run(COMMENT_TREE, comment.getPath()))
+                        .get("comments");
+        if (comments == 0) {
+            throw new AppException("Comment not found", HttpStatus.NOT_FOUND);
+        }
+
+        counterBuffer.add(Counter.POST_COMMENTS, comment.getPost().getId(), -comments);
+        if (comment.getParentComment() != null) {
+            counterBuffer.add(Counter.COMMENT_REPLIES, comment.getParentComment().getId(), -1);
+        }
+    }
+
+    @Transactional
+    public void deletePost(Long postId) {
+        run(POST, postId);
+    }
+
+    @Transactional
+    public void deleteEvent(Long eventId) {
+        Map<String, Integer> deleted = run(EVENT, eventId);
+        log.info(
+                "Deleted event {} with {} post(s), {} comment(s) and {} registration(s)",
+                eventId,
+                deleted.get("posts"),
+                deleted.get("comments"),
+                deleted.get("event_user"));
+    }
+
+    // One DELETE of a cascade, named by the table it empties
+    private record Step(String table, String sql) {}
+
+    // Every statement of a cascade takes the same single parameter; returns rows deleted by table
+    private Map<String, Integer> run(List<Step> steps, Object key) {
+        Map<String, Integer> deleted = new HashMap<>();
+        for (Step step : steps) {
+            deleted.put(step.table(), jdbcTemplate.update(step.sql(), key));
+        }
+        return deleted;
+    }
+}
@@ -1,68 +1,52 @@
 package com.example.backend.service;
 
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.counter.CounterBuffer.Counter;
 import com.example.backend.dto.CommentRequest;
+import com.example.backend.dto.CommentResponse;
+import com.example.backend.dto.CommentThreadResponse;
 import com.example.backend.dto.CommentUpdateRequest;
 import com.example.backend.model.Comment;
-import com.example.backend.model.LikeComment;
+import com.example.backend.model.NotificationKind;
 import com.example.backend.model.Post;
-import com.example.backend.model.RoleName;
 import com.example.backend.model.User;
 import com.example.backend.repository.CommentRepository;
-import com.example.backend.repository.LikeCommentRepository;
+import com.example.backend.repository.CommentThreadOperations.ThreadRow;
 import com.example.backend.repository.PostRepository;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.security.CurrentUser;
 import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @AllArgsConstructor
 public class CommentService {
     private final CommentRepository commentRepository;
-    private final LikeCommentRepository likeCommentRepository;
     private final UserService userService;
     private final PostRepository postRepository;
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
-
-    /**
-     * Get current authenticated user from SecurityContext
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("User not authenticated");
-        }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new AccessDeniedException("User not found"));
-    }
+    private final CurrentUser currentUser;
+    private final CounterBuffer counterBuffer;
+    private final CascadeDeleteService cascadeDeleteService;
 
     /**
      * Check if current user can modify the comment (owner or admin)
      */
-    private boolean canModifyComment(Comment comment, User currentUser) {
-        // Admin can modify any comment
-        if (currentUser.getRole().getName() == RoleName.ADMIN) {
-            return true;
-        }
-        // User can only modify their own comments
-        return comment.getUser().getId().equals(currentUser.getId());
+    private boolean canModifyComment(Comment comment) {
+        return currentUser.canModify(comment.getUser().getId());
     }
 
     void incCommentCount(Post post) {
-        post.setCommentsCount(post.getCommentsCount() + 1);
-        postRepository.save(post);
-    }
-
-    void decCommentCount(Post post) {
-        post.setCommentsCount(post.getCommentsCount() - 1);
-        postRepository.save(post);
+        counterBuffer.add(Counter.POST_COMMENTS, post.getId(), 1);
     }
 
     @Transactional
@@ -73,7 +57,7 @@ public class CommentService {
         incCommentCount(post);
         comment.setPost(post);
 
-        User user = userService.getUserById(commentRequest.getUserId());
+        User user = userService.getUserById(currentUser.id());
         comment.setUser(user);
 
         comment.setContent(commentRequest.getContent());
@@ -81,12 +65,13 @@ public class CommentService {
         Comment parentComment =
                 commentRepository.findById(commentRequest.getParentCommentId()).orElse(null);
         if (parentComment != null) {
-            parentComment.setRepliesCount(parentComment.getRepliesCount() + 1);
-            commentRepository.save(parentComment);
+            incRepliesCount(parentComment);
 
-            notificationService.createAndSendNotification(
+            notificationService.createAndSendGroupedNotification(
                     parentComment.getUser().getId(),
-                    "Có một phản hồi mới cho bình luận của bạn trong bài viết",
+                    NotificationKind.COMMENT_REPLY,
+                    parentComment.getId(),
+                    user.getId(),
                     "/posts/" + post.getId()
             );
         }
@@ -95,33 +80,37 @@ public class CommentService {
         comment.setLikesCount(0);
         comment.setRepliesCount(0);
 
-        notificationService.createAndSendNotification(
+        notificationService.createAndSendGroupedNotification(
                 post.getUser().getId(),
-                "Có một bình luận mới trong bài viết của bạn",
+                NotificationKind.POST_COMMENT,
+                post.getId(),
+                user.getId(),
                 "/posts/" + post.getId()
         );
 
-        return commentRepository.save(comment);
+        // save() only assigns the id; the INSERT waits for the flush and takes these along
+        Comment saved = commentRepository.save(comment);
+        if (parentComment == null) {
+            saved.setRootId(saved.getId());
+            saved.setPath(saved.getId() + "/");
+        } else {
+            saved.setRootId(parentComment.getRootId());
+            // Below a parent without a path the reply has none either; deletes then walk parent ids
+            saved.setPath(parentComment.getPath() == null ? null : parentComment.getPath() + saved.getId() + "/");
+        }
+        return saved;
     }
 
-    public void incLikesCount(Comment comment) {
-        comment.setLikesCount(comment.getLikesCount() + 1);
-        commentRepository.save(comment);
+    public void incLikesCount(Long commentId) {
+        counterBuffer.add(Counter.COMMENT_LIKES, commentId, 1);
     }
 
-    public void decLikesCount(Comment comment) {
-        comment.setLikesCount(comment.getLikesCount() - 1);
-        commentRepository.save(comment);
+    public void decLikesCount(Long commentId) {
+        counterBuffer.add(Counter.COMMENT_LIKES, commentId, -1);
     }
 
     public void incRepliesCount(Comment comment) {
-        comment.setRepliesCount(comment.getRepliesCount() + 1);
-        commentRepository.save(comment);
-    }
-
-    public void decRepliesCount(Comment comment) {
-        comment.setRepliesCount(comment.getRepliesCount() - 1);
-        commentRepository.save(comment);
+        counterBuffer.add(Counter.COMMENT_REPLIES, comment.getId(), 1);
     }
 
     public Comment getCommentById(Long commentId) {
@@ -130,22 +119,93 @@ public class CommentService {
                 .orElseThrow(() -> new IllegalArgumentException("Invalid comment ID"));
     }
 
-    public List<Comment> getCommentsByPostId(Long postId) {
-        Post post = postRepository.findById(postId).orElseThrow(() -> new IllegalArgumentException("Invalid post ID"));
-        return commentRepository.findByPostAndParentCommentOrderByCreatedAtDesc(post, null);
+    /**
+     * One page of a post's top-level comments, newest first. Pass the createdAt and id
+     * of the last comment received to get the next page.
+     */
+    public List<CommentResponse> getCommentsByPostId(
+            Long postId, LocalDateTime before, Long beforeId, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        List<Comment> comments =
+                before == null || beforeId == null
+                        ? commentRepository.findTopLevelPage(postId, page)
+                        : commentRepository.findTopLevelPageBefore(postId, before, beforeId, page);
+        return comments.stream().map(CommentResponse::fromComment).toList();
+    }
+
+    /**
+     * One page of a comment's replies, paged like {@link #getCommentsByPostId}.
+     */
+    public List<CommentResponse> getCommentsByParentId(
+            Long parentId, LocalDateTime before, Long beforeId, int size) {
+        PageRequest page = PageRequest.of(0, size);
+        List<Comment> replies =
+                before == null || beforeId == null
+                        ? commentRepository.findRepliesPage(parentId, page)
+                        : commentRepository.findRepliesPageBefore(parentId, before, beforeId, page);
+        return replies.stream().map(CommentResponse::fromComment).toList();
+    }
+
+    /**
+     * A page of top-level comments with their replies nested below, from one recursive
+     * query: at most {@code repliesPerComment} newest replies per comment, down to
+     * {@code depth} levels. Counts of the replies left out are returned per comment.
+     */
+    public List<CommentThreadResponse> getThread(
+            Long postId,
+            LocalDateTime before,
+            Long beforeId,
+            int size,
+            int depth,
+            int repliesPerComment) {
+        List<ThreadRow> rows =
+                commentRepository.findThread(postId, before, beforeId, size, repliesPerComment, depth);
+
+        Map<Long, CommentThreadResponse> byId = new HashMap<>();
+        for (ThreadRow row : rows) {
+            byId.put(row.id(), toThreadResponse(row));
+        }
+        List<CommentThreadResponse> roots = new ArrayList<>();
+        for (ThreadRow row : rows) {
+            CommentThreadResponse node = byId.get(row.id());
+            if (row.depth() == 1) {
+                roots.add(node);
+            } else {
+                byId.get(row.parentId()).getReplies().add(node);
+            }
+        }
+
+        Comparator<CommentResponse> newestFirst =
+                Comparator.comparing(CommentResponse::getCreatedAt)
+                        .thenComparing(CommentResponse::getId)
+                        .reversed();
+        roots.sort(newestFirst);
+        for (CommentThreadResponse node : byId.values()) {
+            node.getReplies().sort(newestFirst);
+            int total = node.getRepliesCount() == null ? 0 : node.getRepliesCount();
+            node.setHiddenReplies(Math.max(0, total - node.getReplies().size()));
+        }
+        return roots;
     }
 
-    public List<Comment> getCommentsByParentId(Long parentId){
-        Comment parentComment = getCommentById(parentId);
-        return commentRepository.findByParentCommentOrderByCreatedAtDesc(parentComment);
+    private CommentThreadResponse toThreadResponse(ThreadRow row) {
+        CommentThreadResponse node = new CommentThreadResponse();
+        node.setId(row.id());
+        node.setContent(row.content());
+        node.setLikesCount(counterBuffer.withPending(row.likesCount(), Counter.COMMENT_LIKES, row.id()));
+        node.setRepliesCount(
+                counterBuffer.withPending(row.repliesCount(), Counter.COMMENT_REPLIES, row.id()));
+        node.setCreatedAt(row.createdAt());
+        node.setParentCommentId(row.parentId());
+        node.setUser(new CommentResponse.Author(row.userId(), row.username()));
+        return node;
     }
 
     public Comment updateComment(Long commentId, CommentUpdateRequest commentUpdateRequest) {
         Comment comment = getCommentById(commentId);
 
         // Check if current user can modify this comment
-        User currentUser = getCurrentUser();
-        if (!canModifyComment(comment, currentUser)) {
+        if (!canModifyComment(comment)) {
             throw new AccessDeniedException("You don't have permission to modify this comment");
         }
 
@@ -153,42 +213,15 @@ public class CommentService {
         return commentRepository.save(comment);
     }
 
+    @Transactional
     public void deleteComment(Long commentId) {
         Comment comment = getCommentById(commentId);
 
         // Check if current user can modify this comment (only for top-level call)
-        User currentUser = getCurrentUser();
-        if (!canModifyComment(comment, currentUser)) {
+        if (!canModifyComment(comment)) {
             throw new AccessDeniedException("You don't have permission to delete this comment");
         }
 
-        // Internal recursive delete (without permission check for child comments)
-        deleteCommentRecursive(comment);
-    }
-
-
-    /**
-     * Internal method to delete comment and its children recursively
-     */
-    private void deleteCommentRecursive(Comment comment) {
-        List<Comment> replies = commentRepository.findByParentCommentOrderByCreatedAtDesc(comment);
-
-        for (Comment reply : replies) {
-            deleteCommentRecursive(reply);
-        }
-
-        List<LikeComment> likeComments = likeCommentRepository.findByComment(comment);
-        likeCommentRepository.deleteAll(likeComments);
-
-        Post post = comment.getPost();
-        decCommentCount(post);
-        
-        // Decrement repliesCount of parent comment if this is a reply
-        Comment parentComment = comment.getParentComment();
-        if (parentComment != null) {
-            decRepliesCount(parentComment);
-        }
-        
-        commentRepository.delete(comment);
+        cascadeDeleteService.deleteCommentTree(comment);
     }
 }
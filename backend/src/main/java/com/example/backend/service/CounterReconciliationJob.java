@@ -0,0 +1,109 @@
+package com.example.backend.service;
+
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.counter.CounterBuffer.Counter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Recomputes the denormalized like/comment/reply counters from their source tables and
+ * corrects any drift. Walks posts and comments by id in chunks; each chunk is one
+ * statement that only rewrites rows whose stored count is actually wrong. The chunk is
+ * recounted through {@link CounterBuffer#recount}, which drops the buffered deltas the
+ * recount already includes, so changes buffered during the run are not counted twice.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterReconciliationJob {
+
+    private static final String NEXT_POST_CURSOR =
+            "SELECT max(id) FROM (SELECT id FROM posts WHERE id > ? ORDER BY id LIMIT ?) chunk";
+
+    private static final String RECONCILE_POSTS =
+            """
+            UPDATE posts p
+            SET likes_count = actual.likes, comments_count = actual.comments
+            FROM (
+                SELECT chunk.id,
+                       (SELECT count(*) FROM like_posts l WHERE l.post_id = chunk.id) AS likes,
+                       (SELECT count(*) FROM comments c WHERE c.post_id = chunk.id) AS comments
+                FROM posts chunk
+                WHERE chunk.id > ? AND chunk.id <= ?
+            ) actual
+            WHERE p.id = actual.id
+              AND (p.likes_count IS DISTINCT FROM actual.likes
+                   OR p.comments_count IS DISTINCT FROM actual.comments)
+            """;
+
+    private static final String NEXT_COMMENT_CURSOR =
+            "SELECT max(id) FROM (SELECT id FROM comments WHERE id > ? ORDER BY id LIMIT ?) chunk";
+
+    private static final String RECONCILE_COMMENTS =
+            """
+            UPDATE comments c
+            SET likes_count = actual.likes, replies_count = actual.replies
+            FROM (
+                SELECT chunk.id,
+                       (SELECT count(*) FROM like_comments l WHERE l.comment_id = chunk.id) AS likes,
+                       (SELECT count(*) FROM comments r WHERE r.parent_id = chunk.id) AS replies
+                FROM comments chunk
+                WHERE chunk.id > ? AND chunk.id <= ?
+            ) actual
+            WHERE c.id = actual.id
+              AND (c.likes_count IS DISTINCT FROM actual.likes
+                   OR c.replies_count IS DISTINCT FROM actual.replies)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CounterBuffer counterBuffer;
+
+    @Value("${counters.reconcile.enabled:true}")
+    private boolean enabled;
+
+    @Value("${counters.reconcile.chunk-size:500}")
+    private int chunkSize;
+
+    @Scheduled(cron = "${counters.reconcile.cron:0 15 4 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int posts =
+                    reconcile(
+                            NEXT_POST_CURSOR,
+                            RECONCILE_POSTS,
+                            Set.of(Counter.POST_LIKES, Counter.POST_COMMENTS));
+            int comments =
+                    reconcile(
+                            NEXT_COMMENT_CURSOR,
+                            RECONCILE_COMMENTS,
+                            Set.of(Counter.COMMENT_LIKES, Counter.COMMENT_REPLIES));
+            log.info("Counter reconciliation corrected {} post(s) and {} comment(s)", posts, comments);
+        } catch (Exception e) {
+            log.error("Counter reconciliation failed", e);
+        }
+    }
+
+    private int reconcile(String nextCursorSql, String reconcileSql, Set<Counter> counters) {
+        int corrected = 0;
+        long cursor = 0;
+        Long upTo;
+        while ((upTo = jdbcTemplate.queryForObject(nextCursorSql, Long.class, cursor, chunkSize)) != null) {
+            long after = cursor;
+            long until = upTo;
+            corrected +=
+                    counterBuffer.recount(
+                            counters, after, until, () -> jdbcTemplate.update(reconcileSql, after, until));
+            cursor = upTo;
+        }
+        return corrected;
+    }
+}
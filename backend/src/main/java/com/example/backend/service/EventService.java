@@ -3,26 +3,19 @@ package com.example.backend.service;
 import com.example.backend.dto.EventCreateRequest;
 import com.example.backend.dto.EventDetailResponse;
 import com.example.backend.dto.EventUpdateRequest;
-import com.example.backend.model.Comment;
 import com.example.backend.model.Event;
 import com.example.backend.model.EventStatus;
-import com.example.backend.model.EventUser;
-import com.example.backend.model.LikeComment;
-import com.example.backend.model.LikePost;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
 import com.example.backend.model.Post;
 import com.example.backend.model.RoleName;
 import com.example.backend.model.User;
-import com.example.backend.repository.CommentRepository;
 import com.example.backend.repository.EventRepository;
-import com.example.backend.repository.EventUserRepository;
-import com.example.backend.repository.LikeCommentRepository;
-import com.example.backend.repository.LikePostRepository;
 import com.example.backend.repository.PostRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 
@@ -38,34 +31,14 @@ public class EventService {
     @Autowired private UserRepository userRepository;
     @Autowired private NotificationService notificationService;
     @Autowired private PostRepository postRepository;
-    @Autowired private EventUserRepository eventUserRepository;
-    @Autowired private CommentRepository commentRepository;
-    @Autowired private LikePostRepository likePostRepository;
-    @Autowired private LikeCommentRepository likeCommentRepository;
-
-    /**
-     * Get current authenticated user from SecurityContext
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("User not authenticated");
-        }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new AccessDeniedException("User not found"));
-    }
+    @Autowired private CurrentUser currentUser;
+    @Autowired private CascadeDeleteService cascadeDeleteService;
 
     /**
      * Check if current user can modify the event (owner or admin)
      */
-    private boolean canModifyEvent(Event event, User currentUser) {
-        // Admin can modify any event
-        if (currentUser.getRole().getName() == RoleName.ADMIN) {
-            return true;
-        }
-        // Host can only modify their own events
-        return event.getManager().getId().equals(currentUser.getId());
+    private boolean canModifyEvent(Event event) {
+        return currentUser.canModify(event.getManager().getId());
     }
 
     public List<EventDetailResponse> getAllEvents() {
@@ -121,14 +94,13 @@ public class EventService {
         Event savedEvent = eventRepository.save(event);
 
         // Notify all admin users about the new pending event
-        List<User> admins = userRepository.findByRole_Name(RoleName.ADMIN);
-        for (User admin : admins) {
-            notificationService.createAndSendNotification(
-                    admin.getId(),
-                    "Người tổ chức <b>" + manager.getUsername() + "</b> đã tạo một sự kiện mới: <b>"
-                            + event.getTitle() + "</b> đang chờ phê duyệt",
-                    "/admin/events");
-        }
+        notificationService.createAndSendNotifications(
+                userRepository.findIdsByRoleName(RoleName.ADMIN),
+                NotificationMessage.of(
+                        NotificationKind.EVENT_CREATED,
+                        manager.getId(),
+                        savedEvent.getId(),
+                        "/admin/events"));
 
         return savedEvent;
     }
@@ -143,8 +115,7 @@ public class EventService {
                                                 "Event with id " + id + " not found"));
 
         // Check if current user can modify this event
-        User currentUser = getCurrentUser();
-        if (!canModifyEvent(existingEvent, currentUser)) {
+        if (!canModifyEvent(existingEvent)) {
             throw new AccessDeniedException("You don't have permission to modify this event");
         }
 
@@ -174,10 +145,11 @@ public class EventService {
         // Notify the event manager
         notificationService.createAndSendNotification(
                 existingEvent.getManager().getId(),
-                "Sự kiện "
-                        + "<b>" + existingEvent.getTitle() + "</b>"
-                        + " đã được chấp nhận",
-                "/events/" + existingEvent.getId());
+                NotificationMessage.of(
+                        NotificationKind.EVENT_ACCEPTED,
+                        null,
+                        existingEvent.getId(),
+                        "/events/" + existingEvent.getId()));
         
         // Create a global news feed post to announce the new event
         createNewEventAnnouncement(savedEvent);
@@ -222,53 +194,11 @@ public class EventService {
                 .orElseThrow(() -> new IllegalArgumentException("Event with id " + id + " not found"));
         
         // Check if current user can modify this event
-        User currentUser = getCurrentUser();
-        if (!canModifyEvent(event, currentUser)) {
+        if (!canModifyEvent(event)) {
             throw new AccessDeniedException("You don't have permission to delete this event");
         }
 
-        // 1. Delete all EventUser registrations for this event
-        List<EventUser> eventUsers = eventUserRepository.findByEvent(event);
-        eventUserRepository.deleteAll(eventUsers);
-        
-        // 2. Get all posts associated with this event
-        List<Post> posts = postRepository.findByEvent(event);
-        
-        // 3. For each post, delete comments and likes
-        for (Post post : posts) {
-            // Get all comments for this post
-            List<Comment> comments = commentRepository.findByPost(post);
-            
-            // Delete likes on comments
-            for (Comment comment : comments) {
-                List<LikeComment> commentLikes = likeCommentRepository.findByComment(comment);
-                likeCommentRepository.deleteAll(commentLikes);
-            }
-            
-            // Delete child comments first (replies), then parent comments
-            for (Comment comment : comments) {
-                List<Comment> replies = commentRepository.findByParentComment(comment);
-                // Delete likes on replies
-                for (Comment reply : replies) {
-                    List<LikeComment> replyLikes = likeCommentRepository.findByComment(reply);
-                    likeCommentRepository.deleteAll(replyLikes);
-                }
-                commentRepository.deleteAll(replies);
-            }
-            
-            // Now delete all parent comments
-            commentRepository.deleteAll(comments);
-            
-            // Delete likes on post
-            List<LikePost> postLikes = likePostRepository.findByPost(post);
-            likePostRepository.deleteAll(postLikes);
-        }
-        
-        // 4. Delete all posts for this event
-        postRepository.deleteAll(posts);
-        
-        // 5. Finally delete the event
-        eventRepository.delete(event);
+        cascadeDeleteService.deleteEvent(id);
     }
 
     public Event getEventById(Long eventId) {
@@ -3,15 +3,14 @@ package com.example.backend.service;
 import com.example.backend.dto.EventUserResponse;
 import com.example.backend.model.Event;
 import com.example.backend.model.EventUser;
-import com.example.backend.model.RoleName;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
 import com.example.backend.model.User;
 import com.example.backend.repository.EventRepository;
 import com.example.backend.repository.EventUserRepository;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -25,31 +24,13 @@ public class EventUserService {
     private final UserService userService;
     private final NotificationService notificationService;
     private final EventRepository eventRepository;
-    private final UserRepository userRepository;
-
-    /**
-     * Get current authenticated user from SecurityContext
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("User not authenticated");
-        }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new AccessDeniedException("User not found"));
-    }
+    private final CurrentUser currentUser;
 
     /**
      * Check if current user can manage event participants (host or admin)
      */
-    private boolean canManageEventParticipants(Event event, User currentUser) {
-        // Admin can manage any event
-        if (currentUser.getRole().getName() == RoleName.ADMIN) {
-            return true;
-        }
-        // Host can only manage their own events
-        return event.getManager().getId().equals(currentUser.getId());
+    private boolean canManageEventParticipants(Event event) {
+        return currentUser.canModify(event.getManager().getId());
     }
 
     public EventUser registerUserToEvent(Long userId, Long eventId) {
@@ -61,10 +42,10 @@ public class EventUserService {
             return null; // User has already registered for this event
         }
 
-        notificationService.createAndSendNotification(event.getManager().getId(),
-                "User " + "<b>" + user.getUsername() + "</b>" + " vừa đăng ký tham gia sự kiện "
-                        + "<b>" + event.getTitle() + "</b>",
-                "/events/" + eventId);
+        notificationService.createAndSendNotification(
+                event.getManager().getId(),
+                NotificationMessage.of(
+                        NotificationKind.EVENT_REGISTERED, user.getId(), eventId, "/events/" + eventId));
 
         eventUser.setUser(user);
         eventUser.setEvent(event);
@@ -81,8 +62,7 @@ public class EventUserService {
         }
 
         // Check if current user can manage this event
-        User currentUser = getCurrentUser();
-        if (!canManageEventParticipants(eventUser.getEvent(), currentUser)) {
+        if (!canManageEventParticipants(eventUser.getEvent())) {
             throw new AccessDeniedException("You don't have permission to manage participants for this event");
         }
 
@@ -91,9 +71,8 @@ public class EventUserService {
         eventUser.setStatus(true);
         notificationService.createAndSendNotification(
                 userId,
-                "Bạn đã được chấp nhận tham gia sự kiện "
-                        + "<b>" + eventUser.getEvent().getTitle() + "</b>",
-                "/events/" + eventId);
+                NotificationMessage.of(
+                        NotificationKind.REGISTRATION_ACCEPTED, null, eventId, "/events/" + eventId));
         return eventUserRepository.save(eventUser);
     }
 
@@ -104,8 +83,7 @@ public class EventUserService {
         }
 
         // Check if current user can manage this event
-        User currentUser = getCurrentUser();
-        if (!canManageEventParticipants(eventUser.getEvent(), currentUser)) {
+        if (!canManageEventParticipants(eventUser.getEvent())) {
             throw new AccessDeniedException("You don't have permission to manage participants for this event");
         }
 
@@ -114,9 +92,8 @@ public class EventUserService {
         eventUserRepository.delete(eventUser);
         notificationService.createAndSendNotification(
                 userId,
-                "Bạn đã bị từ chối tham gia sự kiện "
-                        + "<b>" + eventUser.getEvent().getTitle() + "</b>",
-                "/events/" + eventId);
+                NotificationMessage.of(
+                        NotificationKind.REGISTRATION_DENIED, null, eventId, "/events/" + eventId));
         return eventUser;
     }
 
@@ -1,82 +1,161 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.LikeStatusResponse;
+import com.example.backend.exception.AppException;
 import com.example.backend.model.*;
 import com.example.backend.repository.*;
+import jakarta.transaction.Transactional;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Likes are keyed on (user, target) with a unique index, so like and unlike are
+ * idempotent single statements: repeating either one changes nothing, and only the
+ * call that actually inserts or deletes a row moves the counter or notifies.
+ */
 @Service
 @AllArgsConstructor
 public class LikeService {
+    private static final int MAX_STATUS_IDS = 200;
+
     private final LikePostRepository likePostRepository;
     private final LikeCommentRepository likeCommentRepository;
-    private final UserService userService;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
     private final PostService postService;
     private final CommentService commentService;
     private final NotificationService notificationService;
 
-    public LikePost likePost(Long userId, Long postId) {
-        LikePost likePost = checkLikePost(userId, postId);
-
-        if (likePost != null) {
-            postService.decLikeCount(likePost.getPost());
-            likePostRepository.delete(likePost);
-            return null;
+    /**
+     * Returns true if this call added the like, false if it already existed; 404 if the
+     * post does not exist.
+     */
+    @Transactional
+    public boolean likePost(Long userId, Long postId) {
+        Optional<LikeTarget> inserted = likePostRepository.insertIfAbsent(userId, postId);
+        if (inserted.isEmpty()) {
+            checkPostExists(postId);
+            return false;
         }
 
-        likePost = new LikePost();
-
-        User user = userService.getUserById(userId);
-        likePost.setUser(user);
-
-        Post post = postService.getPostById(postId);
-        likePost.setPost(post);
-        postService.incLikeCount(post);
-
-        notificationService.createAndSendNotification(
-                post.getUser().getId(),
-                "User " + "<b>" + user.getUsername() + "</b>" + " vừa thích bài viết của bạn",
+        postService.incLikeCount(postId);
+        notificationService.createAndSendGroupedNotification(
+                inserted.get().ownerId(),
+                NotificationKind.POST_LIKE,
+                postId,
+                userId,
                 "/posts/" + postId
         );
+        return true;
+    }
+
+    /**
+     * Returns true if this call removed the like, false if there was none; 404 if the
+     * post does not exist.
+     */
+    @Transactional
+    public boolean unlikePost(Long userId, Long postId) {
+        if (likePostRepository.deleteByUserIdAndPostId(userId, postId) == 0) {
+            checkPostExists(postId);
+            return false;
+        }
+        postService.decLikeCount(postId);
+        return true;
+    }
 
-        return likePostRepository.save(likePost);
+    /**
+     * Flip the like; returns whether the post is liked afterwards.
+     */
+    @Transactional
+    public boolean toggleLikePost(Long userId, Long postId) {
+        if (unlikePost(userId, postId)) {
+            return false;
+        }
+        likePost(userId, postId);
+        return true;
     }
 
-    public LikeComment likeComment(Long userId, Long commentId) {
-        LikeComment likeComment = checkLikeComment(userId, commentId);
-        if (likeComment != null) {
-            likeCommentRepository.delete(likeComment);
-            commentService.decLikesCount(likeComment.getComment());
-            return null;
+    @Transactional
+    public boolean likeComment(Long userId, Long commentId) {
+        Optional<LikeTarget> inserted = likeCommentRepository.insertIfAbsent(userId, commentId);
+        if (inserted.isEmpty()) {
+            checkCommentExists(commentId);
+            return false;
         }
 
-        likeComment = new LikeComment();
+        commentService.incLikesCount(commentId);
+        notificationService.createAndSendGroupedNotification(
+                inserted.get().ownerId(),
+                NotificationKind.COMMENT_LIKE,
+                commentId,
+                userId,
+                "/posts/" + inserted.get().postId()
+        );
+        return true;
+    }
+
+    @Transactional
+    public boolean unlikeComment(Long userId, Long commentId) {
+        if (likeCommentRepository.deleteByUserIdAndCommentId(userId, commentId) == 0) {
+            checkCommentExists(commentId);
+            return false;
+        }
+        commentService.decLikesCount(commentId);
+        return true;
+    }
 
-        User user = userService.getUserById(userId);
-        likeComment.setUser(user);
+    @Transactional
+    public boolean toggleLikeComment(Long userId, Long commentId) {
+        if (unlikeComment(userId, commentId)) {
+            return false;
+        }
+        likeComment(userId, commentId);
+        return true;
+    }
 
-        Comment comment = commentService.getCommentById(commentId);
-        likeComment.setComment(comment);
-        commentService.incLikesCount(comment);
+    /**
+     * Liked subset of the given posts and comments: one indexed IN query per kind, and
+     * none for an empty list, so a feed page needs a single round trip.
+     */
+    public LikeStatusResponse getLikeStatus(
+            Long userId, Collection<Long> postIds, Collection<Long> commentIds) {
+        if (postIds.size() > MAX_STATUS_IDS || commentIds.size() > MAX_STATUS_IDS) {
+            throw new AppException(
+                    "At most " + MAX_STATUS_IDS + " post and comment ids per request",
+                    HttpStatus.BAD_REQUEST);
+        }
+        List<Long> likedPosts =
+                postIds.isEmpty() ? List.of() : likePostRepository.findLikedPostIds(userId, postIds);
+        List<Long> likedComments =
+                commentIds.isEmpty()
+                        ? List.of()
+                        : likeCommentRepository.findLikedCommentIds(userId, commentIds);
+        return new LikeStatusResponse(likedPosts, likedComments);
+    }
 
-        notificationService.createAndSendNotification(
-                comment.getUser().getId(),
-                "User " + "<b>" + user.getUsername() + "</b>" + " vừa thích bình luận của bạn",
-                "/posts/" + comment.getPost().getId()
-        );
+    // Only reached when nothing changed, to tell "already (un)liked" from a missing target
+    private void checkPostExists(Long postId) {
+        if (!postRepository.existsById(postId)) {
+            throw new AppException("Post not found", HttpStatus.NOT_FOUND);
+        }
+    }
 
-        return likeCommentRepository.save(likeComment);
+    private void checkCommentExists(Long commentId) {
+        if (!commentRepository.existsById(commentId)) {
+            throw new AppException("Comment not found", HttpStatus.NOT_FOUND);
+        }
     }
 
-    public LikePost checkLikePost(Long userId, Long postId) {
-        User user = userService.getUserById(userId);
-        Post post = postService.getPostById(postId);
-        return likePostRepository.findByUserAndPost(user, post);
+    public boolean checkLikePost(Long userId, Long postId) {
+        return likePostRepository.existsByUserIdAndPostId(userId, postId);
     }
 
-    public LikeComment checkLikeComment(Long userId, Long commentId) {
-        User user = userService.getUserById(userId);
-        Comment comment = commentService.getCommentById(commentId);
-        return likeCommentRepository.findByUserAndComment(user, comment);
+    public boolean checkLikeComment(Long userId, Long commentId) {
+        return likeCommentRepository.existsByUserIdAndCommentId(userId, commentId);
     }
 }
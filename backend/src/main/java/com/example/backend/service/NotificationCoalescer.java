@@ -0,0 +1,132 @@
+package com.example.backend.service;
+
+import com.example.backend.model.NotificationKind;
+import com.example.backend.repository.NotificationBulkOperations.InsertedNotification;
+import com.example.backend.repository.NotificationBulkOperations.NotificationGroup;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.service.NotificationOutbox.GroupedNotification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Merges notifications of the same kind and target into one row per recipient. Within
+ * the window, the recipient's unread row for the group is updated in place with the new
+ * actor count and a short sample of actor ids instead of inserting another row. The count
+ * is of distinct actors: every actor of a group is kept in notification_actors, and only
+ * the ones not seen before add to it, so liking, unliking and liking again counts once.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationCoalescer {
+
+    private final NotificationRepository notificationRepo;
+
+    @Value("${notifications.coalesce.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${notifications.coalesce.sample-size:3}")
+    private int sampleSize;
+
+    public record Merged(
+            InsertedNotification row,
+            NotificationKind kind,
+            Long entityId,
+            List<Long> actorIds,
+            int actorCount,
+            String link,
+            boolean created) {}
+
+    private record GroupRef(Long userId, NotificationKind kind, Long entityId) {}
+
+    private static class Fold {
+        final String link;
+        // Newest first; addFirst moves a repeat actor to the front
+        final LinkedHashSet<Long> actorIds = new LinkedHashSet<>();
+
+        Fold(String link) {
+            this.link = link;
+        }
+    }
+
+    /**
+     * Write the batch; must run inside the caller's transaction.
+     */
+    public List<Merged> merge(List<GroupedNotification> batch) {
+        // Fold the batch in memory first so each group's row is touched once
+        Map<GroupRef, Fold> folds = new LinkedHashMap<>();
+        for (GroupedNotification g : batch) {
+            Fold fold =
+                    folds.computeIfAbsent(
+                            new GroupRef(g.userId(), g.kind(), g.targetId()),
+                            ref -> new Fold(g.link()));
+            fold.actorIds.addFirst(g.actorId());
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(windowMinutes);
+        List<Merged> merged = new ArrayList<>(folds.size());
+        for (Map.Entry<GroupRef, Fold> entry : folds.entrySet()) {
+            GroupRef ref = entry.getKey();
+            Fold fold = entry.getValue();
+            NotificationGroup open =
+                    notificationRepo.findOpenGroupForUpdate(
+                            ref.userId(), ref.kind(), ref.entityId(), since);
+
+            if (open == null) {
+                List<Long> actorIds = sample(fold.actorIds, List.of());
+                int actorCount = fold.actorIds.size();
+                InsertedNotification row =
+                        notificationRepo.insertGroup(
+                                ref.userId(),
+                                ref.kind(),
+                                ref.entityId(),
+                                fold.link,
+                                actorIds.get(0),
+                                actorCount,
+                                NotificationRenderer.joinActorIds(actorIds));
+                notificationRepo.addActors(row.id(), fold.actorIds);
+                merged.add(
+                        new Merged(
+                                row, ref.kind(), ref.entityId(), actorIds, actorCount, fold.link, true));
+            } else {
+                List<Long> actorIds =
+                        sample(fold.actorIds, NotificationRenderer.parseActorIds(open.actorIds(), null));
+                int actorCount =
+                        open.actorCount() + notificationRepo.addActors(open.id(), fold.actorIds);
+                LocalDateTime updatedAt =
+                        notificationRepo.updateGroup(
+                                open.id(),
+                                actorIds.get(0),
+                                actorCount,
+                                NotificationRenderer.joinActorIds(actorIds));
+                merged.add(
+                        new Merged(
+                                new InsertedNotification(
+                                        open.id(), ref.userId(), open.createdAt(), updatedAt),
+                                ref.kind(),
+                                ref.entityId(),
+                                actorIds,
+                                actorCount,
+                                fold.link,
+                                false));
+            }
+        }
+        return merged;
+    }
+
+    // Newest actors first, without duplicates, capped at the sample size
+    private List<Long> sample(Collection<Long> newActorIds, List<Long> storedActorIds) {
+        Set<Long> actorIds = new LinkedHashSet<>(newActorIds);
+        actorIds.addAll(storedActorIds);
+        return actorIds.stream().limit(sampleSize).toList();
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationResponse;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
+import com.example.backend.model.PushSubscription;
+import com.example.backend.push.PushDispatcher;
+import com.example.backend.push.PushSubscriptionCache;
+import com.example.backend.repository.NotificationBulkOperations.InsertedNotification;
+import com.example.backend.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Notification outbox: write endpoints only append a small record here, and a background
+ * worker turns the records into Notification rows in batches and hands them to push delivery.
+ * A record carries the whole recipient set, so a fan-out to thousands of users is one entry
+ * here and one set-based insert per 1000 recipients. Likes, comments and replies go through
+ * the {@link NotificationCoalescer} and update one row per target instead, and their pushes
+ * are throttled per recipient and target.
+ *
+ * <p>A record appended inside a transaction is only queued once that transaction commits,
+ * so a rolled-back like or comment never notifies anyone. Only the worker writes, so two
+ * writers never race on the same coalesced row, and the request thread never waits: when
+ * the queue is full the record is dropped and counted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationOutbox {
+
+    sealed interface OutboxRecord permits PendingNotification, GroupedNotification {}
+
+    public record PendingNotification(Collection<Long> userIds, NotificationMessage message)
+            implements OutboxRecord {}
+
+    public record GroupedNotification(
+            Long userId, NotificationKind kind, Long targetId, Long actorId, String link)
+            implements OutboxRecord {}
+
+    // A row that was inserted or, for coalesced notifications, updated in place
+    private record Delivered(
+            Long id,
+            Long userId,
+            NotificationRenderer.Template template,
+            String link,
+            LocalDateTime createdAt,
+            LocalDateTime updatedAt,
+            boolean created,
+            String throttleKey) {}
+
+    private final NotificationRepository notificationRepo;
+    private final NotificationCoalescer coalescer;
+    private final NotificationRenderer renderer;
+    private final PushSubscriptionCache subscriptionCache;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamRegistry streamRegistry;
+    private final PushDispatcher pushDispatcher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${notifications.outbox.capacity:10000}")
+    private int capacity;
+
+    @Value("${notifications.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${notifications.coalesce.push-throttle-minutes:10}")
+    private long pushThrottleMinutes;
+
+    private TransactionTemplate transactionTemplate;
+    private BlockingQueue<OutboxRecord> queue;
+    private Cache<String, Boolean> recentGroupPushes;
+    private Thread worker;
+    private volatile boolean running = true;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        queue = new ArrayBlockingQueue<>(capacity);
+        recentGroupPushes =
+                Caffeine.newBuilder()
+                        .maximumSize(capacity)
+                        .expireAfterWrite(Duration.ofMinutes(pushThrottleMinutes))
+                        .build();
+        worker = Thread.ofPlatform().name("notification-outbox").daemon(true).start(this::run);
+    }
+
+    public void append(Long userId, NotificationMessage message) {
+        appendAll(List.of(userId), message);
+    }
+
+    public void appendAll(Collection<Long> userIds, NotificationMessage message) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        appendAfterCommit(new PendingNotification(List.copyOf(userIds), message));
+    }
+
+    public void appendGrouped(
+            Long userId, NotificationKind kind, Long targetId, Long actorId, String link) {
+        appendAfterCommit(new GroupedNotification(userId, kind, targetId, actorId, link));
+    }
+
+    private void appendAfterCommit(OutboxRecord record) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            enqueue(record);
+                        }
+                    });
+        } else {
+            enqueue(record);
+        }
+    }
+
+    private void enqueue(OutboxRecord record) {
+        // Runs on the request thread after commit, so a full queue drops rather than waits
+        if (!queue.offer(record)) {
+            meterRegistry.counter("notifications.outbox", "outcome", "dropped").increment();
+        }
+    }
+
+    private void run() {
+        List<OutboxRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboxRecord first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                deliver(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Failed to deliver {} notification(s)", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void deliver(List<OutboxRecord> batch) {
+        List<Delivered> delivered = write(batch);
+        if (delivered.isEmpty()) {
+            return;
+        }
+
+        // Live channels get text in the default language; the inbox renders per request
+        List<String> contents =
+                renderer.renderAll(
+                        delivered.stream().map(Delivered::template).toList(),
+                        NotificationRenderer.DEFAULT_LOCALE);
+        for (int i = 0; i < delivered.size(); i++) {
+            Delivered d = delivered.get(i);
+            if (d.created()) {
+                unreadCounter.increment(d.userId());
+            }
+            NotificationResponse response =
+                    new NotificationResponse(
+                            d.id(), contents.get(i), d.link(), false, d.createdAt(), d.updatedAt());
+            streamRegistry.publish(d.userId(), List.of(response));
+        }
+        push(delivered, contents);
+    }
+
+    /**
+     * Write the batch in one transaction. If that fails, fall back to one transaction
+     * per record so a single bad record doesn't drop the rest.
+     */
+    private List<Delivered> write(List<OutboxRecord> batch) {
+        try {
+            return transactionTemplate.execute(status -> insert(batch));
+        } catch (Exception e) {
+            if (batch.size() == 1) {
+                log.warn("Dropped notification {}: {}", batch.get(0), e.getMessage());
+                return List.of();
+            }
+        }
+
+        List<Delivered> delivered = new ArrayList<>(batch.size());
+        for (OutboxRecord record : batch) {
+            delivered.addAll(write(List.of(record)));
+        }
+        return delivered;
+    }
+
+    private List<Delivered> insert(List<OutboxRecord> batch) {
+        List<Delivered> delivered = new ArrayList<>(batch.size());
+        List<GroupedNotification> grouped = new ArrayList<>();
+        for (OutboxRecord record : batch) {
+            switch (record) {
+                case PendingNotification pending -> {
+                    NotificationMessage message = pending.message();
+                    NotificationRenderer.Template template =
+                            new NotificationRenderer.Template(
+                                    message.kind(),
+                                    NotificationRenderer.parseActorIds(null, message.actorId()),
+                                    1,
+                                    message.entityId(),
+                                    message.content());
+                    for (InsertedNotification row :
+                            notificationRepo.insertForRecipients(pending.userIds(), message)) {
+                        delivered.add(
+                                new Delivered(
+                                        row.id(),
+                                        row.userId(),
+                                        template,
+                                        message.link(),
+                                        row.createdAt(),
+                                        row.updatedAt(),
+                                        true,
+                                        null));
+                    }
+                }
+                case GroupedNotification g -> grouped.add(g);
+            }
+        }
+
+        if (!grouped.isEmpty()) {
+            for (NotificationCoalescer.Merged m : coalescer.merge(grouped)) {
+                delivered.add(
+                        new Delivered(
+                                m.row().id(),
+                                m.row().userId(),
+                                new NotificationRenderer.Template(
+                                        m.kind(), m.actorIds(), m.actorCount(), m.entityId(), null),
+                                m.link(),
+                                m.row().createdAt(),
+                                m.row().updatedAt(),
+                                m.created(),
+                                m.row().userId() + ":" + m.kind() + ":" + m.entityId()));
+            }
+        }
+        return delivered;
+    }
+
+    private void push(List<Delivered> delivered, List<String> contents) {
+        Set<Long> userIds = delivered.stream().map(Delivered::userId).collect(Collectors.toSet());
+        Map<Long, List<PushSubscription>> subscriptionsByUser = subscriptionCache.getAll(userIds);
+        if (subscriptionsByUser.isEmpty()) {
+            return;
+        }
+
+        // Fan-out records share their content, so each payload is serialized once
+        Map<String, String> payloads = new HashMap<>();
+        for (int i = 0; i < delivered.size(); i++) {
+            Delivered d = delivered.get(i);
+            List<PushSubscription> subscriptions = subscriptionsByUser.get(d.userId());
+            if (subscriptions == null || isThrottled(d)) {
+                continue;
+            }
+            String content = contents.get(i);
+            String payload =
+                    payloads.computeIfAbsent(
+                            content + "|" + d.link(), key -> buildPushPayload(content, d.link()));
+            for (PushSubscription sub : subscriptions) {
+                pushDispatcher.dispatch(sub, payload);
+            }
+        }
+    }
+
+    // At most one push per recipient and group within the throttle window
+    private boolean isThrottled(Delivered d) {
+        if (d.throttleKey() == null) {
+            return false;
+        }
+        return recentGroupPushes.asMap().putIfAbsent(d.throttleKey(), Boolean.TRUE) != null;
+    }
+
+    private String buildPushPayload(String message, String link) {
+        Map<String, String> payload = new HashMap<>();
+        payload.put("title", "Thông báo mới!");
+        payload.put("body", message);
+        payload.put("url", link);
+        return objectMapper.writeValueAsString(payload);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Let the worker drain what is already queued before the repositories go away
+        running = false;
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+}
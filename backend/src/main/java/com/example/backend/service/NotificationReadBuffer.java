@@ -0,0 +1,78 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.NotificationBulkOperations.ReadAck;
+import com.example.backend.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces per-item read acknowledgements. Ids are collected in memory and flushed as one
+ * set-based UPDATE every {@code flush-interval-ms}, or earlier once {@code batch-size} ids
+ * are waiting, so opening the notification panel costs one statement instead of dozens.
+ * Each id is kept with the user who acknowledged it, and the UPDATE only touches rows that
+ * user received.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationReadBuffer {
+
+    private final NotificationRepository notificationRepo;
+    private final UnreadNotificationCounter unreadCounter;
+
+    @Value("${notifications.read-buffer.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${notifications.read-buffer.batch-size:500}")
+    private int batchSize;
+
+    private final Set<ReadAck> pending = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService flusher;
+
+    @PostConstruct
+    public void init() {
+        flusher =
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("notification-read-flush").daemon(true).factory());
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void markRead(Long userId, Long notificationId) {
+        pending.add(new ReadAck(notificationId, userId));
+        if (pending.size() >= batchSize) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    private synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<ReadAck> acks = new ArrayList<>(pending);
+        pending.removeAll(acks);
+        try {
+            // Only rows that were still unread come back, so the counters stay exact
+            notificationRepo.markReadByIds(acks).forEach(unreadCounter::decrement);
+        } catch (Exception e) {
+            log.warn("Failed to flush {} read acknowledgement(s): {}", acks.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+}
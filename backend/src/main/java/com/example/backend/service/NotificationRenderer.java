@@ -0,0 +1,205 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.Role;
+import com.example.backend.repository.EventRepository;
+import com.example.backend.repository.IdAndName;
+import com.example.backend.repository.RoleRepository;
+import com.example.backend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.MessageSource;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Renders stored notification templates to text. Templates come from messages*.properties
+ * through the MessageSource; actor and entity names are looked up in bulk for a whole page
+ * and cached for a few minutes, so a rename shows up once its entry expires.
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationRenderer {
+
+    public static final Locale DEFAULT_LOCALE = Locale.forLanguageTag("vi");
+
+    private static final String ID_SEPARATOR = ",";
+
+    /**
+     * A stored template with its parameters, or literal content when kind is null.
+     */
+    public record Template(
+            NotificationKind kind, List<Long> actorIds, int actorCount, Long entityId, String content) {
+
+        public static Template of(Notification n) {
+            return new Template(
+                    n.getKind(),
+                    parseActorIds(n.getActorIds(), n.getActorId()),
+                    n.getActorCount(),
+                    n.getEntityId(),
+                    n.getContent());
+        }
+    }
+
+    private final MessageSource messageSource;
+    private final UserRepository userRepository;
+    private final EventRepository eventRepository;
+    private final RoleRepository roleRepository;
+
+    @Value("${notifications.render.name-cache-size:20000}")
+    private long nameCacheSize;
+
+    @Value("${notifications.render.name-cache-ttl-minutes:10}")
+    private long nameCacheTtlMinutes;
+
+    private Cache<Long, String> usernames;
+    private Cache<Long, String> eventTitles;
+    private Cache<Long, String> roleNames;
+
+    @PostConstruct
+    public void init() {
+        usernames = newNameCache();
+        eventTitles = newNameCache();
+        roleNames = newNameCache();
+    }
+
+    /**
+     * Parse the comma separated actor ids of a coalesced row, or fall back to its single actor.
+     */
+    public static List<Long> parseActorIds(String actorIds, Long actorId) {
+        if (actorIds != null && !actorIds.isEmpty()) {
+            return Arrays.stream(actorIds.split(ID_SEPARATOR)).map(Long::valueOf).toList();
+        }
+        return actorId == null ? List.of() : List.of(actorId);
+    }
+
+    public static String joinActorIds(Collection<Long> actorIds) {
+        return actorIds.stream().map(String::valueOf).collect(Collectors.joining(ID_SEPARATOR));
+    }
+
+    public String render(Template template, Locale locale) {
+        return renderAll(List.of(template), locale).get(0);
+    }
+
+    /**
+     * Render a page of templates, loading every name it needs with one query per kind of name.
+     */
+    public List<String> renderAll(List<Template> templates, Locale locale) {
+        Set<Long> actorIds = new HashSet<>();
+        Set<Long> eventIds = new HashSet<>();
+        Set<Long> roleIds = new HashSet<>();
+        for (Template t : templates) {
+            if (t.kind() == null) {
+                continue;
+            }
+            actorIds.addAll(t.actorIds().subList(0, Math.min(2, t.actorIds().size())));
+            if (t.entityId() != null) {
+                switch (t.kind().getTarget()) {
+                    case EVENT -> eventIds.add(t.entityId());
+                    case ROLE -> roleIds.add(t.entityId());
+                    case NONE -> {}
+                }
+            }
+        }
+
+        Map<Long, String> actorNames =
+                usernames.getAll(actorIds, ids -> toMap(userRepository.findNamesByIdIn(idList(ids))));
+        Map<Long, String> eventNames =
+                eventTitles.getAll(eventIds, ids -> toMap(eventRepository.findNamesByIdIn(idList(ids))));
+        Map<Long, String> roleLabels =
+                roleNames.getAll(
+                        roleIds,
+                        ids ->
+                                roleRepository.findAllById(idList(ids)).stream()
+                                        .collect(Collectors.toMap(Role::getId, r -> r.getName().name())));
+
+        return templates.stream()
+                .map(
+                        t ->
+                                t.kind() == null
+                                        ? t.content()
+                                        : format(t, actorNames, eventNames, roleLabels, locale))
+                .toList();
+    }
+
+    private String format(
+            Template t,
+            Map<Long, String> actorNames,
+            Map<Long, String> eventNames,
+            Map<Long, String> roleLabels,
+            Locale locale) {
+        String entity =
+                switch (t.kind().getTarget()) {
+                    case EVENT -> eventNames.get(t.entityId());
+                    case ROLE -> roleLabels.get(t.entityId());
+                    case NONE -> null;
+                };
+        return messageSource.getMessage(
+                t.kind().messageKey(),
+                new Object[] {actors(t, actorNames, locale), bold(entity, locale)},
+                locale);
+    }
+
+    // "<b>A</b>", "<b>A</b> và <b>B</b>" or "<b>A</b>, <b>B</b> và 23 người khác"
+    private String actors(Template t, Map<Long, String> actorNames, Locale locale) {
+        List<String> shown =
+                t.actorIds().stream()
+                        .limit(2)
+                        .map(id -> bold(actorNames.get(id), locale))
+                        .toList();
+        int others = Math.max(0, t.actorCount() - shown.size());
+
+        if (shown.isEmpty()) {
+            return bold(null, locale);
+        }
+        if (shown.size() == 1) {
+            return others == 0
+                    ? shown.get(0)
+                    : messageSource.getMessage(
+                            "notification.actors.one-more", new Object[] {shown.get(0), others}, locale);
+        }
+        return others == 0
+                ? messageSource.getMessage("notification.actors.two", shown.toArray(), locale)
+                : messageSource.getMessage(
+                        "notification.actors.two-more",
+                        new Object[] {shown.get(0), shown.get(1), others},
+                        locale);
+    }
+
+    private String bold(String name, Locale locale) {
+        String label =
+                name != null ? name : messageSource.getMessage("notification.unknown", null, locale);
+        return "<b>" + label + "</b>";
+    }
+
+    private Cache<Long, String> newNameCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(nameCacheSize)
+                .expireAfterWrite(Duration.ofMinutes(nameCacheTtlMinutes))
+                .build();
+    }
+
+    private static List<Long> idList(Set<? extends Long> ids) {
+        return List.copyOf(ids);
+    }
+
+    private static Map<Long, String> toMap(List<IdAndName> rows) {
+        Map<Long, String> names = new HashMap<>();
+        rows.forEach(row -> names.put(row.getId(), row.getName()));
+        return names;
+    }
+}
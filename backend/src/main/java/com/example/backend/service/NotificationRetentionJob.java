@@ -0,0 +1,193 @@
+package com.example.backend.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the notifications table small. Read notifications older than {@code read-max-age-days}
+ * are moved to notifications_archive (or deleted, with mode=delete) in small chunks, each its
+ * own short statement, so the job never holds long locks and skips rows another instance or
+ * a request has locked. The archive is partitioned by month; whole partitions older than
+ * {@code archive-months} are dropped, which is far cheaper than deleting rows. Rows of a
+ * month whose partition could not be created sit in the default partition, so that one is
+ * trimmed to the same age in chunks instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationRetentionJob {
+
+    private static final String ARCHIVE_TABLE = "notifications_archive";
+    private static final String DEFAULT_PARTITION = ARCHIVE_TABLE + "_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String COLUMNS =
+            "id, user_id, kind, actor_id, entity_id, content, link, is_read, created_at, updated_at,"
+                    + " actor_count, actor_ids";
+
+    private static final String SELECT_CHUNK =
+            """
+            SELECT id FROM notifications
+            WHERE is_read = true AND created_at < ?
+            ORDER BY created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String ARCHIVE_CHUNK =
+            "WITH moved AS (DELETE FROM notifications WHERE id IN (" + SELECT_CHUNK + ") RETURNING "
+                    + COLUMNS + ") INSERT INTO " + ARCHIVE_TABLE + " (" + COLUMNS + ") SELECT "
+                    + COLUMNS + " FROM moved";
+
+    private static final String DELETE_CHUNK =
+            "DELETE FROM notifications WHERE id IN (" + SELECT_CHUNK + ")";
+
+    private static final String OLDEST_CANDIDATE =
+            "SELECT min(created_at) FROM notifications WHERE is_read = true AND created_at < ?";
+
+    private static final String TRIM_DEFAULT_CHUNK =
+            "DELETE FROM " + DEFAULT_PARTITION + " WHERE ctid IN (SELECT ctid FROM " + DEFAULT_PARTITION
+                    + " WHERE created_at < ? LIMIT ?)";
+
+    private static final String ARCHIVE_PARTITIONS =
+            """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${notifications.retention.enabled:true}")
+    private boolean enabled;
+
+    // archive: move to notifications_archive; delete: drop the rows
+    @Value("${notifications.retention.mode:archive}")
+    private String mode;
+
+    @Value("${notifications.retention.read-max-age-days:90}")
+    private int readMaxAgeDays;
+
+    @Value("${notifications.retention.archive-months:12}")
+    private int archiveMonths;
+
+    @Value("${notifications.retention.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${notifications.retention.chunk-pause-ms:100}")
+    private long chunkPauseMs;
+
+    @Scheduled(cron = "${notifications.retention.cron:0 30 3 * * *}")
+    public void run() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(readMaxAgeDays);
+        boolean archive = !"delete".equalsIgnoreCase(mode);
+
+        try {
+            if (archive) {
+                createArchivePartitions(cutoff);
+            }
+            long moved = moveReadNotifications(cutoff, archive);
+            int dropped = 0;
+            long trimmed = 0;
+            if (archive) {
+                YearMonth oldestKept = YearMonth.now().minusMonths(archiveMonths);
+                dropped = dropExpiredArchivePartitions(oldestKept);
+                trimmed = trimDefaultPartition(oldestKept);
+            }
+            log.info(
+                    "Notification retention: {} {} read notification(s), dropped {} archive partition(s),"
+                            + " trimmed {} row(s) from the default partition",
+                    archive ? "archived" : "deleted",
+                    moved,
+                    dropped,
+                    trimmed);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Notification retention failed", e);
+        }
+    }
+
+    private long moveReadNotifications(LocalDateTime cutoff, boolean archive)
+            throws InterruptedException {
+        return inChunks(archive ? ARCHIVE_CHUNK : DELETE_CHUNK, Timestamp.valueOf(cutoff));
+    }
+
+    private long inChunks(String sql, Timestamp before) throws InterruptedException {
+        long total = 0;
+        int moved;
+        do {
+            // One statement per chunk: its locks are released as soon as it commits
+            moved = jdbcTemplate.update(sql, before, chunkSize);
+            total += moved;
+            if (moved == chunkSize) {
+                Thread.sleep(chunkPauseMs);
+            }
+        } while (moved == chunkSize);
+        return total;
+    }
+
+    // Rows land in their month's partition; anything outside falls into the default one
+    private void createArchivePartitions(LocalDateTime cutoff) {
+        Timestamp oldest =
+                jdbcTemplate.queryForObject(OLDEST_CANDIDATE, Timestamp.class, Timestamp.valueOf(cutoff));
+        if (oldest == null) {
+            return;
+        }
+        YearMonth last = YearMonth.from(cutoff);
+        for (YearMonth month = YearMonth.from(oldest.toLocalDateTime());
+                !month.isAfter(last);
+                month = month.plusMonths(1)) {
+            try {
+                jdbcTemplate.execute(
+                        "CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                                + " PARTITION OF " + ARCHIVE_TABLE
+                                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                                + month.plusMonths(1).atDay(1) + "')");
+            } catch (Exception e) {
+                // e.g. the default partition already holds rows of that month
+                log.warn("Could not create archive partition for {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    private int dropExpiredArchivePartitions(YearMonth oldestKept) {
+        List<String> partitions =
+                jdbcTemplate.queryForList(ARCHIVE_PARTITIONS, String.class, ARCHIVE_TABLE);
+        int dropped = 0;
+        for (String partition : partitions) {
+            String suffix = partition.substring(partition.lastIndexOf('_') + 1);
+            if (!suffix.matches("\\d{6}")) {
+                continue;
+            }
+            if (YearMonth.parse(suffix, PARTITION_SUFFIX).isBefore(oldestKept)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    // Same age limit as the dropped partitions, for rows that never got a partition of their own
+    private long trimDefaultPartition(YearMonth oldestKept) throws InterruptedException {
+        return inChunks(TRIM_DEFAULT_CHUNK, Timestamp.valueOf(oldestKept.atDay(1).atStartOfDay()));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return ARCHIVE_TABLE + "_" + month.format(PARTITION_SUFFIX);
+    }
+}
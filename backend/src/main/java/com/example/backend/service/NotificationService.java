@@ -1,88 +1,125 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.NotificationResponse;
 import com.example.backend.dto.PushSubscriptionRequest;
 import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
 import com.example.backend.model.PushSubscription;
-import com.example.backend.model.User;
+import com.example.backend.push.PushSubscriptionCache;
 import com.example.backend.repository.NotificationRepository;
 import com.example.backend.repository.PushSubscriptionRepository;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.security.CurrentUser;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
-import nl.martijndwars.webpush.PushService;
-import nl.martijndwars.webpush.Subscription;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
-import tools.jackson.databind.ObjectMapper;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.util.HashMap;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 public class NotificationService {
     private final NotificationRepository notificationRepo;
     private final PushSubscriptionRepository subscriptionRepo;
-    private final UserRepository userRepo;
-    private final PushService pushService;
-    private final ObjectMapper objectMapper;
+    private final NotificationOutbox notificationOutbox;
+    private final PushSubscriptionCache subscriptionCache;
+    private final UnreadNotificationCounter unreadCounter;
+    private final NotificationStreamRegistry streamRegistry;
+    private final NotificationReadBuffer readBuffer;
+    private final NotificationRenderer renderer;
+    private final CurrentUser currentUser;
 
-    @Transactional
-    public void createAndSendNotification(Long userId, String content, String link) {
-        Notification noti = new Notification();
-        User user =
-                userRepo.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        noti.setUser(user);
-        noti.setContent(content);
-        noti.setLink(link);
-        notificationRepo.save(noti);
+    /**
+     * Queue a notification for the outbox; the row and the push are written in the background
+     */
+    public void createAndSendNotification(Long userId, NotificationMessage message) {
+        notificationOutbox.append(userId, message);
+    }
 
-        List<PushSubscription> subscriptions = subscriptionRepo.findByUserId(user.getId());
+    /**
+     * Queue one notification for many recipients; it is written with set-based inserts
+     * and never loads the recipients' User entities
+     */
+    public void createAndSendNotifications(Collection<Long> userIds, NotificationMessage message) {
+        notificationOutbox.appendAll(userIds, message);
+    }
 
-        // Send push notifications asynchronously in background threads
-        for (PushSubscription sub : subscriptions) {
-            java.util.concurrent.CompletableFuture.runAsync(() -> sendWebPush(sub, content, link));
-        }
+    /**
+     * Queue a notification that is merged with others of the same kind and target,
+     * e.g. every like on one post becomes "A, B và 23 người khác vừa thích bài viết của bạn"
+     */
+    public void createAndSendGroupedNotification(
+            Long userId, NotificationKind kind, Long targetId, Long actorId, String link) {
+        notificationOutbox.appendGrouped(userId, kind, targetId, actorId, link);
     }
 
-    public List<Notification> getUserNotifications(Long userId) {
-        return notificationRepo.findByUserIdOrderByCreatedAtDesc(userId);
+    /**
+     * One page of the inbox, newest first, rendered in the given language. Pass the createdAt
+     * and id of the last item of the previous page as the cursor, or nulls for the first page.
+     */
+    public List<NotificationResponse> getUserNotifications(
+            Long userId, LocalDateTime before, Long beforeId, int size, Locale locale) {
+        checkOwner(userId);
+        PageRequest pageable = PageRequest.of(0, size);
+        List<Notification> notifications =
+                before == null || beforeId == null
+                        ? notificationRepo.findByUserIdOrderByCreatedAtDescIdDesc(userId, pageable)
+                        : notificationRepo.findPageBefore(userId, before, beforeId, pageable);
+        List<String> contents =
+                renderer.renderAll(
+                        notifications.stream().map(NotificationRenderer.Template::of).toList(), locale);
+        List<NotificationResponse> responses = new ArrayList<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            responses.add(NotificationResponse.fromNotification(notifications.get(i), contents.get(i)));
+        }
+        return responses;
     }
 
-    public void markAsRead(Long notificationId) {
-        Notification noti =
-                notificationRepo
-                        .findById(notificationId)
-                        .orElseThrow(() -> new RuntimeException("Notification not found"));
-        noti.setRead(true);
-        notificationRepo.save(noti);
+    public SseEmitter openStream(Long userId, String lastEventId) {
+        return streamRegistry.open(userId, lastEventId);
     }
 
-    private void sendWebPush(PushSubscription sub, String message, String link) {
-        try {
-            Map<String, String> payload = new HashMap<>();
-            payload.put("title", "Thông báo mới!");
-            payload.put("body", message);
-            payload.put("url", link);
-            String jsonPayload = objectMapper.writeValueAsString(payload);
+    public long countUnread(Long userId) {
+        checkOwner(userId);
+        return unreadCounter.get(userId);
+    }
 
-            Subscription librarySub =
-                    new Subscription(
-                            sub.getEndpoint(),
-                            new Subscription.Keys(sub.getP256dh(), sub.getAuth()));
+    /**
+     * Acknowledge one of the current user's notifications. The write is coalesced with
+     * other acknowledgements and flushed shortly after in one statement; an id that
+     * belongs to another user is left untouched.
+     */
+    public void markAsRead(Long notificationId) {
+        readBuffer.markRead(currentUser.id(), notificationId);
+    }
 
-            nl.martijndwars.webpush.Notification notification =
-                    new nl.martijndwars.webpush.Notification(librarySub, jsonPayload);
+    @Transactional
+    public void markAllAsRead(Long userId) {
+        checkOwner(userId);
+        int updated = notificationRepo.markAllRead(userId);
+        unreadCounter.subtract(userId, updated);
+    }
 
-            pushService.send(notification);
+    /**
+     * Mark every notification up to and including maxId read, e.g. all items shown in the panel
+     */
+    @Transactional
+    public void markAsReadUpTo(Long userId, Long maxId) {
+        checkOwner(userId);
+        int updated = notificationRepo.markReadUpTo(userId, maxId);
+        unreadCounter.subtract(userId, updated);
+    }
 
-        } catch (Exception e) {
-            if (e.getMessage() != null && (e.getMessage().contains("410") || e.getMessage().contains("404"))) {
-                subscriptionRepo.delete(sub);
-            }
-            e.printStackTrace();
+    private void checkOwner(Long userId) {
+        if (!currentUser.canModify(userId)) {
+            throw new AccessDeniedException("You don't have permission to access these notifications");
         }
     }
 
@@ -98,6 +135,7 @@ public class NotificationService {
         entity.setP256dh(request.getP256dh());
         entity.setAuth(request.getAuth());
         subscriptionRepo.save(entity);
+        subscriptionCache.invalidate(userId);
     }
 
 }
@@ -0,0 +1,331 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationResponse;
+import com.example.backend.model.Notification;
+import com.example.backend.repository.NotificationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Open notification streams per user.
+ *
+ * <p>Streams are async servlet responses, so an idle connection holds no thread; sends run
+ * on virtual threads so one slow client never stalls the outbox. Each stream has its own
+ * queue drained by one task at a time, so events reach a client in the order they were
+ * published, and a stream only goes live once its replay is sent. A heartbeat comment keeps
+ * proxies from closing idle connections, and a reconnecting client gets everything after
+ * its Last-Event-ID replayed from the database. The stream path is left out of
+ * open-in-view (see WebMvcConfig), so the replay holds a connection only for its own
+ * read-only transaction, not for the life of the stream.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationStreamRegistry {
+
+    private final NotificationRepository notificationRepo;
+    private final NotificationRenderer renderer;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${notifications.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${notifications.stream.heartbeat-seconds:25}")
+    private long heartbeatSeconds;
+
+    @Value("${notifications.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    @Value("${notifications.stream.replay-limit:100}")
+    private int replayLimit;
+
+    // Per user, oldest stream first
+    private final Map<Long, Deque<Stream>> streams = new ConcurrentHashMap<>();
+    private TransactionTemplate replayTransaction;
+    private ExecutorService senders;
+    private ScheduledExecutorService heartbeat;
+
+    /**
+     * Where a reconnecting client left off: the (updatedAt, id) its last event had when it
+     * was sent. Event ids are {@code <updatedAt in epoch microseconds>-<id>}, so the cursor
+     * comes from the client and not from the row, which may have been merged into since.
+     * A bare id, as sent before updates were replayed, has no updatedAt and resumes by id.
+     */
+    record EventCursor(LocalDateTime updatedAt, Long id) {
+
+        static String format(NotificationResponse notification) {
+            LocalDateTime updatedAt = notification.getUpdatedAt();
+            if (updatedAt == null) {
+                return String.valueOf(notification.getId());
+            }
+            long micros =
+                    updatedAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + updatedAt.getNano() / 1_000;
+            return micros + "-" + notification.getId();
+        }
+
+        // Null when the header is missing or was not written by this server
+        static EventCursor parse(String eventId) {
+            if (eventId == null || eventId.isBlank()) {
+                return null;
+            }
+            try {
+                int dash = eventId.indexOf('-', 1);
+                if (dash < 0) {
+                    return new EventCursor(null, Long.valueOf(eventId.trim()));
+                }
+                long micros = Long.parseLong(eventId.substring(0, dash));
+                LocalDateTime updatedAt =
+                        LocalDateTime.ofEpochSecond(
+                                Math.floorDiv(micros, 1_000_000),
+                                (int) Math.floorMod(micros, 1_000_000) * 1_000,
+                                ZoneOffset.UTC);
+                return new EventCursor(updatedAt, Long.valueOf(eventId.substring(dash + 1)));
+            } catch (NumberFormatException | DateTimeException e) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * One open stream and what is waiting to be sent on it.
+     */
+    static final class Stream {
+
+        final SseEmitter emitter;
+        private final Queue<NotificationResponse> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean pingDue = new AtomicBoolean();
+        // Held by the one task sending on this stream
+        private final AtomicBoolean draining = new AtomicBoolean();
+        // Event ids sent by the replay, so a publish racing it is not sent twice
+        private final Set<String> replayed = ConcurrentHashMap.newKeySet();
+        private volatile boolean live;
+        private volatile boolean closed;
+
+        Stream(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        replayTransaction = new TransactionTemplate(transactionManager);
+        replayTransaction.setReadOnly(true);
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+        heartbeat =
+                Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("notification-stream-heartbeat").daemon(true).factory());
+        heartbeat.scheduleAtFixedRate(
+                this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Open a stream for the user, first replaying what was created or coalesced into after
+     * the event of lastEventId was sent.
+     */
+    public SseEmitter open(Long userId, String lastEventId) {
+        EventCursor cursor = EventCursor.parse(lastEventId);
+        Stream stream = new Stream(newEmitter());
+        List<Stream> evicted = new ArrayList<>();
+        // Adding and evicting under the map's per-key lock keeps concurrent opens within the cap
+        streams.compute(
+                userId,
+                (id, userStreams) -> {
+                    Deque<Stream> deque =
+                            userStreams == null ? new ConcurrentLinkedDeque<>() : userStreams;
+                    while (deque.size() >= maxPerUser) {
+                        // Oldest tabs are the likeliest to be gone already
+                        evicted.add(deque.pollFirst());
+                    }
+                    deque.addLast(stream);
+                    return deque;
+                });
+        // Already out of the deque, so their completion callbacks find nothing to remove
+        for (Stream old : evicted) {
+            old.closed = true;
+            old.emitter.complete();
+        }
+
+        SseEmitter emitter = stream.emitter;
+        emitter.onCompletion(() -> remove(userId, stream));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> remove(userId, stream));
+
+        if (cursor != null) {
+            List<NotificationResponse> missed;
+            try {
+                missed = loadMissed(userId, cursor);
+            } catch (RuntimeException e) {
+                remove(userId, stream);
+                throw e;
+            }
+            // Sent only after the transaction has given its connection back, and before
+            // anything published meanwhile, which waits in the stream's queue
+            for (NotificationResponse notification : missed) {
+                if (!send(userId, stream, notification)) {
+                    break;
+                }
+                stream.replayed.add(EventCursor.format(notification));
+            }
+        }
+        stream.live = true;
+        schedule(userId, stream);
+        return emitter;
+    }
+
+    // Overridden by tests to observe what a stream is sent
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeoutMs);
+    }
+
+    private List<NotificationResponse> loadMissed(Long userId, EventCursor cursor) {
+        return replayTransaction.execute(
+                status -> {
+                    PageRequest page = PageRequest.of(0, replayLimit);
+                    List<Notification> missed =
+                            cursor.updatedAt() == null
+                                    ? notificationRepo.findByUserIdAndIdGreaterThanOrderByIdAsc(
+                                            userId, cursor.id(), page)
+                                    : notificationRepo.findChangedAfter(
+                                            userId, cursor.updatedAt(), cursor.id(), page);
+                    List<String> contents =
+                            renderer.renderAll(
+                                    missed.stream().map(NotificationRenderer.Template::of).toList(),
+                                    NotificationRenderer.DEFAULT_LOCALE);
+                    List<NotificationResponse> responses = new ArrayList<>(missed.size());
+                    for (int i = 0; i < missed.size(); i++) {
+                        responses.add(NotificationResponse.fromNotification(missed.get(i), contents.get(i)));
+                    }
+                    return responses;
+                });
+    }
+
+    /**
+     * Send the notifications to every open stream of their recipient.
+     */
+    public void publish(Long userId, List<NotificationResponse> notifications) {
+        Deque<Stream> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (Stream stream : userStreams) {
+            stream.pending.addAll(notifications);
+            schedule(userId, stream);
+        }
+    }
+
+    // Start a drain unless one is running or the stream is still replaying
+    private void schedule(Long userId, Stream stream) {
+        if (!stream.live || stream.closed) {
+            return;
+        }
+        if (stream.pending.isEmpty() && !stream.pingDue.get()) {
+            return;
+        }
+        if (stream.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(userId, stream));
+        }
+    }
+
+    private void drain(Long userId, Stream stream) {
+        try {
+            if (stream.pingDue.getAndSet(false) && !ping(userId, stream)) {
+                return;
+            }
+            NotificationResponse notification;
+            while (!stream.closed && (notification = stream.pending.poll()) != null) {
+                if (stream.replayed.remove(EventCursor.format(notification))) {
+                    continue;
+                }
+                if (!send(userId, stream, notification)) {
+                    return;
+                }
+            }
+        } finally {
+            stream.draining.set(false);
+        }
+        // Picks up whatever was queued after the loop found the queue empty
+        schedule(userId, stream);
+    }
+
+    private boolean send(Long userId, Stream stream, NotificationResponse notification) {
+        try {
+            stream.emitter.send(
+                    SseEmitter.event()
+                            .id(EventCursor.format(notification))
+                            .name("notification")
+                            .data(notification, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, stream);
+            return false;
+        }
+    }
+
+    private boolean ping(Long userId, Stream stream) {
+        try {
+            stream.emitter.send(SseEmitter.event().comment("ping"));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            remove(userId, stream);
+            return false;
+        }
+    }
+
+    // Queued like any event, so a ping never interleaves with a send on the same stream
+    private void sendHeartbeats() {
+        streams.forEach(
+                (userId, userStreams) -> {
+                    for (Stream stream : userStreams) {
+                        stream.pingDue.set(true);
+                        schedule(userId, stream);
+                    }
+                });
+    }
+
+    private void remove(Long userId, Stream stream) {
+        stream.closed = true;
+        stream.pending.clear();
+        streams.computeIfPresent(
+                userId,
+                (id, userStreams) -> {
+                    userStreams.remove(stream);
+                    return userStreams.isEmpty() ? null : userStreams;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        streams.values().forEach(userStreams -> userStreams.forEach(stream -> stream.emitter.complete()));
+        streams.clear();
+        senders.shutdown();
+    }
+}
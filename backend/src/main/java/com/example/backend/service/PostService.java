@@ -1,18 +1,15 @@
 package com.example.backend.service;
 
 import com.example.backend.controller.PostUpdateRequest;
-import com.example.backend.dto.EventUserResponse;
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.counter.CounterBuffer.Counter;
 import com.example.backend.dto.PostCreateRequest;
 import com.example.backend.model.*;
-import com.example.backend.repository.CommentRepository;
-import com.example.backend.repository.LikeCommentRepository;
-import com.example.backend.repository.LikePostRepository;
+import com.example.backend.repository.EventUserRepository;
 import com.example.backend.repository.PostRepository;
-import com.example.backend.repository.UserRepository;
+import com.example.backend.security.CurrentUser;
 import lombok.AllArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -24,77 +21,62 @@ public class PostService {
     private final UserService userService;
     private final EventService eventService;
     private final EventUserService eventUserService;
-    private final CommentRepository commentRepository;
-    private final LikePostRepository likePostRepository;
-    private final LikeCommentRepository likeCommentRepository;
+    private final EventUserRepository eventUserRepository;
     private final NotificationService notificationService;
-    private final UserRepository userRepository;
-
-    /**
-     * Get current authenticated user from SecurityContext
-     */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new AccessDeniedException("User not authenticated");
-        }
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new AccessDeniedException("User not found"));
-    }
+    private final CurrentUser currentUser;
+    private final CounterBuffer counterBuffer;
+    private final CascadeDeleteService cascadeDeleteService;
 
     /**
      * Check if current user can modify the post (owner or admin)
      */
-    private boolean canModifyPost(Post post, User currentUser) {
-        // Admin can modify any post
-        if (currentUser.getRole().getName() == RoleName.ADMIN) {
-            return true;
-        }
-        // User can only modify their own posts
-        return post.getUser().getId().equals(currentUser.getId());
+    private boolean canModifyPost(Post post) {
+        return currentUser.canModify(post.getUser().getId());
     }
 
     public Post createPost(PostCreateRequest request) {
         Post post = new Post();
         
         // Handle null eventId for general news feed posts
+        Event event = null;
         if (request.getEventId() != null) {
-            Event event = eventService.getEventById(request.getEventId());
-            post.setEvent(event);
-        } else {
-            post.setEvent(null);
+            event = eventService.getEventById(request.getEventId());
         }
+        post.setEvent(event);
         
-        User user = userService.getUserById(request.getUserId());
+        User user = userService.getUserById(currentUser.id());
         post.setUser(user);
         post.setContent(request.getContent());
         post.setImageUrl(request.getImageUrl());
         post.setCommentsCount(0);
         post.setLikesCount(0);
 
-        List<EventUserResponse> users = eventUserService.getUserbyEvent(request.getEventId());
-        for (EventUserResponse u : users) {
-            if (!u.getUserId().equals(request.getUserId())) {
-                notificationService.createAndSendNotification(
-                        u.getId(),
-                        "Có một bài viết mới trong sự kiện "
-                                + "<b>" + (request.getEventId() != null ? eventService.getEventById(request.getEventId()).getTitle() : "Chung") + "</b>",
-                        request.getEventId() != null ? "/events/" + request.getEventId() : "/news-feed");
-            }
+        Post savedPost = postRepository.save(post);
+
+        // Notify the other participants of the event in one bulk write
+        if (event != null) {
+            List<Long> recipients =
+                    eventUserRepository.findUserIdsByEventId(event.getId()).stream()
+                            .filter(id -> !id.equals(user.getId()))
+                            .toList();
+            notificationService.createAndSendNotifications(
+                    recipients,
+                    NotificationMessage.of(
+                            NotificationKind.EVENT_POST,
+                            user.getId(),
+                            event.getId(),
+                            "/events/" + event.getId()));
         }
 
-        return postRepository.save(post);
+        return savedPost;
     }
 
-    public void incLikeCount(Post post) {
-        post.setLikesCount(post.getLikesCount() + 1);
-        postRepository.save(post);
+    public void incLikeCount(Long postId) {
+        counterBuffer.add(Counter.POST_LIKES, postId, 1);
     }
 
-    public void decLikeCount(Post post) {
-        post.setLikesCount(post.getLikesCount() - 1);
-        postRepository.save(post);
+    public void decLikeCount(Long postId) {
+        counterBuffer.add(Counter.POST_LIKES, postId, -1);
     }
 
     public Post getPostById(Long postId) {
@@ -151,8 +133,7 @@ public class PostService {
         Post post = getPostById(postId);
 
         // Check if current user can modify this post
-        User currentUser = getCurrentUser();
-        if (!canModifyPost(post, currentUser)) {
+        if (!canModifyPost(post)) {
             throw new AccessDeniedException("You don't have permission to modify this post");
         }
 
@@ -166,48 +147,10 @@ public class PostService {
         Post post = getPostById(postId);
 
         // Check if current user can modify this post
-        User currentUser = getCurrentUser();
-        if (!canModifyPost(post, currentUser)) {
+        if (!canModifyPost(post)) {
             throw new AccessDeniedException("You don't have permission to delete this post");
         }
 
-        // Delete all comments and their likes for this post
-        List<Comment> comments = commentRepository.findByPost(post);
-        for (Comment comment : comments) {
-            // Delete likes on this comment
-            List<LikeComment> commentLikes = likeCommentRepository.findByComment(comment);
-            likeCommentRepository.deleteAll(commentLikes);
-
-            // Delete replies to this comment recursively
-            deleteCommentReplies(comment);
-        }
-
-        // Delete all parent comments
-        commentRepository.deleteAll(comments);
-
-        // Delete likes on post
-        List<LikePost> likePosts = likePostRepository.findByPost(post);
-        likePostRepository.deleteAll(likePosts);
-
-        // Delete the post
-        postRepository.delete(post);
-    }
-
-    /**
-     * Recursively delete all replies to a comment
-     */
-    private void deleteCommentReplies(Comment parentComment) {
-        List<Comment> replies = commentRepository.findByParentCommentOrderByCreatedAtDesc(parentComment);
-        for (Comment reply : replies) {
-            // Delete likes on reply
-            List<LikeComment> replyLikes = likeCommentRepository.findByComment(reply);
-            likeCommentRepository.deleteAll(replyLikes);
-
-            // Recursively delete sub-replies
-            deleteCommentReplies(reply);
-
-            // Delete the reply itself
-            commentRepository.delete(reply);
-        }
+        cascadeDeleteService.deletePost(postId);
     }
 }
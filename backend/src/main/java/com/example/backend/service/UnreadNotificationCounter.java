@@ -0,0 +1,66 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.NotificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unread notification count per user, loaded once with a COUNT query and then kept up to
+ * date as notifications are written and read.
+ *
+ * <p>Only counters already in memory are adjusted; an absent one is simply loaded on the
+ * next read. Entries expire after a while so any drift from a concurrent load is bounded.
+ */
+@Component
+@RequiredArgsConstructor
+public class UnreadNotificationCounter {
+
+    private final NotificationRepository notificationRepo;
+
+    @Value("${notifications.unread-count.max-size:50000}")
+    private long maxSize;
+
+    @Value("${notifications.unread-count.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    private Cache<Long, AtomicLong> counters;
+
+    @PostConstruct
+    public void init() {
+        counters =
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+                        .build();
+    }
+
+    public long get(Long userId) {
+        return counters.get(userId, id -> new AtomicLong(notificationRepo.countByUserIdAndIsReadFalse(id)))
+                .get();
+    }
+
+    public void increment(Long userId) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    public void decrement(Long userId) {
+        subtract(userId, 1);
+    }
+
+    public void subtract(Long userId, long delta) {
+        AtomicLong counter = counters.getIfPresent(userId);
+        if (counter != null) {
+            counter.updateAndGet(n -> Math.max(0, n - delta));
+        }
+    }
+}
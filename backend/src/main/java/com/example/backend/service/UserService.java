@@ -1,12 +1,15 @@
 package com.example.backend.service;
 
 import com.example.backend.model.Event;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
 import com.example.backend.model.Role;
 import com.example.backend.model.RoleName;
 import com.example.backend.model.User;
 import com.example.backend.repository.EventRepository;
 import com.example.backend.repository.RoleRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.security.UserStateRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +23,7 @@ public class UserService {
     private final RoleRepository roleRepository;
     private final NotificationService notificationService;
     private final EventRepository eventRepository;
+    private final UserStateRegistry userStateRegistry;
 
     public List<User> getAllUsers() {
         return userRepository.findAll();
@@ -57,13 +61,13 @@ public class UserService {
 
         existingUser.setRole(newRole);
         User savedUser = userRepository.save(existingUser);
+        userStateRegistry.remember(savedUser);
 
         // Notify user about role change
         if (oldRole == null || !oldRole.getName().equals(newRole.getName())) {
             notificationService.createAndSendNotification(
                     id,
-                    "[ROLE_CHANGED] Your role has been changed to <b>" + roleName.name() + "</b>. Please refresh to apply changes.",
-                    "/");
+                    NotificationMessage.of(NotificationKind.ROLE_CHANGED, null, newRole.getId(), "/"));
         }
 
         return savedUser;
@@ -81,7 +85,9 @@ public class UserService {
             User existingUser = userRepository.findById(id)
                     .orElseThrow(() -> new IllegalArgumentException("User with id " + id + " not found"));
             existingUser.setRole(role);
-            return userRepository.save(existingUser);
+            User savedUser = userRepository.save(existingUser);
+            userStateRegistry.remember(savedUser);
+            return savedUser;
         } catch (NumberFormatException e) {
             try {
                 RoleName rn = RoleName.valueOf(roleParam);
@@ -96,11 +102,14 @@ public class UserService {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("User with id " + id + " not found"));
         existingUser.setLocked(!existingUser.isLocked());
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        userStateRegistry.remember(savedUser);
+        return savedUser;
     }
 
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userStateRegistry.markDeleted(id);
     }
 
     public User getUserById(Long userId) {
@@ -0,0 +1,33 @@
+package com.example.backend.telemetry;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds JDBC execution time to the current request's DB phase.
+ * Registered per Hibernate session through hibernate.session.events.auto.
+ */
+public class DbTimingListener implements SessionEventListener {
+
+    private long statementStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestTimings.recordStatement(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        RequestTimings.recordStatement(System.nanoTime() - batchStart);
+    }
+}
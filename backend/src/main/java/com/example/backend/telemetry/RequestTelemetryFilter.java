@@ -0,0 +1,110 @@
+package com.example.backend.telemetry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every request by phase (auth, DB, serialization, total), records the timings as
+ * per-route histograms and writes a sampled structured log line.
+ *
+ * <p>The log line goes to the "request-telemetry" logger, which logback-spring.xml routes
+ * through a bounded, non-blocking async appender. Errors and slow requests are always logged.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestTelemetryFilter extends OncePerRequestFilter {
+
+    private static final Logger REQUEST_LOG = LoggerFactory.getLogger("request-telemetry");
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${telemetry.request-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${telemetry.request-log.slow-threshold-ms:1000}")
+    private long slowThresholdMs;
+
+    public RequestTelemetryFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long totalNanos = timings.finish();
+            try {
+                report(request, response, timings, totalNanos);
+            } finally {
+                RequestTimings.end();
+            }
+        }
+    }
+
+    private void report(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            RequestTimings timings,
+            long totalNanos) {
+
+        String route = routeOf(request);
+        String method = request.getMethod();
+        int status = response.getStatus();
+
+        record(route, method, "total", totalNanos);
+        for (RequestTimings.Phase phase : RequestTimings.Phase.values()) {
+            record(route, method, phase.name().toLowerCase(), timings.nanos(phase));
+        }
+
+        long totalMs = TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        boolean alwaysLog = status >= 500 || totalMs >= slowThresholdMs;
+        if (alwaysLog || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            REQUEST_LOG.info(
+                    "method={} route={} status={} total_ms={} auth_ms={} db_ms={} db_statements={} serialization_ms={}",
+                    method,
+                    route,
+                    status,
+                    totalMs,
+                    TimeUnit.NANOSECONDS.toMillis(timings.nanos(RequestTimings.Phase.AUTH)),
+                    TimeUnit.NANOSECONDS.toMillis(timings.nanos(RequestTimings.Phase.DB)),
+                    timings.dbStatements(),
+                    TimeUnit.NANOSECONDS.toMillis(timings.nanos(RequestTimings.Phase.SERIALIZATION)));
+        }
+    }
+
+    private void record(String route, String method, String phase, long nanos) {
+        Timer.builder("http.request.phase")
+                .description("Time spent per request phase")
+                .tags("route", route, "method", method, "phase", phase)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Use the matched pattern (/post/{postId}) rather than the raw URI to keep tags bounded
+    private static String routeOf(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNMATCHED";
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.backend.telemetry;
+
+/**
+ * Phase timings of the request being handled on the current thread.
+ *
+ * <p>RequestTelemetryFilter opens one per request; the auth filter, the Hibernate
+ * listener and the response body advice add to it without knowing about each other.
+ * Calls made outside a request are ignored.
+ */
+public final class RequestTimings {
+
+    public enum Phase {
+        AUTH,
+        DB,
+        SERIALIZATION
+    }
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private long serializationStart;
+    private int dbStatements;
+
+    private RequestTimings() {}
+
+    static RequestTimings begin() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void record(Phase phase, long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.phaseNanos[phase.ordinal()] += nanos;
+        }
+    }
+
+    static void recordStatement(long nanos) {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.phaseNanos[Phase.DB.ordinal()] += nanos;
+            timings.dbStatements++;
+        }
+    }
+
+    static void markSerializationStart() {
+        RequestTimings timings = CURRENT.get();
+        if (timings != null && timings.serializationStart == 0) {
+            timings.serializationStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * Close the serialization phase (if the body was written) and return the total time.
+     */
+    long finish() {
+        long now = System.nanoTime();
+        if (serializationStart != 0) {
+            phaseNanos[Phase.SERIALIZATION.ordinal()] += now - serializationStart;
+            serializationStart = 0;
+        }
+        return now - startNanos;
+    }
+
+    long nanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    int dbStatements() {
+        return dbStatements;
+    }
+}
@@ -0,0 +1,74 @@
+-- Runs after Hibernate's ddl-auto=update (spring.jpa.defer-datasource-initialization).
+-- Only changes ddl-auto cannot make on an existing schema belong here; keep every
+-- statement idempotent.
+
+-- Templated notifications store no content
+ALTER TABLE notifications ALTER COLUMN content DROP NOT NULL;
+
+-- Rows from before updated_at existed were never merged into after they were created
+UPDATE notifications SET updated_at = created_at WHERE updated_at IS NULL;
+
+-- Every actor of a coalesced notification, so its actor_count counts each actor once
+CREATE TABLE IF NOT EXISTS notification_actors (
+    notification_id BIGINT NOT NULL REFERENCES notifications (id) ON DELETE CASCADE,
+    actor_id        BIGINT NOT NULL,
+    PRIMARY KEY (notification_id, actor_id)
+);
+
+-- Retention: lets the job find old read rows without scanning unread ones
+CREATE INDEX IF NOT EXISTS idx_notifications_read_created
+    ON notifications (created_at) WHERE is_read = true;
+
+-- Archive of old read notifications, one partition per month (created by the retention job)
+CREATE TABLE IF NOT EXISTS notifications_archive (
+    id          BIGINT       NOT NULL,
+    user_id     BIGINT,
+    kind        VARCHAR(32),
+    actor_id    BIGINT,
+    entity_id   BIGINT,
+    content     TEXT,
+    link        VARCHAR(255),
+    is_read     BOOLEAN      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL,
+    actor_count INTEGER      NOT NULL DEFAULT 1,
+    actor_ids   VARCHAR(64),
+    updated_at  TIMESTAMP(6)
+) PARTITION BY RANGE (created_at);
+
+ALTER TABLE notifications_archive ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6);
+
+CREATE TABLE IF NOT EXISTS notifications_archive_default
+    PARTITION OF notifications_archive DEFAULT;
+
+CREATE INDEX IF NOT EXISTS idx_notifications_archive_user_created
+    ON notifications_archive (user_id, created_at);
+
+-- One like per user and target, required by the ON CONFLICT like inserts. Duplicates left
+-- by the old check-then-insert toggle are removed once, before the index first exists.
+DELETE FROM like_posts a USING like_posts b
+WHERE to_regclass('uk_like_posts_user_post') IS NULL
+  AND a.user_id = b.user_id AND a.post_id = b.post_id AND a.id > b.id;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_like_posts_user_post ON like_posts (user_id, post_id);
+
+DELETE FROM like_comments a USING like_comments b
+WHERE to_regclass('uk_like_comments_user_comment') IS NULL
+  AND a.user_id = b.user_id AND a.comment_id = b.comment_id AND a.id > b.id;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_like_comments_user_comment
+    ON like_comments (user_id, comment_id);
+
+-- Comment subtrees are path prefixes (Comment.path); text_pattern_ops lets LIKE 'prefix%'
+-- use the index whatever the database collation
+CREATE INDEX IF NOT EXISTS idx_comments_path ON comments (path text_pattern_ops);
+
+-- Backfill path and root_id for comments written before they existed
+WITH RECURSIVE tree AS (
+    SELECT id, id AS root_id, id || '/' AS path
+    FROM comments
+    WHERE parent_id IS NULL AND path IS NULL
+    UNION ALL
+    SELECT c.id, t.root_id, t.path || c.id || '/'
+    FROM comments c JOIN tree t ON c.parent_id = t.id
+)
+UPDATE comments c SET path = tree.path, root_id = tree.root_id
+FROM tree
+WHERE c.id = tree.id;
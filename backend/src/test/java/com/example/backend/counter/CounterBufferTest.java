@@ -0,0 +1,312 @@
+package com.example.backend.counter;
+
+import com.example.backend.counter.CounterBuffer.Counter;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class CounterBufferTest {
+
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private CounterBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        // No init(): tests flush by hand instead of on the schedule
+        buffer = new CounterBuffer(postRepository, commentRepository);
+        ReflectionTestUtils.setField(buffer, "idleFlushes", 2);
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void buffersChangesUntilFlushedOneStatementPerCounter() {
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.add(Counter.POST_LIKES, 2L, 1);
+        buffer.add(Counter.COMMENT_REPLIES, 5L, 1);
+        buffer.add(Counter.COMMENT_LIKES, 5L, -1);
+
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isEqualTo(2);
+        verifyNoInteractions(postRepository, commentRepository);
+
+        buffer.flush();
+
+        verify(postRepository).addLikes(Map.of(1L, 2L, 2L, 1L));
+        verify(commentRepository).addReplies(Map.of(5L, 1L));
+        verify(commentRepository).addLikes(Map.of(5L, -1L));
+        verify(postRepository, never()).addComments(any());
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isZero();
+    }
+
+    @Test
+    void flushWithNothingPendingWritesNothing() {
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.add(Counter.POST_LIKES, 1L, -1);
+
+        buffer.flush();
+
+        verifyNoInteractions(postRepository, commentRepository);
+    }
+
+    @Test
+    void changesInsideATransactionCountOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.add(Counter.POST_COMMENTS, 1L, 1);
+        assertThat(buffer.pending(Counter.POST_COMMENTS, 1L)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(TransactionSynchronization::afterCommit);
+        assertThat(buffer.pending(Counter.POST_COMMENTS, 1L)).isEqualTo(1);
+    }
+
+    @Test
+    void changesOfARolledBackTransactionAreDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        buffer.add(Counter.POST_COMMENTS, 1L, 1);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        buffer.flush();
+
+        assertThat(buffer.pending(Counter.POST_COMMENTS, 1L)).isZero();
+        verifyNoInteractions(postRepository);
+    }
+
+    @Test
+    void failedFlushPutsDeltasBackForTheNextOne() {
+        doThrow(new RuntimeException("connection refused"))
+                .doNothing()
+                .when(postRepository)
+                .addLikes(any());
+        buffer.add(Counter.POST_LIKES, 1L, 3);
+
+        buffer.flush();
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isEqualTo(3);
+
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.flush();
+        verify(postRepository).addLikes(Map.of(1L, 4L));
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isZero();
+    }
+
+    @Test
+    void withPendingAddsTheDeltaAndNeverGoesNegative() {
+        buffer.add(Counter.POST_LIKES, 1L, 2);
+        buffer.add(Counter.POST_LIKES, 2L, -3);
+
+        assertThat(buffer.withPending(null, Counter.POST_LIKES, 1L)).isEqualTo(2);
+        assertThat(buffer.withPending(5, Counter.POST_LIKES, 1L)).isEqualTo(7);
+        assertThat(buffer.withPending(1, Counter.POST_LIKES, 2L)).isZero();
+        assertThat(buffer.withPending(null, Counter.POST_LIKES, 3L)).isNull();
+    }
+
+    @Test
+    void idleEntriesAreRetiredAndLaterChangesStillCount() {
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.flush();
+        buffer.flush();
+        buffer.flush();
+        assertThat(deltas()).isEmpty();
+
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isEqualTo(1);
+        buffer.flush();
+        verify(postRepository, times(2)).addLikes(Map.of(1L, 1L));
+    }
+
+    @Test
+    void recountDropsTheDeltasOfItsRangeOnly() {
+        buffer.add(Counter.POST_LIKES, 1L, 2);
+        buffer.add(Counter.POST_LIKES, 5L, 1);
+        buffer.add(Counter.POST_COMMENTS, 2L, 1);
+        buffer.add(Counter.COMMENT_LIKES, 2L, 4);
+
+        int corrected =
+                buffer.recount(Set.of(Counter.POST_LIKES, Counter.POST_COMMENTS), 0, 4, () -> 7);
+
+        assertThat(corrected).isEqualTo(7);
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isZero();
+        assertThat(buffer.pending(Counter.POST_COMMENTS, 2L)).isZero();
+        assertThat(buffer.pending(Counter.POST_LIKES, 5L)).isEqualTo(1);
+        assertThat(buffer.pending(Counter.COMMENT_LIKES, 2L)).isEqualTo(4);
+
+        buffer.flush();
+
+        verify(postRepository).addLikes(Map.of(5L, 1L));
+        verify(commentRepository).addLikes(Map.of(2L, 4L));
+        verify(postRepository, never()).addComments(any());
+    }
+
+    @Test
+    void changesCommittedAfterARecountAreStillFlushed() {
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.recount(Set.of(Counter.POST_LIKES), 0, 1, () -> 1);
+
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        buffer.flush();
+
+        verify(postRepository).addLikes(Map.of(1L, 1L));
+    }
+
+    @Test
+    void failedRecountPutsTheDeltasBack() {
+        buffer.add(Counter.POST_LIKES, 1L, 3);
+
+        assertThatThrownBy(
+                        () ->
+                                buffer.recount(
+                                        Set.of(Counter.POST_LIKES),
+                                        0,
+                                        1,
+                                        () -> {
+                                            throw new IllegalStateException("deadlock detected");
+                                        }))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(buffer.pending(Counter.POST_LIKES, 1L)).isEqualTo(3);
+    }
+
+    @Test
+    void recountHoldsOffFlushes() throws Exception {
+        buffer.add(Counter.POST_LIKES, 1L, 1);
+        CountDownLatch recounting = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> recount =
+                    pool.submit(
+                            () ->
+                                    buffer.recount(
+                                            Set.of(Counter.POST_LIKES),
+                                            0,
+                                            1,
+                                            () -> {
+                                                recounting.countDown();
+                                                try {
+                                                    finish.await(5, TimeUnit.SECONDS);
+                                                } catch (InterruptedException e) {
+                                                    Thread.currentThread().interrupt();
+                                                }
+                                                return 1;
+                                            }));
+            recounting.await(5, TimeUnit.SECONDS);
+            // Committed after the drain; must wait for the recount rather than flush mid-way
+            buffer.add(Counter.POST_LIKES, 1L, 1);
+            Future<?> flush = pool.submit(buffer::flush);
+            Thread.sleep(100);
+            assertThat(flush.isDone()).isFalse();
+
+            finish.countDown();
+            recount.get(5, TimeUnit.SECONDS);
+            flush.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(postRepository, times(1)).addLikes(Map.of(1L, 1L));
+    }
+
+    @Test
+    void concurrentAddsRacingFlushesAndRetirementAreNeverLost() throws Exception {
+        // Retire a cell the first time a flush finds it empty, the most racy setting
+        ReflectionTestUtils.setField(buffer, "idleFlushes", 1);
+        Map<Long, Long> written = new ConcurrentHashMap<>();
+        doAnswer(
+                        invocation -> {
+                            Map<Long, Long> byId = invocation.getArgument(0);
+                            byId.forEach((id, delta) -> written.merge(id, delta, Long::sum));
+                            return null;
+                        })
+                .when(postRepository)
+                .addLikes(any());
+
+        int writers = 8;
+        int addsPerWriter = 20_000;
+        long ids = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 1);
+        try {
+            Future<?> flusher =
+                    pool.submit(
+                            () -> {
+                                start.await();
+                                while (writing.get()) {
+                                    buffer.flush();
+                                }
+                                return null;
+                            });
+            List<Future<?>> adds = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                adds.add(
+                        pool.submit(
+                                () -> {
+                                    start.await();
+                                    for (int i = 0; i < addsPerWriter; i++) {
+                                        buffer.add(Counter.POST_LIKES, 1 + i % ids, 1);
+                                        if (i % 1000 == 0) {
+                                            // Let cells go idle now and then so they get retired
+                                            Thread.sleep(1);
+                                        }
+                                    }
+                                    return null;
+                                }));
+            }
+            start.countDown();
+            for (Future<?> add : adds) {
+                add.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        buffer.flush();
+
+        long expectedPerId = (long) writers * addsPerWriter / ids;
+        for (long id = 1; id <= ids; id++) {
+            assertThat(written.get(id)).as("likes of post %d", id).isEqualTo(expectedPerId);
+            assertThat(buffer.pending(Counter.POST_LIKES, id)).isZero();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Object> deltas() {
+        return (Map<Object, Object>) ReflectionTestUtils.getField(buffer, "deltas");
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.backend.counter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CounterCellTest {
+
+    private final CounterCell cell = new CounterCell();
+
+    @Test
+    void sumsAndDrainsWhatWasAdded() {
+        cell.add(3);
+        cell.add(-1);
+
+        assertThat(cell.sum()).isEqualTo(2);
+        assertThat(cell.drain()).isEqualTo(2);
+        assertThat(cell.sum()).isZero();
+    }
+
+    @Test
+    void aRetiredCellRefusesAddsAndHandsBackItsRemainder() {
+        cell.add(4);
+
+        assertThat(cell.retire()).isEqualTo(4);
+        assertThat(cell.add(1)).isFalse();
+        assertThat(cell.sum()).isZero();
+    }
+
+    @Test
+    void concurrentWritersLoseNoAdds() throws Exception {
+        int writers = 8;
+        int addsPerWriter = 50_000;
+
+        run(
+                writers,
+                () -> {
+                    for (int i = 0; i < addsPerWriter; i++) {
+                        cell.add(1);
+                    }
+                    return null;
+                });
+
+        assertThat(cell.sum()).isEqualTo((long) writers * addsPerWriter);
+        assertThat(cell.drain()).isEqualTo((long) writers * addsPerWriter);
+    }
+
+    @Test
+    void everyAcceptedAddIsDrainedOrReturnedByRetire() throws Exception {
+        int writers = 8;
+        CountDownLatch halfway = new CountDownLatch(writers);
+
+        // Writers count the adds the cell accepted; the flusher drains, then retires mid-way
+        List<Long> accepted =
+                run(
+                        writers,
+                        () -> {
+                            long sum = 0;
+                            for (int i = 0; i < 100_000; i++) {
+                                if (i == 50_000) {
+                                    halfway.countDown();
+                                }
+                                if (!cell.add(1)) {
+                                    break;
+                                }
+                                sum++;
+                            }
+                            return sum;
+                        },
+                        () -> {
+                            halfway.await();
+                            return cell.drain() + cell.retire();
+                        });
+
+        long flushed = accepted.remove(accepted.size() - 1);
+        assertThat(accepted.stream().mapToLong(Long::longValue).sum()).isEqualTo(flushed);
+        assertThat(cell.add(1)).isFalse();
+    }
+
+    // Runs the writers and the others together, released at the same moment
+    @SafeVarargs
+    private static <T> List<T> run(int writers, Callable<T> writer, Callable<T>... others)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers + others.length);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int w = 0; w < writers + others.length; w++) {
+                Callable<T> task = w < writers ? writer : others[w - writers];
+                futures.add(
+                        pool.submit(
+                                () -> {
+                                    start.await();
+                                    return task.call();
+                                }));
+            }
+            start.countDown();
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get(30, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
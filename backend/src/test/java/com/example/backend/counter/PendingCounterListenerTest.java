@@ -0,0 +1,86 @@
+package com.example.backend.counter;
+
+import com.example.backend.counter.CounterBuffer.Counter;
+import com.example.backend.model.Comment;
+import com.example.backend.model.Post;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostRepository;
+import jakarta.persistence.EntityListeners;
+import jakarta.persistence.PostLoad;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class PendingCounterListenerTest {
+
+    private final CounterBuffer buffer =
+            new CounterBuffer(mock(PostRepository.class), mock(CommentRepository.class));
+    private final PendingCounterListener listener = new PendingCounterListener(buffer);
+
+    @Test
+    void runsOnPostLoadForPostsAndComments() throws Exception {
+        assertThat(PendingCounterListener.class.getMethod("applyPending", Object.class))
+                .matches(method -> method.isAnnotationPresent(PostLoad.class));
+        assertThat(Post.class.getAnnotation(EntityListeners.class).value())
+                .contains(PendingCounterListener.class);
+        assertThat(Comment.class.getAnnotation(EntityListeners.class).value())
+                .contains(PendingCounterListener.class);
+    }
+
+    @Test
+    void addsPendingDeltasToALoadedPost() {
+        buffer.add(Counter.POST_LIKES, 1L, 2);
+        buffer.add(Counter.POST_COMMENTS, 1L, 1);
+        buffer.add(Counter.POST_LIKES, 2L, 5);
+        Post post = new Post();
+        post.setId(1L);
+        post.setLikesCount(10);
+
+        listener.applyPending(post);
+
+        assertThat(post.getLikesCount()).isEqualTo(12);
+        assertThat(post.getCommentsCount()).isEqualTo(1);
+    }
+
+    @Test
+    void addsPendingDeltasToALoadedComment() {
+        buffer.add(Counter.COMMENT_LIKES, 7L, -1);
+        buffer.add(Counter.COMMENT_REPLIES, 7L, 3);
+        Comment comment = new Comment();
+        comment.setId(7L);
+        comment.setLikesCount(4);
+        comment.setRepliesCount(0);
+
+        listener.applyPending(comment);
+
+        assertThat(comment.getLikesCount()).isEqualTo(3);
+        assertThat(comment.getRepliesCount()).isEqualTo(3);
+    }
+
+    @Test
+    void leavesCountersAloneWhenNothingIsPending() {
+        Post post = new Post();
+        post.setId(1L);
+        post.setLikesCount(10);
+
+        listener.applyPending(post);
+
+        assertThat(post.getLikesCount()).isEqualTo(10);
+        assertThat(post.getCommentsCount()).isNull();
+    }
+
+    @Test
+    void flushedDeltasAreNotAddedTwice() {
+        buffer.add(Counter.POST_LIKES, 1L, 2);
+        buffer.flush();
+        Post post = new Post();
+        post.setId(1L);
+        // As reloaded after the flush wrote the two likes
+        post.setLikesCount(12);
+
+        listener.applyPending(post);
+
+        assertThat(post.getLikesCount()).isEqualTo(12);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.backend.exception;
+
+import com.example.backend.dto.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    void aClientErrorKeepsItsStatusAndPlainMessage() {
+        ResponseEntity<ApiResponse> response =
+                handler.handleAppException(new AppException("ACCOUNT_LOCKED", HttpStatus.FORBIDDEN));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(response.getBody().getMessage()).isEqualTo("ACCOUNT_LOCKED");
+    }
+
+    @Test
+    void aServerErrorIsPrefixed() {
+        ResponseEntity<ApiResponse> response =
+                handler.handleAppException(new AppException("boom", HttpStatus.SERVICE_UNAVAILABLE));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody().getMessage()).isEqualTo("Lỗi Server (503): boom");
+    }
+
+    @Test
+    void anExceptionWithoutAStatusIsAServerError() {
+        ResponseEntity<ApiResponse> response = handler.handleAppException(new AppException("boom", null));
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(response.getBody().getMessage()).isEqualTo("Lỗi Server (500): boom");
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.backend.push;
+
+import com.example.backend.model.PushSubscription;
+import com.example.backend.repository.PushSubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nl.martijndwars.webpush.Encoding;
+import nl.martijndwars.webpush.Notification;
+import nl.martijndwars.webpush.PushService;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.security.Security;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.backend.support.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the sender against a local http:// push service. The client asks for HTTP/2 and,
+ * as with any origin that does not upgrade to h2c, falls back to HTTP/1.1.
+ */
+class Http2PushSenderTest {
+
+    // Stands in for the aes128gcm record PushService would produce
+    private static final byte[] ENCRYPTED = "encrypted".getBytes(StandardCharsets.UTF_8);
+
+    private final PushService pushService = mock(PushService.class);
+    private final PushSubscriptionRepository subscriptionRepo = mock(PushSubscriptionRepository.class);
+    private final PushSubscriptionCache subscriptionCache = mock(PushSubscriptionCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StubPushServer origin;
+    private Http2PushSender sender;
+
+    @BeforeAll
+    static void registerBouncyCastle() {
+        // The library decodes subscription keys through BC; in the app WebPushConfig adds it
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = new StubPushServer();
+        when(pushService.preparePost(any(Notification.class), eq(Encoding.AES128GCM)))
+                .thenAnswer(
+                        invocation -> {
+                            Notification notification = invocation.getArgument(0);
+                            HttpPost post = new HttpPost(notification.getEndpoint());
+                            post.addHeader("TTL", "2419200");
+                            post.addHeader("Content-Encoding", "aes128gcm");
+                            post.addHeader("Content-Type", "application/octet-stream");
+                            post.addHeader("Authorization", "vapid t=token, k=key");
+                            // Set by the client itself; copying it would make the request invalid
+                            post.addHeader("Content-Length", String.valueOf(ENCRYPTED.length));
+                            post.setEntity(new ByteArrayEntity(ENCRYPTED));
+                            return post;
+                        });
+
+        sender = new Http2PushSender(pushService);
+        ReflectionTestUtils.setField(sender, "connectTimeoutMs", 1000L);
+        ReflectionTestUtils.setField(sender, "requestTimeoutMs", 5000L);
+        sender.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        origin.close();
+    }
+
+    @Test
+    void sendsThePreparedRequest() throws Exception {
+        int status = sender.send(origin.subscription("/push/abc"), "hello").get(5, TimeUnit.SECONDS);
+
+        assertThat(status).isEqualTo(201);
+        StubPushServer.Received request = origin.received().get(0);
+        assertThat(request.path()).isEqualTo("/push/abc");
+        assertThat(request.body()).isEqualTo(ENCRYPTED);
+        assertThat(request.headers().getFirst("TTL")).isEqualTo("2419200");
+        assertThat(request.headers().getFirst("Content-Encoding")).isEqualTo("aes128gcm");
+        assertThat(request.headers().getFirst("Authorization")).isEqualTo("vapid t=token, k=key");
+        assertThat(request.headers().getFirst("Content-Length"))
+                .isEqualTo(String.valueOf(ENCRYPTED.length));
+    }
+
+    @Test
+    void completesWithThePushServiceStatus() throws Exception {
+        for (int status : List.of(201, 404, 410, 429, 500, 503)) {
+            origin.respond("/" + status, status);
+
+            assertThat(sender.send(origin.subscription("/" + status), "hello").get(5, TimeUnit.SECONDS))
+                    .isEqualTo(status);
+        }
+    }
+
+    @Test
+    void completesExceptionallyWhenTheOriginIsUnreachable() throws Exception {
+        PushSubscription subscription = origin.subscription("/push");
+        try (ServerSocket socket = new ServerSocket(0)) {
+            subscription.setEndpoint("http://127.0.0.1:" + socket.getLocalPort() + "/push");
+        }
+
+        assertThatThrownBy(() -> sender.send(subscription, "hello").get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void dispatcherClassifiesStatusesAndPrunesExpiredSubscriptionsInOneBatch() throws Exception {
+        PushDispatcher dispatcher =
+                new PushDispatcher(sender, subscriptionRepo, subscriptionCache, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "perOriginConcurrency", 4);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "baseBackoffMs", 20L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 50L);
+        ReflectionTestUtils.setField(dispatcher, "drainTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "pruneIntervalMs", 60_000L);
+        dispatcher.init();
+
+        origin.respond("/not-found", 404)
+                .respond("/gone", 410)
+                .respond("/throttled", 429)
+                .respond("/unavailable", 503)
+                .respond("/bad-request", 400);
+        PushSubscription notFound = origin.subscription("/not-found");
+        PushSubscription gone = origin.subscription("/gone");
+        for (PushSubscription subscription :
+                List.of(
+                        origin.subscription("/created"),
+                        notFound,
+                        gone,
+                        origin.subscription("/throttled"),
+                        origin.subscription("/unavailable"),
+                        origin.subscription("/bad-request"))) {
+            dispatcher.dispatch(subscription, "hello");
+        }
+
+        await(() -> count("sent") == 3 && count("expired") == 2 && count("rejected") == 1);
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(origin.received("/not-found")).isEqualTo(1);
+        assertThat(origin.received("/gone")).isEqualTo(1);
+        assertThat(origin.received("/bad-request")).isEqualTo(1);
+
+        dispatcher.shutdown();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass((Class) Iterable.class);
+        verify(subscriptionRepo, times(1)).deleteAllByIdInBatch(ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(notFound.getId(), gone.getId());
+        verify(subscriptionCache).invalidate(notFound.getUserId());
+        verify(subscriptionCache).invalidate(gone.getUserId());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("push.dispatch", "outcome", outcome).count();
+    }
+}
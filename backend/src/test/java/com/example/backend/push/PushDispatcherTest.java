@@ -0,0 +1,222 @@
+package com.example.backend.push;
+
+import com.example.backend.repository.PushSubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.backend.support.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class PushDispatcherTest {
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    // Posts the plain payload to the subscription's endpoint; encryption is Http2PushSender's job
+    private final PushSender plainSender =
+            (subscription, payload) ->
+                    client.sendAsync(
+                                    HttpRequest.newBuilder(URI.create(subscription.getEndpoint()))
+                                            .POST(HttpRequest.BodyPublishers.ofString(payload))
+                                            .build(),
+                                    HttpResponse.BodyHandlers.discarding())
+                            .thenApply(HttpResponse::statusCode);
+
+    private final PushSubscriptionRepository subscriptionRepo = mock(PushSubscriptionRepository.class);
+    private final PushSubscriptionCache subscriptionCache = mock(PushSubscriptionCache.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private StubPushServer origin;
+    private StubPushServer otherOrigin;
+    private PushDispatcher dispatcher;
+    private volatile boolean stopped;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        origin = new StubPushServer();
+        otherOrigin = new StubPushServer();
+        dispatcher = newDispatcher(plainSender);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        origin.close();
+        otherOrigin.close();
+        if (!stopped) {
+            shutdown();
+        }
+    }
+
+    private PushDispatcher newDispatcher(PushSender sender) {
+        PushDispatcher dispatcher =
+                new PushDispatcher(sender, subscriptionRepo, subscriptionCache, meterRegistry);
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 100);
+        ReflectionTestUtils.setField(dispatcher, "perOriginConcurrency", 2);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "baseBackoffMs", 20L);
+        ReflectionTestUtils.setField(dispatcher, "maxBackoffMs", 50L);
+        ReflectionTestUtils.setField(dispatcher, "drainTimeoutMs", 5000L);
+        // Only the shutdown drain prunes, so tests can see exactly one batch
+        ReflectionTestUtils.setField(dispatcher, "pruneIntervalMs", 60_000L);
+        return dispatcher;
+    }
+
+    @Test
+    void limitsConcurrentRequestsPerOrigin() throws Exception {
+        dispatcher.init();
+        origin.hold();
+        for (int i = 0; i < 6; i++) {
+            dispatcher.dispatch(origin.subscription("/slow"), "hi");
+        }
+        await(() -> origin.inFlight() == 2);
+
+        // A saturated origin does not hold up another one
+        dispatcher.dispatch(otherOrigin.subscription("/fast"), "hi");
+        await(() -> count("sent") == 1);
+        assertThat(origin.inFlight()).isEqualTo(2);
+
+        origin.release();
+        await(() -> count("sent") == 7);
+        assertThat(origin.maxInFlight()).isEqualTo(2);
+        assertThat(origin.received("/slow")).isEqualTo(6);
+    }
+
+    @Test
+    void retriesThrottledAndFailedSendsWithBackoff() throws Exception {
+        dispatcher.init();
+        origin.respond("/flaky", 429, 503);
+
+        dispatcher.dispatch(origin.subscription("/flaky"), "hi");
+
+        await(() -> count("sent") == 1);
+        assertThat(origin.received("/flaky")).isEqualTo(3);
+        assertThat(count("retried")).isEqualTo(2);
+    }
+
+    @Test
+    void retriesIoErrors() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        PushSender failingOnce =
+                (sub, payload) ->
+                        calls.getAndIncrement() == 0
+                                ? CompletableFuture.failedFuture(new IOException("Connection reset"))
+                                : plainSender.send(sub, payload);
+        dispatcher = newDispatcher(failingOnce);
+        dispatcher.init();
+
+        dispatcher.dispatch(origin.subscription("/a"), "hi");
+
+        await(() -> count("sent") == 1);
+        assertThat(count("retried")).isEqualTo(1);
+        assertThat(origin.received("/a")).isEqualTo(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() throws Exception {
+        dispatcher.init();
+        origin.respond("/broken", 500, 502, 503, 504);
+
+        dispatcher.dispatch(origin.subscription("/broken"), "hi");
+
+        await(() -> count("failed") == 1);
+        assertThat(origin.received("/broken")).isEqualTo(3);
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(count("sent")).isZero();
+    }
+
+    @Test
+    void dropsMessagesBeyondQueueCapacity() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "queueCapacity", 3);
+        dispatcher.init();
+        origin.hold();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(dispatcher.dispatch(origin.subscription("/a"), "hi")).isTrue();
+        }
+        assertThat(dispatcher.dispatch(origin.subscription("/a"), "hi")).isFalse();
+        assertThat(count("dropped")).isEqualTo(1);
+
+        // Finished messages give their slot back
+        origin.release();
+        await(() -> count("sent") == 3);
+        assertThat(dispatcher.dispatch(origin.subscription("/a"), "hi")).isTrue();
+        await(() -> count("sent") == 4);
+    }
+
+    @Test
+    void shutdownDrainsPendingMessagesAndRefusesNewOnes() throws Exception {
+        dispatcher.init();
+        origin.hold();
+        dispatcher.dispatch(origin.subscription("/a"), "hi");
+        dispatcher.dispatch(origin.subscription("/a"), "hi");
+        await(() -> origin.inFlight() == 2);
+
+        CompletableFuture<Void> draining =
+                CompletableFuture.runAsync(
+                        () -> {
+                            try {
+                                shutdown();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        await(() -> !(boolean) ReflectionTestUtils.getField(dispatcher, "accepting"));
+        assertThat(dispatcher.dispatch(origin.subscription("/a"), "late")).isFalse();
+        assertThat(draining).isNotDone();
+
+        origin.release();
+        draining.get(5, TimeUnit.SECONDS);
+        assertThat(count("sent")).isEqualTo(2);
+        assertThat(origin.received("/a")).isEqualTo(2);
+    }
+
+    @Test
+    void shutdownGivesUpAfterTheDrainTimeout() throws Exception {
+        ReflectionTestUtils.setField(dispatcher, "drainTimeoutMs", 100L);
+        dispatcher.init();
+        origin.hold();
+        dispatcher.dispatch(origin.subscription("/a"), "hi");
+        await(() -> origin.inFlight() == 1);
+
+        long start = System.nanoTime();
+        shutdown();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        assertThat(count("sent")).isZero();
+    }
+
+    @Test
+    void prunesNothingWhenNoSubscriptionExpired() throws Exception {
+        dispatcher.init();
+        dispatcher.dispatch(origin.subscription("/a"), "hi");
+        await(() -> count("sent") == 1);
+
+        shutdown();
+
+        verify(subscriptionRepo, never()).deleteAllByIdInBatch(any());
+    }
+
+    private void shutdown() throws InterruptedException {
+        stopped = true;
+        dispatcher.shutdown();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.counter("push.dispatch", "outcome", outcome).count();
+    }
+}
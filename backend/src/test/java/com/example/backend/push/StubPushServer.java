@@ -0,0 +1,157 @@
+package com.example.backend.push;
+
+import com.example.backend.model.PushSubscription;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayDeque;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A push service origin on localhost. Each path answers with its scripted statuses in
+ * order, then 201 once the script is used up. {@link #hold()} keeps requests in flight
+ * until {@link #release()}, so tests can observe concurrency and pending work.
+ * Subscriptions carry a real P-256 public key and auth secret, so the payload can be
+ * encrypted for them as it would be for a browser.
+ */
+class StubPushServer implements AutoCloseable {
+
+    record Received(String path, Headers headers, byte[] body) {}
+
+    private static final AtomicLong IDS = new AtomicLong();
+    private static final String P256DH;
+    private static final String AUTH;
+
+    static {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            ECPublicKey key = (ECPublicKey) generator.generateKeyPair().getPublic();
+            // Uncompressed point, as browsers hand it out: 0x04 || X || Y
+            byte[] point = new byte[65];
+            point[0] = 0x04;
+            copyCoordinate(key.getW().getAffineX().toByteArray(), point, 1);
+            copyCoordinate(key.getW().getAffineY().toByteArray(), point, 33);
+            byte[] auth = new byte[16];
+            new SecureRandom().nextBytes(auth);
+            P256DH = Base64.getUrlEncoder().withoutPadding().encodeToString(point);
+            AUTH = Base64.getUrlEncoder().withoutPadding().encodeToString(auth);
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newCachedThreadPool();
+    private final Map<String, Queue<Integer>> scripts = new ConcurrentHashMap<>();
+    private final List<Received> received = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile CountDownLatch gate = new CountDownLatch(0);
+
+    StubPushServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        // One thread per request, so held requests do not queue behind each other
+        server.setExecutor(handlers);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * Answer the given statuses to successive requests on the path.
+     */
+    synchronized StubPushServer respond(String path, Integer... statuses) {
+        scripts.computeIfAbsent(path, p -> new ArrayDeque<>()).addAll(List.of(statuses));
+        return this;
+    }
+
+    void hold() {
+        gate = new CountDownLatch(1);
+    }
+
+    void release() {
+        gate.countDown();
+    }
+
+    PushSubscription subscription(String path) {
+        PushSubscription subscription = new PushSubscription();
+        subscription.setId(IDS.incrementAndGet());
+        subscription.setUserId(100 + subscription.getId());
+        subscription.setEndpoint(
+                "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+        subscription.setP256dh(P256DH);
+        subscription.setAuth(AUTH);
+        return subscription;
+    }
+
+    List<Received> received() {
+        return received;
+    }
+
+    long received(String path) {
+        return received.stream().filter(r -> r.path().equals(path)).count();
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    int maxInFlight() {
+        return maxInFlight.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int now = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(now, Math::max);
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            received.add(
+                    new Received(path, exchange.getRequestHeaders(), exchange.getRequestBody().readAllBytes()));
+            gate.await(10, TimeUnit.SECONDS);
+
+            Queue<Integer> script = scripts.get(path);
+            Integer status;
+            synchronized (this) {
+                status = script == null ? null : script.poll();
+            }
+            // Leave the count before answering: the client may send its next request at once
+            inFlight.decrementAndGet();
+            exchange.sendResponseHeaders(status == null ? 201 : status, -1);
+        } catch (InterruptedException e) {
+            inFlight.decrementAndGet();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // BigInteger bytes are minimal and may carry a sign byte; coordinates are 32 bytes
+    private static void copyCoordinate(byte[] value, byte[] point, int offset) {
+        int length = Math.min(value.length, 32);
+        System.arraycopy(value, value.length - length, point, offset + 32 - length, length);
+    }
+
+    @Override
+    public void close() {
+        release();
+        server.stop(0);
+        handlers.shutdownNow();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.backend.repository;
+
+import com.example.backend.repository.CommentThreadOperations.ThreadRow;
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CommentThreadOperationsTest extends PostgresTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long author;
+    private Long post;
+    private int minute;
+
+    // root1, root2, root3 (newest)
+    //   root3 <- reply1, reply2, reply3 (newest)
+    //     reply3 <- nested1, nested2
+    //       nested1 <- deepest
+    private Long root1;
+    private Long root2;
+    private Long root3;
+    private Long reply1;
+    private Long reply2;
+    private Long reply3;
+    private Long nested1;
+    private Long nested2;
+    private Long deepest;
+
+    @BeforeEach
+    void setUp() {
+        author = user("author").getId();
+        post =
+                jdbcTemplate.queryForObject(
+                        "INSERT INTO posts (user_id, content, likes_count, comments_count, created_at)"
+                                + " VALUES (?, 'post', 0, 0, now()) RETURNING id",
+                        Long.class,
+                        author);
+        root1 = comment(null);
+        root2 = comment(null);
+        root3 = comment(null);
+        reply1 = comment(root3);
+        reply2 = comment(root3);
+        reply3 = comment(root3);
+        nested1 = comment(reply3);
+        nested2 = comment(reply3);
+        deepest = comment(nested1);
+    }
+
+    @Test
+    void walksTheWholeTreeWithinTheLimits() {
+        Map<Long, ThreadRow> rows = byId(commentRepository.findThread(post, null, null, 10, 10, 10));
+
+        assertThat(rows.keySet())
+                .containsExactlyInAnyOrder(root1, root2, root3, reply1, reply2, reply3, nested1, nested2, deepest);
+        assertThat(rows.get(root3).depth()).isEqualTo(1);
+        assertThat(rows.get(root3).parentId()).isNull();
+        assertThat(rows.get(reply3).depth()).isEqualTo(2);
+        assertThat(rows.get(nested1).depth()).isEqualTo(3);
+        assertThat(rows.get(deepest).depth()).isEqualTo(4);
+        assertThat(rows.get(deepest).parentId()).isEqualTo(nested1);
+        assertThat(rows.get(deepest).username()).isEqualTo("author");
+    }
+
+    @Test
+    void stopsAtTheMaximumDepth() {
+        Map<Long, ThreadRow> rows = byId(commentRepository.findThread(post, null, null, 10, 10, 3));
+
+        assertThat(rows).doesNotContainKey(deepest).containsKeys(nested1, nested2);
+        assertThat(byId(commentRepository.findThread(post, null, null, 10, 10, 1)).keySet())
+                .containsExactlyInAnyOrder(root1, root2, root3);
+    }
+
+    @Test
+    void takesTheNewestRepliesOfEachComment() {
+        Map<Long, ThreadRow> rows = byId(commentRepository.findThread(post, null, null, 10, 2, 10));
+
+        // root3 keeps its two newest replies; reply3 keeps both of its own
+        assertThat(rows.keySet())
+                .containsExactlyInAnyOrder(root1, root2, root3, reply2, reply3, nested1, nested2, deepest);
+
+        rows = byId(commentRepository.findThread(post, null, null, 10, 1, 10));
+        assertThat(rows.keySet()).containsExactlyInAnyOrder(root1, root2, root3, reply3, nested2);
+    }
+
+    @Test
+    void pagesTheTopLevelComments() {
+        Map<Long, ThreadRow> first = byId(commentRepository.findThread(post, null, null, 2, 0, 10));
+        assertThat(first.keySet()).containsExactlyInAnyOrder(root3, root2);
+
+        ThreadRow last = first.get(root2);
+        Map<Long, ThreadRow> next =
+                byId(commentRepository.findThread(post, last.createdAt(), last.id(), 2, 10, 10));
+        assertThat(next.keySet()).containsExactly(root1);
+    }
+
+    private Long comment(Long parentId) {
+        // A minute apart, in the order they are created
+        Timestamp createdAt = Timestamp.valueOf(START.plusMinutes(minute++));
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO comments"
+                        + " (id, post_id, user_id, parent_id, content, likes_count, replies_count, created_at)"
+                        + " VALUES (nextval('comments_id_seq'), ?, ?, ?, 'comment', 0, 0, ?) RETURNING id",
+                Long.class,
+                post,
+                author,
+                parentId,
+                createdAt);
+    }
+
+    private static Map<Long, ThreadRow> byId(List<ThreadRow> rows) {
+        return rows.stream().collect(Collectors.toMap(ThreadRow::id, row -> row));
+    }
+}
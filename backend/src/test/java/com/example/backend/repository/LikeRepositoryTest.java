@@ -0,0 +1,105 @@
+package com.example.backend.repository;
+
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LikeRepositoryTest extends PostgresTest {
+
+    @Autowired
+    private LikePostRepository likePostRepository;
+
+    @Autowired
+    private LikeCommentRepository likeCommentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long author;
+    private Long fan;
+    private Long post;
+    private Long comment;
+
+    @BeforeEach
+    void setUp() {
+        author = user("author").getId();
+        fan = user("fan").getId();
+        post = post();
+        comment = comment(post);
+    }
+
+    @Test
+    void aPostIsLikedOnce() {
+        assertThat(likePostRepository.insertIfAbsent(fan, post)).contains(new LikeTarget(author, post));
+        assertThat(likePostRepository.insertIfAbsent(fan, post)).isEmpty();
+
+        assertThat(likePostRepository.count()).isEqualTo(1);
+        assertThat(likePostRepository.existsByUserIdAndPostId(fan, post)).isTrue();
+    }
+
+    @Test
+    void aMissingPostIsNotLiked() {
+        assertThat(likePostRepository.insertIfAbsent(fan, -1L)).isEmpty();
+
+        assertThat(likePostRepository.count()).isZero();
+    }
+
+    @Test
+    void aPostIsUnlikedOnce() {
+        likePostRepository.insertIfAbsent(fan, post);
+
+        assertThat(likePostRepository.deleteByUserIdAndPostId(fan, post)).isEqualTo(1);
+        assertThat(likePostRepository.deleteByUserIdAndPostId(fan, post)).isZero();
+    }
+
+    @Test
+    void aCommentIsLikedOnce() {
+        assertThat(likeCommentRepository.insertIfAbsent(fan, comment)).contains(new LikeTarget(author, post));
+        assertThat(likeCommentRepository.insertIfAbsent(fan, comment)).isEmpty();
+        assertThat(likeCommentRepository.insertIfAbsent(fan, -1L)).isEmpty();
+
+        assertThat(likeCommentRepository.count()).isEqualTo(1);
+        assertThat(likeCommentRepository.deleteByUserIdAndCommentId(fan, comment)).isEqualTo(1);
+        assertThat(likeCommentRepository.deleteByUserIdAndCommentId(fan, comment)).isZero();
+    }
+
+    @Test
+    void findsTheLikedSubsetOfAPage() {
+        Long other = post();
+        Long unliked = post();
+        Long otherComment = comment(other);
+        likePostRepository.insertIfAbsent(fan, post);
+        likePostRepository.insertIfAbsent(fan, other);
+        likePostRepository.insertIfAbsent(author, unliked);
+        likeCommentRepository.insertIfAbsent(fan, otherComment);
+
+        assertThat(likePostRepository.findLikedPostIds(fan, List.of(post, other, unliked, -1L)))
+                .containsExactlyInAnyOrder(post, other);
+        assertThat(likeCommentRepository.findLikedCommentIds(fan, List.of(comment, otherComment)))
+                .containsExactly(otherComment);
+        assertThat(likeCommentRepository.findLikedCommentIds(author, List.of(comment, otherComment))).isEmpty();
+    }
+
+    private Long post() {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO posts (user_id, content, likes_count, comments_count, created_at)"
+                        + " VALUES (?, 'post', 0, 0, now()) RETURNING id",
+                Long.class,
+                author);
+    }
+
+    private Long comment(Long postId) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO comments (id, post_id, user_id, content, likes_count, replies_count, created_at)"
+                        + " VALUES (nextval('comments_id_seq'), ?, ?, 'comment', 0, 0, now()) RETURNING id",
+                Long.class,
+                postId,
+                author);
+    }
+}
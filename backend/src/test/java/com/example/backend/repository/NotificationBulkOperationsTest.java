@@ -0,0 +1,96 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.NotificationMessage;
+import com.example.backend.repository.NotificationBulkOperations.InsertedNotification;
+import com.example.backend.repository.NotificationBulkOperations.ReadAck;
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationBulkOperationsTest extends PostgresTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private Long alice;
+    private Long bob;
+    private Long carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = user("alice").getId();
+        bob = user("bob").getId();
+        carol = user("carol").getId();
+    }
+
+    @Test
+    void insertsOneRowPerExistingRecipient() {
+        NotificationMessage message =
+                NotificationMessage.of(NotificationKind.EVENT_ACCEPTED, alice, 7L, "/events/7");
+
+        List<InsertedNotification> inserted =
+                notificationRepository.insertForRecipients(List.of(bob, carol, bob, -1L), message);
+
+        assertThat(inserted).extracting(InsertedNotification::userId).containsExactlyInAnyOrder(bob, carol);
+        assertThat(inserted).allSatisfy(row -> assertThat(row.updatedAt()).isEqualTo(row.createdAt()));
+
+        Notification stored = notificationRepository.findById(inserted.get(0).id()).orElseThrow();
+        assertThat(stored.getKind()).isEqualTo(NotificationKind.EVENT_ACCEPTED);
+        assertThat(stored.getActorId()).isEqualTo(alice);
+        assertThat(stored.getEntityId()).isEqualTo(7L);
+        assertThat(stored.getLink()).isEqualTo("/events/7");
+        assertThat(stored.isRead()).isFalse();
+    }
+
+    @Test
+    void insertsRecipientsBeyondTheFirstChunk() {
+        // Unknown ids push the real recipients into both the first and the second statement
+        List<Long> recipients = new ArrayList<>();
+        recipients.add(alice);
+        LongStream.rangeClosed(1, 1500).map(id -> -id).forEach(recipients::add);
+        recipients.add(bob);
+
+        List<InsertedNotification> inserted =
+                notificationRepository.insertForRecipients(
+                        recipients, NotificationMessage.literal("Maintenance tonight", null));
+
+        assertThat(inserted).extracting(InsertedNotification::userId).containsExactlyInAnyOrder(alice, bob);
+        assertThat(notificationRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void marksOnlyTheRecipientsOwnUnreadRows() {
+        List<InsertedNotification> inserted =
+                notificationRepository.insertForRecipients(
+                        List.of(alice, bob), NotificationMessage.literal("Hello", null));
+        Long aliceRow = idOf(inserted, alice);
+        Long bobRow = idOf(inserted, bob);
+
+        // Carol cannot acknowledge Bob's row
+        List<Long> marked =
+                notificationRepository.markReadByIds(
+                        List.of(new ReadAck(aliceRow, alice), new ReadAck(bobRow, carol)));
+
+        assertThat(marked).containsExactly(alice);
+        assertThat(notificationRepository.markReadByIds(List.of(new ReadAck(aliceRow, alice)))).isEmpty();
+        assertThat(isRead(aliceRow)).isTrue();
+        assertThat(isRead(bobRow)).isFalse();
+    }
+
+    private boolean isRead(Long id) {
+        return notificationRepository.findById(id).orElseThrow().isRead();
+    }
+
+    private static Long idOf(List<InsertedNotification> inserted, Long userId) {
+        return inserted.stream().filter(row -> row.userId().equals(userId)).findFirst().orElseThrow().id();
+    }
+}
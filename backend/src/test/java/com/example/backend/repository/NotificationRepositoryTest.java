@@ -0,0 +1,100 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.service.NotificationCoalescer;
+import com.example.backend.service.NotificationOutbox.GroupedNotification;
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationRepositoryTest extends PostgresTest {
+
+    private static final PageRequest PAGE = PageRequest.of(0, 2);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    private NotificationCoalescer coalescer;
+    private Long recipient;
+    private List<Long> likers;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new NotificationCoalescer(notificationRepository);
+        ReflectionTestUtils.setField(coalescer, "windowMinutes", 60L);
+        ReflectionTestUtils.setField(coalescer, "sampleSize", 3);
+        recipient = user("recipient").getId();
+        likers = List.of(user("liker1").getId(), user("liker2").getId(), user("liker3").getId());
+    }
+
+    @Test
+    void pagingAcrossACoalesceSeesEveryRowOnce() {
+        // One row per liked post, oldest first
+        List<Long> rows = new ArrayList<>();
+        for (long post = 1; post <= 5; post++) {
+            rows.add(like(post, likers.get(0)));
+        }
+
+        List<Notification> first =
+                notificationRepository.findByUserIdOrderByCreatedAtDescIdDesc(recipient, PAGE);
+        assertThat(ids(first)).containsExactly(rows.get(4), rows.get(3));
+
+        // Merged into a row the client has already seen and one it has not reached yet
+        assertThat(like(5, likers.get(1))).isEqualTo(rows.get(4));
+        assertThat(like(1, likers.get(2))).isEqualTo(rows.get(0));
+
+        List<Long> seen = new ArrayList<>(ids(first));
+        Notification last = first.get(first.size() - 1);
+        List<Notification> page;
+        while (!(page = notificationRepository.findPageBefore(
+                                recipient, last.getCreatedAt(), last.getId(), PAGE))
+                .isEmpty()) {
+            seen.addAll(ids(page));
+            last = page.get(page.size() - 1);
+        }
+
+        assertThat(seen).containsExactly(rows.get(4), rows.get(3), rows.get(2), rows.get(1), rows.get(0));
+        Notification merged = notificationRepository.findById(rows.get(0)).orElseThrow();
+        assertThat(merged.getActorCount()).isEqualTo(2);
+        assertThat(merged.getUpdatedAt()).isAfter(merged.getCreatedAt());
+    }
+
+    @Test
+    void changedAfterIncludesRowsCoalescedIntoSince() {
+        Long older = like(1, likers.get(0));
+        Long lastSent = like(2, likers.get(0));
+        LocalDateTime sentAt = notificationRepository.findById(lastSent).orElseThrow().getUpdatedAt();
+
+        like(1, likers.get(1));
+        Long newer = like(3, likers.get(0));
+
+        assertThat(ids(notificationRepository.findChangedAfter(recipient, sentAt, lastSent, PAGE)))
+                .containsExactly(older, newer);
+        assertThat(notificationRepository.findChangedAfter(likers.get(0), sentAt, lastSent, PAGE)).isEmpty();
+    }
+
+    private Long like(long postId, Long actorId) {
+        return coalescer
+                .merge(
+                        List.of(
+                                new GroupedNotification(
+                                        recipient, NotificationKind.POST_LIKE, postId, actorId, "/posts/" + postId)))
+                .get(0)
+                .row()
+                .id();
+    }
+
+    private static List<Long> ids(List<Notification> notifications) {
+        return notifications.stream().map(Notification::getId).toList();
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.backend.security;
+
+import com.example.backend.model.Role;
+import com.example.backend.model.RoleName;
+import com.example.backend.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private final UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+    private final UserStateRegistry registry = new UserStateRegistry();
+    private final JwtService jwtService = new JwtService();
+    private final JwtAuthenticationFilter filter =
+            new JwtAuthenticationFilter(jwtService, userDetailsService, registry);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expirationMs", 60_000L);
+        ReflectionTestUtils.setField(jwtService, "cacheMaxSize", 100L);
+        jwtService.init();
+        // iat has second precision, so a token issued right now could predate startup
+        ReflectionTestUtils.setField(registry, "startedAt", System.currentTimeMillis() - 60_000);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void aMissingUserIsLookedUpOnceThenTurnedAwayFromTheRegistry() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        issuedBeforeStartup();
+        when(userDetailsService.findUser("alice")).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(token).passed()).isTrue();
+            assertThat(authentication()).isNull();
+        }
+
+        verify(userDetailsService, times(1)).findUser("alice");
+    }
+
+    @Test
+    void aMissingSubjectWithoutUidIsRememberedByName() throws Exception {
+        String token = legacyToken("ghost");
+        when(userDetailsService.findUser("ghost")).thenReturn(Optional.empty());
+
+        send(token);
+        send(token);
+
+        assertThat(authentication()).isNull();
+        verify(userDetailsService, times(1)).findUser("ghost");
+    }
+
+    @Test
+    void aTokenIsNotTakenOverByANewUserWithTheSameName() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        issuedBeforeStartup();
+        when(userDetailsService.findUser("alice"))
+                .thenReturn(Optional.of(user(9L, "alice", RoleName.ADMIN, false)));
+
+        send(token);
+        send(token);
+
+        assertThat(authentication()).isNull();
+        verify(userDetailsService, times(1)).findUser("alice");
+    }
+
+    @Test
+    void aFreshTokenIsAuthenticatedFromItsClaimsAlone() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.HOST, false));
+
+        Result result = send(token);
+
+        assertThat(result.passed()).isTrue();
+        AuthenticatedUser principal = (AuthenticatedUser) authentication().getPrincipal();
+        assertThat(principal).isEqualTo(new AuthenticatedUser(5L, "alice", RoleName.HOST));
+        verify(userDetailsService, never()).findUser(any());
+    }
+
+    @Test
+    void aUserLockedSinceTheTokenWasIssuedIsTurnedAway() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        registry.remember(user(5L, "alice", RoleName.USER, true));
+
+        Result result = send(token);
+
+        assertThat(result.passed()).isFalse();
+        assertThat(result.response().getStatus()).isEqualTo(403);
+        assertThat(result.response().getContentAsString()).contains("ACCOUNT_LOCKED");
+        verify(userDetailsService, never()).findUser(any());
+    }
+
+    @Test
+    void aTokenFromBeforeStartupIsCheckedForALockOnce() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        issuedBeforeStartup();
+        when(userDetailsService.findUser("alice"))
+                .thenReturn(Optional.of(user(5L, "alice", RoleName.USER, true)));
+
+        assertThat(send(token).response().getStatus()).isEqualTo(403);
+        assertThat(send(token).response().getStatus()).isEqualTo(403);
+
+        verify(userDetailsService, times(1)).findUser("alice");
+    }
+
+    @Test
+    void anUnlockedUserIsLetBackIn() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        registry.remember(user(5L, "alice", RoleName.USER, true));
+        assertThat(send(token).passed()).isFalse();
+
+        registry.remember(user(5L, "alice", RoleName.USER, false));
+
+        assertThat(send(token).passed()).isTrue();
+        assertThat(authentication()).isNotNull();
+    }
+
+    @Test
+    void aRoleChangeOverridesTheRoleClaim() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        registry.remember(user(5L, "alice", RoleName.HOST, false));
+
+        send(token);
+
+        AuthenticatedUser principal = (AuthenticatedUser) authentication().getPrincipal();
+        assertThat(principal.role()).isEqualTo(RoleName.HOST);
+        assertThat(authentication().getAuthorities())
+                .extracting(Object::toString)
+                .containsExactly("HOST");
+    }
+
+    @Test
+    void aDeletedUserIsLeftUnauthenticated() throws Exception {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.ADMIN, false));
+        registry.markDeleted(5L);
+
+        Result result = send(token);
+
+        assertThat(result.passed()).isTrue();
+        assertThat(authentication()).isNull();
+        verify(userDetailsService, never()).findUser(any());
+    }
+
+    private void issuedBeforeStartup() {
+        ReflectionTestUtils.setField(registry, "startedAt", System.currentTimeMillis() + 60_000);
+    }
+
+    private static String legacyToken(String username) {
+        return Jwts.builder()
+                .setSubject(username)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
+    static User user(Long id, String username, RoleName role, boolean locked) {
+        User user =
+                User.builder()
+                        .username(username)
+                        .role(Role.builder().name(role).build())
+                        .isLocked(locked)
+                        .build();
+        user.setId(id);
+        return user;
+    }
+
+    private Authentication authentication() {
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private Result send(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/post/1");
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return new Result(chain.getRequest() != null, response);
+    }
+
+    private record Result(boolean passed, MockHttpServletResponse response) {}
+}
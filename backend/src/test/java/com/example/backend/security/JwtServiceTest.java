@@ -0,0 +1,129 @@
+package com.example.backend.security;
+
+import com.example.backend.model.RoleName;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+
+import static com.example.backend.security.JwtAuthenticationFilterTest.SECRET;
+import static com.example.backend.security.JwtAuthenticationFilterTest.user;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = service(60_000L);
+    }
+
+    @Test
+    void carriesTheUserIdAndRoleClaims() {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.HOST, false));
+
+        Claims claims = jwtService.verify(token);
+
+        assertThat(claims.getSubject()).isEqualTo("alice");
+        assertThat(claims.get(JwtService.CLAIM_USER_ID, Long.class)).isEqualTo(5L);
+        assertThat(claims.get(JwtService.CLAIM_ROLE, String.class)).isEqualTo("HOST");
+        assertThat(claims.getIssuedAt()).isNotNull();
+    }
+
+    @Test
+    void repeatedVerificationIsServedFromTheCache() {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+
+        Claims first = jwtService.verify(token);
+
+        assertThat(jwtService.verify(token)).isSameAs(first);
+        assertThat(jwtService.extractUsername(token)).isEqualTo("alice");
+        assertThat(jwtService.isTokenValid(token)).isTrue();
+    }
+
+    @Test
+    void rejectsAnExpiredToken() {
+        String token =
+                Jwts.builder()
+                        .setSubject("alice")
+                        .setIssuedAt(new Date(System.currentTimeMillis() - 120_000))
+                        .setExpiration(new Date(System.currentTimeMillis() - 60_000))
+                        .signWith(key(SECRET), SignatureAlgorithm.HS512)
+                        .compact();
+
+        assertThat(jwtService.verify(token)).isNull();
+        assertThat(jwtService.isTokenValid(token)).isFalse();
+    }
+
+    @Test
+    void aCachedTokenStopsVerifyingOnceItExpires() throws Exception {
+        JwtService shortLived = service(1_000L);
+        String token = shortLived.generateToken(user(5L, "alice", RoleName.USER, false));
+        assertThat(shortLived.verify(token)).isNotNull();
+
+        Thread.sleep(1_100);
+
+        assertThat(shortLived.verify(token)).isNull();
+    }
+
+    @Test
+    void rejectsATamperedPayload() {
+        String token = jwtService.generateToken(user(5L, "alice", RoleName.USER, false));
+        assertThat(jwtService.verify(token)).isNotNull();
+
+        // Same signature, payload claiming to be an admin
+        String[] parts = token.split("\\.");
+        String payload =
+                new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                        .replace("\"USER\"", "\"ADMIN\"");
+        String forged =
+                parts[0] + "."
+                        + Base64.getUrlEncoder().withoutPadding()
+                                .encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                        + "." + parts[2];
+
+        assertThat(jwtService.verify(forged)).isNull();
+    }
+
+    @Test
+    void rejectsATokenSignedWithAnotherKey() {
+        String token =
+                Jwts.builder()
+                        .setSubject("alice")
+                        .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                        .signWith(key(SECRET.replace('0', 'x')), SignatureAlgorithm.HS512)
+                        .compact();
+
+        assertThat(jwtService.verify(token)).isNull();
+    }
+
+    @Test
+    void rejectsBlankAndMalformedTokens() {
+        assertThat(jwtService.verify(null)).isNull();
+        assertThat(jwtService.verify(" ")).isNull();
+        assertThat(jwtService.verify("not.a.token")).isNull();
+        assertThat(jwtService.extractUsername("not.a.token")).isNull();
+    }
+
+    private static JwtService service(long expirationMs) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secret", SECRET);
+        ReflectionTestUtils.setField(service, "expirationMs", expirationMs);
+        ReflectionTestUtils.setField(service, "cacheMaxSize", 100L);
+        service.init();
+        return service;
+    }
+
+    private static Key key(String secret) {
+        return Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.backend.security;
+
+import com.example.backend.dto.ApiResponse;
+import com.example.backend.exception.GlobalExceptionHandler;
+import com.example.backend.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.backend.support.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordVerifierTest {
+
+    private final PasswordEncoder passwordEncoder = mock(PasswordEncoder.class);
+    private final PasswordVerifier verifier = new PasswordVerifier(passwordEncoder);
+
+    private final CountDownLatch checkEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseCheck = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseCheck.countDown();
+        verifier.shutdown();
+    }
+
+    @Test
+    void checksThePasswordOnThePool() {
+        start(3000);
+        when(passwordEncoder.matches("secret", "hash")).thenReturn(true);
+
+        assertThat(verifier.matches("secret", "hash")).isTrue();
+        assertThat(verifier.matches("wrong", "hash")).isFalse();
+        assertThat(verifier.matches(null, "hash")).isFalse();
+    }
+
+    @Test
+    void aSaturatedPoolAnswers429WithRetryAfter() throws Exception {
+        start(3000);
+        blockChecks();
+
+        // One check holds the only thread, the next fills the queue
+        CompletableFuture.runAsync(() -> verifier.matches("a", "hash"));
+        assertThat(checkEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> verifier.matches("b", "hash"));
+        ThreadPoolExecutor executor = (ThreadPoolExecutor) ReflectionTestUtils.getField(verifier, "executor");
+        await(() -> executor.getQueue().size() == 1);
+
+        TooManyRequestsException rejected =
+                catchThrowableOfType(TooManyRequestsException.class, () -> verifier.matches("c", "hash"));
+
+        assertThat(rejected).isNotNull();
+        assertRetryAfter(rejected);
+    }
+
+    @Test
+    void aCheckThatWaitsTooLongAnswers429WithRetryAfter() {
+        start(100);
+        blockChecks();
+
+        TooManyRequestsException timedOut =
+                catchThrowableOfType(TooManyRequestsException.class, () -> verifier.matches("a", "hash"));
+
+        assertThat(timedOut).isNotNull();
+        assertRetryAfter(timedOut);
+    }
+
+    private void start(long timeoutMs) {
+        ReflectionTestUtils.setField(verifier, "threads", 1);
+        ReflectionTestUtils.setField(verifier, "queueCapacity", 1);
+        ReflectionTestUtils.setField(verifier, "timeoutMs", timeoutMs);
+        verifier.init();
+    }
+
+    private void blockChecks() {
+        when(passwordEncoder.matches(any(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            checkEntered.countDown();
+                            releaseCheck.await(5, TimeUnit.SECONDS);
+                            return false;
+                        });
+    }
+
+    private static void assertRetryAfter(TooManyRequestsException e) {
+        ResponseEntity<ApiResponse> response = new GlobalExceptionHandler().handleTooManyRequests(e);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.backend.security;
+
+import com.example.backend.model.RoleName;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // Two requests per minute, one token every 30 seconds
+    private final RateLimitFilter filter =
+            new RateLimitFilter(meterRegistry, clock::get)
+                    .limit("auth", 2, Duration.ofMinutes(1),
+                            request -> request.getRequestURI().startsWith("/auth/"))
+                    .limit("like", 2, Duration.ofMinutes(1),
+                            request -> request.getRequestURI().startsWith("/like/"));
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsOnceTheBurstIsSpent() throws Exception {
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isTrue();
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isTrue();
+
+        Result rejected = send("/auth/login", "10.0.0.1");
+        assertThat(rejected.passed()).isFalse();
+        assertThat(rejected.response().getStatus()).isEqualTo(429);
+        assertThat(rejected.response().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("30");
+        assertThat(rejected.response().getContentAsString()).contains("TOO_MANY_REQUESTS");
+        assertThat(meterRegistry.counter("rate.limit.rejected", "group", "auth").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void refillsAfterTheTokenInterval() throws Exception {
+        send("/auth/login", "10.0.0.1");
+        send("/auth/login", "10.0.0.1");
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isFalse();
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isTrue();
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isFalse();
+    }
+
+    @Test
+    void anonymousCallersAreKeyedByAddress() throws Exception {
+        send("/auth/login", "10.0.0.1");
+        send("/auth/login", "10.0.0.1");
+
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isFalse();
+        assertThat(send("/auth/login", "10.0.0.2").passed()).isTrue();
+    }
+
+    @Test
+    void authenticatedCallersAreKeyedByUserIdWhateverTheAddress() throws Exception {
+        authenticate(1L);
+        send("/like/post/1", "10.0.0.1");
+        send("/like/post/1", "10.0.0.2");
+        assertThat(send("/like/post/1", "10.0.0.3").passed()).isFalse();
+
+        // Same address, different user: its own bucket
+        authenticate(2L);
+        assertThat(send("/like/post/1", "10.0.0.1").passed()).isTrue();
+    }
+
+    @Test
+    void anAuthenticatedCallerIsNotHeldToItsAddressesBucket() throws Exception {
+        send("/like/post/1", "10.0.0.1");
+        send("/like/post/1", "10.0.0.1");
+        assertThat(send("/like/post/1", "10.0.0.1").passed()).isFalse();
+        assertThat(send("/like/post/1", "10.0.0.2").passed()).isTrue();
+
+        // An authenticated user on the exhausted address is not held to its bucket
+        authenticate(1L);
+        assertThat(send("/like/post/1", "10.0.0.1").passed()).isTrue();
+    }
+
+    @Test
+    void everyGroupKeysAuthenticatedCallersByUserId() throws Exception {
+        authenticate(1L);
+        send("/auth/login", "10.0.0.1");
+        send("/auth/login", "10.0.0.2");
+        assertThat(send("/auth/login", "10.0.0.3").passed()).isFalse();
+
+        // The address the user came from still has its own anonymous bucket
+        SecurityContextHolder.clearContext();
+        assertThat(send("/auth/login", "10.0.0.1").passed()).isTrue();
+    }
+
+    @Test
+    void forwardedHeadersAreNotParsedByTheFilter() throws Exception {
+        // Behind a proxy ForwardedHeaderFilter has already set the remote address;
+        // a raw X-Forwarded-For reaching this filter must not pick the bucket
+        for (int i = 0; i < 2; i++) {
+            send("/auth/login", "10.0.0.1", "198.51.100." + i);
+        }
+
+        assertThat(send("/auth/login", "10.0.0.1", "198.51.100.9").passed()).isFalse();
+    }
+
+    @Test
+    void groupsHaveSeparateBuckets() throws Exception {
+        send("/auth/login", "10.0.0.1");
+        send("/auth/login", "10.0.0.1");
+
+        assertThat(send("/like/post/1", "10.0.0.1").passed()).isTrue();
+    }
+
+    @Test
+    void requestsOutsideEveryGroupPassThrough() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(send("/event/all", "10.0.0.1").passed()).isTrue();
+        }
+    }
+
+    private record Result(boolean passed, MockHttpServletResponse response) {}
+
+    private Result send(String uri, String remoteAddr) throws Exception {
+        return send(uri, remoteAddr, null);
+    }
+
+    private Result send(String uri, String remoteAddr, String forwardedFor) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return new Result(chain.getRequest() != null, response);
+    }
+
+    private static void authenticate(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, RoleName.USER);
+        SecurityContextHolder.getContext()
+                .setAuthentication(
+                        new UsernamePasswordAuthenticationToken(user, null, user.authorities()));
+    }
+}
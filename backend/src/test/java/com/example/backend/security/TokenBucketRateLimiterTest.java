@@ -0,0 +1,113 @@
+package com.example.backend.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketRateLimiterTest {
+
+    // 5 tokens per 5 seconds, i.e. one token per second
+    private static final int CAPACITY = 5;
+    private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TokenBucketRateLimiter limiter =
+            new TokenBucketRateLimiter(CAPACITY, Duration.ofSeconds(5), 1000, clock::get);
+
+    @Test
+    void allowsAFullBurstThenRejects() {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(limiter.tryAcquire("k")).isZero();
+        }
+        assertThat(limiter.tryAcquire("k")).isEqualTo(SECOND);
+    }
+
+    @Test
+    void rejectionDoesNotTakeAToken() {
+        drain("k");
+
+        assertThat(limiter.tryAcquire("k")).isEqualTo(SECOND);
+        assertThat(limiter.tryAcquire("k")).isEqualTo(SECOND);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        drain("k");
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(limiter.tryAcquire("k")).isEqualTo(SECOND / 2);
+
+        clock.addAndGet(SECOND / 2);
+        assertThat(limiter.tryAcquire("k")).isZero();
+        assertThat(limiter.tryAcquire("k")).isEqualTo(SECOND);
+    }
+
+    @Test
+    void idleBucketRefillsToCapacityAndNoFurther() {
+        drain("k");
+
+        clock.addAndGet(100 * SECOND);
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(limiter.tryAcquire("k")).isZero();
+        }
+        assertThat(limiter.tryAcquire("k")).isPositive();
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        drain("a");
+
+        assertThat(limiter.tryAcquire("a")).isPositive();
+        assertThat(limiter.tryAcquire("b")).isZero();
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedTheBurst() throws Exception {
+        int threads = 8;
+        int attemptsPerThread = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Callable<Integer> task =
+                        () -> {
+                            start.await();
+                            int allowed = 0;
+                            for (int i = 0; i < attemptsPerThread; i++) {
+                                if (limiter.tryAcquire("shared") == 0) {
+                                    allowed++;
+                                }
+                            }
+                            return allowed;
+                        };
+                results.add(pool.submit(task));
+            }
+            start.countDown();
+
+            int allowed = 0;
+            for (Future<Integer> result : results) {
+                allowed += result.get();
+            }
+            assertThat(allowed).isEqualTo(CAPACITY);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void drain(String key) {
+        for (int i = 0; i < CAPACITY; i++) {
+            assertThat(limiter.tryAcquire(key)).isZero();
+        }
+    }
+}
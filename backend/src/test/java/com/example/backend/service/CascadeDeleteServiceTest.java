@@ -0,0 +1,93 @@
+package com.example.backend.service;
+
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.counter.CounterBuffer.Counter;
+import com.example.backend.exception.AppException;
+import com.example.backend.model.Comment;
+import com.example.backend.model.Post;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CascadeDeleteServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CounterBuffer counterBuffer = mock(CounterBuffer.class);
+    private final CascadeDeleteService service = new CascadeDeleteService(jdbcTemplate, counterBuffer);
+
+    @Test
+    void deletesAReplySubtreeByPathAndMovesBothCounters() {
+        Comment reply = comment(57L, "12/57/", comment(12L, "12/", null));
+        // Two likes on the reply and its own two replies
+        when(jdbcTemplate.update(startsWith("DELETE FROM like_comments"), eq("12/57/"))).thenReturn(2);
+        when(jdbcTemplate.update(startsWith("DELETE FROM comments"), eq("12/57/"))).thenReturn(3);
+
+        service.deleteCommentTree(reply);
+
+        verify(counterBuffer).add(Counter.POST_COMMENTS, 7L, -3);
+        verify(counterBuffer).add(Counter.COMMENT_REPLIES, 12L, -1);
+    }
+
+    @Test
+    void aTopLevelCommentHasNoParentCountToMove() {
+        Comment top = comment(12L, "12/", null);
+        when(jdbcTemplate.update(startsWith("DELETE FROM comments"), eq("12/"))).thenReturn(1);
+
+        service.deleteCommentTree(top);
+
+        verify(counterBuffer).add(Counter.POST_COMMENTS, 7L, -1);
+        verify(counterBuffer, never()).add(eq(Counter.COMMENT_REPLIES), anyLong(), anyLong());
+    }
+
+    @Test
+    void fallsBackToWalkingParentIdsWhenThePathIsMissing() {
+        Comment reply = comment(57L, null, comment(12L, null, null));
+        when(jdbcTemplate.update(
+                        argThat((String sql) -> sql.contains("parent_id") && sql.contains("DELETE FROM comments")),
+                        eq(57L)))
+                .thenReturn(2);
+
+        service.deleteCommentTree(reply);
+
+        verify(jdbcTemplate, never()).update(argThat((String sql) -> sql.contains("path LIKE")), any(Object[].class));
+        verify(counterBuffer).add(Counter.POST_COMMENTS, 7L, -2);
+        verify(counterBuffer).add(Counter.COMMENT_REPLIES, 12L, -1);
+    }
+
+    @Test
+    void deletingNothingIsANotFoundAndLeavesTheCountersAlone() {
+        Comment gone = comment(57L, "12/57/", comment(12L, "12/", null));
+
+        assertThatThrownBy(() -> service.deleteCommentTree(gone))
+                .isInstanceOf(AppException.class)
+                .satisfies(e -> assertThat(((AppException) e).getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+        verifyNoInteractions(counterBuffer);
+    }
+
+    private static String startsWith(String prefix) {
+        return argThat((String sql) -> sql != null && sql.startsWith(prefix));
+    }
+
+    private static Comment comment(Long id, String path, Comment parent) {
+        Post post = new Post();
+        post.setId(7L);
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setPath(path);
+        comment.setPost(post);
+        comment.setParentComment(parent);
+        return comment;
+    }
+}
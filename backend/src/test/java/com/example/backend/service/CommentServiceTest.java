@@ -0,0 +1,102 @@
+package com.example.backend.service;
+
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.dto.CommentRequest;
+import com.example.backend.model.Comment;
+import com.example.backend.model.Post;
+import com.example.backend.model.User;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.PostRepository;
+import com.example.backend.security.CurrentUser;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CommentServiceTest {
+
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final UserService userService = mock(UserService.class);
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CurrentUser currentUser = mock(CurrentUser.class);
+    private final CommentService service =
+            new CommentService(
+                    commentRepository,
+                    userService,
+                    postRepository,
+                    mock(NotificationService.class),
+                    currentUser,
+                    mock(CounterBuffer.class),
+                    mock(CascadeDeleteService.class));
+
+    @BeforeEach
+    void setUp() {
+        User author = new User();
+        author.setId(3L);
+        Post post = new Post();
+        post.setId(7L);
+        post.setUser(author);
+        when(postRepository.findById(7L)).thenReturn(Optional.of(post));
+        when(userService.getUserById(3L)).thenReturn(author);
+        when(currentUser.id()).thenReturn(3L);
+        // As persist() with the sequence generator: the id is set, the INSERT comes later
+        when(commentRepository.save(any(Comment.class)))
+                .thenAnswer(
+                        invocation -> {
+                            Comment comment = invocation.getArgument(0);
+                            comment.setId(57L);
+                            return comment;
+                        });
+    }
+
+    @Test
+    void aTopLevelCommentIsItsOwnRoot() {
+        Comment created = service.createComment(request(null));
+
+        assertThat(created.getRootId()).isEqualTo(57L);
+        assertThat(created.getPath()).isEqualTo("57/");
+        verify(commentRepository, times(1)).save(any(Comment.class));
+    }
+
+    @Test
+    void aReplyExtendsItsParentsPathAndKeepsTheThreadRoot() {
+        Comment parent = new Comment();
+        parent.setId(12L);
+        parent.setRootId(5L);
+        parent.setPath("5/12/");
+        parent.setUser(new User());
+        parent.getUser().setId(4L);
+        when(commentRepository.findById(12L)).thenReturn(Optional.of(parent));
+
+        Comment created = service.createComment(request(12L));
+
+        assertThat(created.getParentComment()).isSameAs(parent);
+        assertThat(created.getRootId()).isEqualTo(5L);
+        assertThat(created.getPath()).isEqualTo("5/12/57/");
+        verify(commentRepository, times(1)).save(any(Comment.class));
+    }
+
+    @Test
+    void theIdIsDrawnFromASequenceSoThePathNeedsNoSecondWrite() throws Exception {
+        GeneratedValue generated = Comment.class.getDeclaredField("id").getAnnotation(GeneratedValue.class);
+
+        assertThat(generated.strategy()).isEqualTo(GenerationType.SEQUENCE);
+    }
+
+    private static CommentRequest request(Long parentCommentId) {
+        CommentRequest request = new CommentRequest();
+        request.setPostId(7L);
+        request.setContent("hello");
+        request.setParentCommentId(parentCommentId);
+        return request;
+    }
+}
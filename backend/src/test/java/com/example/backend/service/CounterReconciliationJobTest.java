@@ -0,0 +1,138 @@
+package com.example.backend.service;
+
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.counter.CounterBuffer.Counter;
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Buffered deltas only apply once their transaction commits, so nothing here runs in the
+// test transaction; the tables are emptied after each test instead
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CounterReconciliationJobTest extends PostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CounterBuffer counterBuffer;
+
+    private CounterReconciliationJob job;
+    private Long author;
+    private Long fan;
+
+    @BeforeEach
+    void setUp() {
+        job = new CounterReconciliationJob(jdbcTemplate, counterBuffer);
+        ReflectionTestUtils.setField(job, "enabled", true);
+        // One row per chunk, so every id goes through its own recount
+        ReflectionTestUtils.setField(job, "chunkSize", 1);
+        author = user("author").getId();
+        fan = user("fan").getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        counterBuffer.flush();
+        jdbcTemplate.execute("TRUNCATE like_comments, like_posts, comments, posts, users, roles CASCADE");
+    }
+
+    @Test
+    void correctsDriftedCounters() {
+        Long drifted = post(7, 0);
+        Long accurate = post(1, 0);
+        like(accurate, author);
+        Long comment = comment(drifted, null, 5, 0);
+        Long reply = comment(drifted, comment, 0, 3);
+        like(drifted, author);
+        like(drifted, fan);
+        likeComment(comment, fan);
+
+        job.run();
+
+        assertThat(postCounts(drifted)).containsEntry("likes_count", 2).containsEntry("comments_count", 2);
+        assertThat(postCounts(accurate)).containsEntry("likes_count", 1).containsEntry("comments_count", 0);
+        assertThat(commentCounts(comment)).containsEntry("likes_count", 1).containsEntry("replies_count", 1);
+        assertThat(commentCounts(reply)).containsEntry("likes_count", 0).containsEntry("replies_count", 0);
+    }
+
+    @Test
+    void aBufferedDeltaIsNotCountedOnTopOfTheRecount() {
+        Long post = post(0, 0);
+        Long comment = comment(post, null, 0, 0);
+        // Committed likes whose deltas have not been flushed yet
+        like(post, fan);
+        likeComment(comment, fan);
+        counterBuffer.add(Counter.POST_LIKES, post, 1);
+        counterBuffer.add(Counter.COMMENT_LIKES, comment, 1);
+
+        job.run();
+        counterBuffer.flush();
+
+        assertThat(postCounts(post)).containsEntry("likes_count", 1);
+        assertThat(commentCounts(comment)).containsEntry("likes_count", 1);
+        assertThat(counterBuffer.pending(Counter.POST_LIKES, post)).isZero();
+    }
+
+    @Test
+    void aDeltaBufferedAfterTheRunIsStillFlushed() {
+        Long post = post(0, 0);
+        like(post, fan);
+
+        job.run();
+        like(post, author);
+        counterBuffer.add(Counter.POST_LIKES, post, 1);
+        counterBuffer.flush();
+
+        assertThat(postCounts(post)).containsEntry("likes_count", 2);
+    }
+
+    private Long post(int likes, int comments) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO posts (user_id, content, likes_count, comments_count, created_at)"
+                        + " VALUES (?, 'post', ?, ?, now()) RETURNING id",
+                Long.class,
+                author,
+                likes,
+                comments);
+    }
+
+    private Long comment(Long postId, Long parentId, int likes, int replies) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO comments"
+                        + " (id, post_id, user_id, parent_id, content, likes_count, replies_count, created_at)"
+                        + " VALUES (nextval('comments_id_seq'), ?, ?, ?, 'comment', ?, ?, now()) RETURNING id",
+                Long.class,
+                postId,
+                author,
+                parentId,
+                likes,
+                replies);
+    }
+
+    private void like(Long postId, Long userId) {
+        jdbcTemplate.update("INSERT INTO like_posts (post_id, user_id) VALUES (?, ?)", postId, userId);
+    }
+
+    private void likeComment(Long commentId, Long userId) {
+        jdbcTemplate.update("INSERT INTO like_comments (comment_id, user_id) VALUES (?, ?)", commentId, userId);
+    }
+
+    private Map<String, Object> postCounts(Long id) {
+        return jdbcTemplate.queryForMap("SELECT likes_count, comments_count FROM posts WHERE id = ?", id);
+    }
+
+    private Map<String, Object> commentCounts(Long id) {
+        return jdbcTemplate.queryForMap("SELECT likes_count, replies_count FROM comments WHERE id = ?", id);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.LikeStatusResponse;
+import com.example.backend.exception.AppException;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.repository.CommentRepository;
+import com.example.backend.repository.LikeCommentRepository;
+import com.example.backend.repository.LikePostRepository;
+import com.example.backend.repository.LikeTarget;
+import com.example.backend.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LikeServiceTest {
+
+    private static final Long FAN = 2L;
+    private static final Long OWNER = 3L;
+    private static final Long POST = 7L;
+    private static final Long COMMENT = 57L;
+
+    private final LikePostRepository likePostRepository = mock(LikePostRepository.class);
+    private final LikeCommentRepository likeCommentRepository = mock(LikeCommentRepository.class);
+    private final PostRepository postRepository = mock(PostRepository.class);
+    private final CommentRepository commentRepository = mock(CommentRepository.class);
+    private final PostService postService = mock(PostService.class);
+    private final CommentService commentService = mock(CommentService.class);
+    private final NotificationService notificationService = mock(NotificationService.class);
+    private final LikeService service =
+            new LikeService(
+                    likePostRepository,
+                    likeCommentRepository,
+                    postRepository,
+                    commentRepository,
+                    postService,
+                    commentService,
+                    notificationService);
+
+    @Test
+    void onlyTheCallThatInsertsTheLikeCountsAndNotifies() {
+        when(likePostRepository.insertIfAbsent(FAN, POST))
+                .thenReturn(Optional.of(new LikeTarget(OWNER, POST)))
+                .thenReturn(Optional.empty());
+        when(postRepository.existsById(POST)).thenReturn(true);
+
+        assertThat(service.likePost(FAN, POST)).isTrue();
+        assertThat(service.likePost(FAN, POST)).isFalse();
+
+        verify(postService, times(1)).incLikeCount(POST);
+        verify(notificationService, times(1))
+                .createAndSendGroupedNotification(OWNER, NotificationKind.POST_LIKE, POST, FAN, "/posts/" + POST);
+    }
+
+    @Test
+    void onlyTheCallThatDeletesTheLikeCounts() {
+        when(likePostRepository.deleteByUserIdAndPostId(FAN, POST)).thenReturn(1).thenReturn(0);
+        when(postRepository.existsById(POST)).thenReturn(true);
+
+        assertThat(service.unlikePost(FAN, POST)).isTrue();
+        assertThat(service.unlikePost(FAN, POST)).isFalse();
+
+        verify(postService, times(1)).decLikeCount(POST);
+    }
+
+    @Test
+    void likingAMissingPostIsNotFound() {
+        when(likePostRepository.insertIfAbsent(FAN, POST)).thenReturn(Optional.empty());
+        when(postRepository.existsById(POST)).thenReturn(false);
+
+        assertThatThrownBy(() -> service.likePost(FAN, POST))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.NOT_FOUND));
+        verify(postService, never()).incLikeCount(anyLong());
+    }
+
+    @Test
+    void aCommentLikeNotifiesWithTheLinkToItsPost() {
+        when(likeCommentRepository.insertIfAbsent(FAN, COMMENT))
+                .thenReturn(Optional.of(new LikeTarget(OWNER, POST)))
+                .thenReturn(Optional.empty());
+        when(commentRepository.existsById(COMMENT)).thenReturn(true);
+
+        assertThat(service.likeComment(FAN, COMMENT)).isTrue();
+        assertThat(service.likeComment(FAN, COMMENT)).isFalse();
+
+        verify(commentService, times(1)).incLikesCount(COMMENT);
+        verify(notificationService, times(1))
+                .createAndSendGroupedNotification(
+                        OWNER, NotificationKind.COMMENT_LIKE, COMMENT, FAN, "/posts/" + POST);
+    }
+
+    @Test
+    void likeStatusTakesOneQueryPerKind() {
+        when(likePostRepository.findLikedPostIds(FAN, List.of(POST, 8L))).thenReturn(List.of(POST));
+        when(likeCommentRepository.findLikedCommentIds(FAN, List.of(COMMENT))).thenReturn(List.of());
+
+        LikeStatusResponse status = service.getLikeStatus(FAN, List.of(POST, 8L), List.of(COMMENT));
+
+        assertThat(status.getLikedPostIds()).containsExactly(POST);
+        assertThat(status.getLikedCommentIds()).isEmpty();
+    }
+
+    @Test
+    void likeStatusSkipsEmptyLists() {
+        LikeStatusResponse status = service.getLikeStatus(FAN, List.of(), List.of());
+
+        assertThat(status.getLikedPostIds()).isEmpty();
+        assertThat(status.getLikedCommentIds()).isEmpty();
+        verify(likePostRepository, never()).findLikedPostIds(any(), any());
+        verify(likeCommentRepository, never()).findLikedCommentIds(any(), any());
+    }
+
+    @Test
+    void likeStatusRejectsTooManyIds() {
+        List<Long> postIds = LongStream.rangeClosed(1, 201).boxed().toList();
+
+        assertThatThrownBy(() -> service.getLikeStatus(FAN, postIds, List.of()))
+                .isInstanceOfSatisfying(
+                        AppException.class, e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST));
+        verify(likePostRepository, never()).findLikedPostIds(any(), any());
+    }
+
+    @Test
+    void togglingFlipsTheLike() {
+        when(likePostRepository.deleteByUserIdAndPostId(FAN, POST)).thenReturn(0).thenReturn(1);
+        when(likePostRepository.insertIfAbsent(FAN, POST)).thenReturn(Optional.of(new LikeTarget(OWNER, POST)));
+        when(postRepository.existsById(POST)).thenReturn(true);
+
+        assertThat(service.toggleLikePost(FAN, POST)).isTrue();
+        assertThat(service.toggleLikePost(FAN, POST)).isFalse();
+
+        verify(likePostRepository, times(1)).insertIfAbsent(any(), any());
+        verify(postService, times(1)).incLikeCount(POST);
+        verify(postService, times(1)).decLikeCount(POST);
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import com.example.backend.model.Notification;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.service.NotificationCoalescer.Merged;
+import com.example.backend.service.NotificationOutbox.GroupedNotification;
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationCoalescerTest extends PostgresTest {
+
+    private static final long POST = 42L;
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private NotificationCoalescer coalescer;
+    private Long recipient;
+    private Long ann;
+    private Long ben;
+    private Long cat;
+    private Long dan;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new NotificationCoalescer(notificationRepository);
+        ReflectionTestUtils.setField(coalescer, "windowMinutes", 60L);
+        ReflectionTestUtils.setField(coalescer, "sampleSize", 3);
+        recipient = user("recipient").getId();
+        ann = user("ann").getId();
+        ben = user("ben").getId();
+        cat = user("cat").getId();
+        dan = user("dan").getId();
+    }
+
+    @Test
+    void foldsABatchIntoOneRowPerGroup() {
+        List<Merged> merged = coalescer.merge(List.of(like(ann), like(ben), like(ann), comment(cat)));
+
+        assertThat(merged).hasSize(2);
+        Merged likes = merged.get(0);
+        assertThat(likes.created()).isTrue();
+        assertThat(likes.actorCount()).isEqualTo(2);
+        // ann liked again last, so she leads the sample
+        assertThat(likes.actorIds()).containsExactly(ann, ben);
+        assertThat(notificationRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void mergesLaterActorsIntoTheOpenRow() {
+        Merged first = coalescer.merge(List.of(like(ann))).get(0);
+
+        Merged second = coalescer.merge(List.of(like(ben), like(cat))).get(0);
+        Merged third = coalescer.merge(List.of(like(dan))).get(0);
+
+        assertThat(second.created()).isFalse();
+        assertThat(third.row().id()).isEqualTo(first.row().id());
+        assertThat(third.row().createdAt()).isEqualTo(first.row().createdAt());
+        assertThat(third.actorCount()).isEqualTo(4);
+        // Newest first, capped at the sample size
+        assertThat(third.actorIds()).containsExactly(dan, cat, ben);
+
+        Notification row = notificationRepository.findById(first.row().id()).orElseThrow();
+        assertThat(row.getActorCount()).isEqualTo(4);
+        assertThat(row.getActorIds()).isEqualTo(dan + "," + cat + "," + ben);
+        assertThat(row.getActorId()).isEqualTo(dan);
+    }
+
+    @Test
+    void anActorIsCountedOnce() {
+        coalescer.merge(List.of(like(ann)));
+        coalescer.merge(List.of(like(ben)));
+
+        // Unlike and like again
+        Merged again = coalescer.merge(List.of(like(ann))).get(0);
+
+        assertThat(again.actorCount()).isEqualTo(2);
+        assertThat(again.actorIds()).containsExactly(ann, ben);
+    }
+
+    @Test
+    void startsANewRowOnceTheWindowHasPassed() {
+        Merged first = coalescer.merge(List.of(like(ann))).get(0);
+        jdbcTemplate.update(
+                "UPDATE notifications SET updated_at = updated_at - interval '2 hours' WHERE id = ?",
+                first.row().id());
+
+        Merged next = coalescer.merge(List.of(like(ben))).get(0);
+
+        assertThat(next.created()).isTrue();
+        assertThat(next.row().id()).isNotEqualTo(first.row().id());
+        assertThat(next.actorCount()).isEqualTo(1);
+    }
+
+    @Test
+    void aRecentlyUpdatedRowStaysOpen() {
+        Merged first = coalescer.merge(List.of(like(ann))).get(0);
+        // Created before the window, but it took an actor within it
+        jdbcTemplate.update(
+                "UPDATE notifications SET created_at = created_at - interval '2 hours' WHERE id = ?",
+                first.row().id());
+
+        Merged next = coalescer.merge(List.of(like(ben))).get(0);
+
+        assertThat(next.row().id()).isEqualTo(first.row().id());
+    }
+
+    @Test
+    void doesNotMergeIntoARowTheRecipientHasRead() {
+        Merged first = coalescer.merge(List.of(like(ann))).get(0);
+        jdbcTemplate.update("UPDATE notifications SET is_read = true WHERE id = ?", first.row().id());
+
+        Merged next = coalescer.merge(List.of(like(ben))).get(0);
+
+        assertThat(next.created()).isTrue();
+        assertThat(next.actorIds()).containsExactly(ben);
+    }
+
+    private GroupedNotification like(Long actorId) {
+        return new GroupedNotification(recipient, NotificationKind.POST_LIKE, POST, actorId, "/posts/" + POST);
+    }
+
+    private GroupedNotification comment(Long actorId) {
+        return new GroupedNotification(
+                recipient, NotificationKind.POST_COMMENT, POST, actorId, "/posts/" + POST);
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.backend.service;
+
+import com.example.backend.model.NotificationMessage;
+import com.example.backend.push.PushDispatcher;
+import com.example.backend.push.PushSubscriptionCache;
+import com.example.backend.repository.NotificationBulkOperations.InsertedNotification;
+import com.example.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.backend.support.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxTest {
+
+    private static final NotificationMessage MESSAGE = NotificationMessage.literal("hello", "/posts/1");
+
+    private final NotificationRepository notificationRepo = mock(NotificationRepository.class);
+    private final NotificationRenderer renderer = mock(NotificationRenderer.class);
+    private final UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+    private final NotificationStreamRegistry streamRegistry = mock(NotificationStreamRegistry.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    // Which thread wrote each recipient's row, and the recipients whose insert fails
+    private final Map<Long, String> writtenBy = new ConcurrentHashMap<>();
+    private final Map<Long, Boolean> failing = new ConcurrentHashMap<>();
+    private final CountDownLatch firstInsertEntered = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstInsert = new CountDownLatch(1);
+    private volatile Long blockedUser;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private NotificationOutbox outbox;
+    private boolean stopped;
+
+    @BeforeEach
+    void setUp() {
+        when(renderer.renderAll(anyList(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(t -> "text").toList());
+        when(notificationRepo.insertForRecipients(any(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            Collection<Long> userIds = invocation.getArgument(0);
+                            Long userId = userIds.iterator().next();
+                            if (userId.equals(blockedUser)) {
+                                firstInsertEntered.countDown();
+                                releaseFirstInsert.await(5, TimeUnit.SECONDS);
+                            }
+                            if (failing.containsKey(userId)) {
+                                throw new IllegalStateException("insert failed");
+                            }
+                            writtenBy.put(userId, Thread.currentThread().getName());
+                            return List.of(new InsertedNotification(
+                                    userId * 100, userId, LocalDateTime.now(), LocalDateTime.now()));
+                        });
+
+        outbox =
+                new NotificationOutbox(
+                        notificationRepo,
+                        mock(NotificationCoalescer.class),
+                        renderer,
+                        mock(PushSubscriptionCache.class),
+                        unreadCounter,
+                        streamRegistry,
+                        mock(PushDispatcher.class),
+                        transactionManager,
+                        mock(ObjectMapper.class),
+                        meterRegistry);
+        ReflectionTestUtils.setField(outbox, "capacity", 10);
+        ReflectionTestUtils.setField(outbox, "batchSize", 200);
+        ReflectionTestUtils.setField(outbox, "pushThrottleMinutes", 10L);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        releaseFirstInsert.countDown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        if (!stopped) {
+            outbox.shutdown();
+        }
+    }
+
+    @Test
+    void queuesARecordOnlyOnceItsTransactionCommits() {
+        outbox.init();
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.append(1L, MESSAGE);
+        verify(notificationRepo, after(300).never()).insertForRecipients(any(), any());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        verify(unreadCounter, timeout(2000)).increment(1L);
+        verify(streamRegistry, timeout(2000)).publish(any(), anyList());
+    }
+
+    @Test
+    void aRolledBackTransactionQueuesNothing() {
+        outbox.init();
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.append(1L, MESSAGE);
+        // Rollback: the synchronizations are dropped without afterCommit
+        TransactionSynchronizationManager.clearSynchronization();
+
+        verify(notificationRepo, after(500).never()).insertForRecipients(any(), any());
+    }
+
+    @Test
+    void aFullQueueDropsAndCountsTheRecordWithoutWaiting() throws Exception {
+        ReflectionTestUtils.setField(outbox, "capacity", 1);
+        outbox.init();
+        holdWorkerOn(1L);
+        outbox.append(2L, MESSAGE);
+
+        // Returns while the worker is still held, so the caller never waits for room
+        CompletableFuture.runAsync(() -> outbox.append(3L, MESSAGE)).get(1, TimeUnit.SECONDS);
+
+        assertThat(dropped()).isEqualTo(1);
+        releaseFirstInsert.countDown();
+        await(() -> writtenBy.containsKey(2L));
+        verify(notificationRepo, after(300).never()).insertForRecipients(List.of(3L), MESSAGE);
+        assertThat(writtenBy).doesNotContainKey(3L);
+    }
+
+    @Test
+    void aFailedBatchFallsBackToOneWritePerRecord() throws Exception {
+        outbox.init();
+        holdWorkerOn(1L);
+        failing.put(3L, true);
+        for (long userId = 2; userId <= 4; userId++) {
+            outbox.append(userId, MESSAGE);
+        }
+
+        releaseFirstInsert.countDown();
+
+        verify(unreadCounter, timeout(2000)).increment(2L);
+        verify(unreadCounter, timeout(2000)).increment(4L);
+        verify(unreadCounter, never()).increment(3L);
+        // The batch of 2..4 rolled back, then each record ran in its own transaction
+        verify(transactionManager, timeout(2000).atLeastOnce()).rollback(any());
+    }
+
+    @Test
+    void shutdownDrainsWhatIsAlreadyQueued() throws Exception {
+        outbox.init();
+        holdWorkerOn(1L);
+        for (long userId = 2; userId <= 5; userId++) {
+            outbox.append(userId, MESSAGE);
+        }
+
+        stopped = true;
+        CompletableFuture<Void> shutdown =
+                CompletableFuture.runAsync(
+                        () -> {
+                            try {
+                                outbox.shutdown();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        releaseFirstInsert.countDown();
+        shutdown.get(5, TimeUnit.SECONDS);
+
+        assertThat(writtenBy).containsOnlyKeys(1L, 2L, 3L, 4L, 5L);
+    }
+
+    private double dropped() {
+        return meterRegistry.counter("notifications.outbox", "outcome", "dropped").count();
+    }
+
+    // Park the worker inside the insert of the given recipient until releaseFirstInsert
+    private void holdWorkerOn(Long userId) throws InterruptedException {
+        blockedUser = userId;
+        outbox.append(userId, MESSAGE);
+        assertThat(firstInsertEntered.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
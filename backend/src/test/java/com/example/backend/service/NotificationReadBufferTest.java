@@ -0,0 +1,161 @@
+package com.example.backend.service;
+
+import com.example.backend.push.PushSubscriptionCache;
+import com.example.backend.repository.NotificationBulkOperations.ReadAck;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.repository.PushSubscriptionRepository;
+import com.example.backend.security.CurrentUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationReadBufferTest {
+
+    private final NotificationRepository notificationRepo = mock(NotificationRepository.class);
+    private final UnreadNotificationCounter unreadCounter = mock(UnreadNotificationCounter.class);
+    private final NotificationReadBuffer buffer = new NotificationReadBuffer(notificationRepo, unreadCounter);
+
+    private boolean started;
+
+    @AfterEach
+    void tearDown() {
+        if (started) {
+            buffer.shutdown();
+        }
+    }
+
+    @Test
+    void acknowledgementsAreCoalescedIntoOneStatement() {
+        // A long interval so only the explicit flush writes
+        start(60_000, 500);
+        when(notificationRepo.markReadByIds(anyCollection())).thenReturn(List.of(1L, 1L, 2L));
+
+        buffer.markRead(1L, 10L);
+        buffer.markRead(1L, 11L);
+        buffer.markRead(1L, 10L);
+        buffer.markRead(2L, 20L);
+        flush();
+
+        assertThat(flushedAcks())
+                .containsExactlyInAnyOrder(new ReadAck(10L, 1L), new ReadAck(11L, 1L), new ReadAck(20L, 2L));
+        verify(unreadCounter, times(2)).decrement(1L);
+        verify(unreadCounter).decrement(2L);
+    }
+
+    @Test
+    void anotherUsersAcknowledgementDoesNotReplaceTheOwners() {
+        start(60_000, 500);
+
+        buffer.markRead(1L, 10L);
+        buffer.markRead(2L, 10L);
+        flush();
+
+        // Both reach the UPDATE; only the one matching the row's user_id can change it
+        assertThat(flushedAcks()).containsExactlyInAnyOrder(new ReadAck(10L, 1L), new ReadAck(10L, 2L));
+    }
+
+    @Test
+    void aFullBatchFlushesWithoutWaitingForTheInterval() {
+        start(60_000, 3);
+
+        buffer.markRead(1L, 10L);
+        buffer.markRead(1L, 11L);
+        buffer.markRead(1L, 12L);
+
+        verify(notificationRepo, timeout(2000)).markReadByIds(anyCollection());
+    }
+
+    @Test
+    void theScheduledFlushWritesPendingAcknowledgements() {
+        start(50, 500);
+
+        buffer.markRead(1L, 10L);
+
+        verify(notificationRepo, timeout(2000)).markReadByIds(List.of(new ReadAck(10L, 1L)));
+    }
+
+    @Test
+    void aFailedFlushMovesNoCounters() {
+        start(60_000, 500);
+        when(notificationRepo.markReadByIds(anyCollection())).thenThrow(new IllegalStateException("down"));
+
+        buffer.markRead(1L, 10L);
+        flush();
+
+        verify(unreadCounter, never()).decrement(anyLong());
+    }
+
+    @Test
+    void nothingPendingMeansNoStatement() {
+        start(60_000, 500);
+
+        flush();
+
+        verify(notificationRepo, never()).markReadByIds(anyCollection());
+    }
+
+    @Test
+    void shutdownFlushesWhatIsPending() {
+        start(60_000, 500);
+        buffer.markRead(1L, 10L);
+
+        started = false;
+        buffer.shutdown();
+
+        verify(notificationRepo).markReadByIds(List.of(new ReadAck(10L, 1L)));
+    }
+
+    @Test
+    void markAsReadAcknowledgesForTheCurrentUser() {
+        NotificationReadBuffer readBuffer = mock(NotificationReadBuffer.class);
+        CurrentUser currentUser = mock(CurrentUser.class);
+        when(currentUser.id()).thenReturn(5L);
+        NotificationService service =
+                new NotificationService(
+                        notificationRepo,
+                        mock(PushSubscriptionRepository.class),
+                        mock(NotificationOutbox.class),
+                        mock(PushSubscriptionCache.class),
+                        unreadCounter,
+                        mock(NotificationStreamRegistry.class),
+                        readBuffer,
+                        mock(NotificationRenderer.class),
+                        currentUser);
+
+        service.markAsRead(10L);
+
+        verify(readBuffer).markRead(5L, 10L);
+    }
+
+    private void start(long flushIntervalMs, int batchSize) {
+        ReflectionTestUtils.setField(buffer, "flushIntervalMs", flushIntervalMs);
+        ReflectionTestUtils.setField(buffer, "batchSize", batchSize);
+        buffer.init();
+        started = true;
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(buffer, "flush");
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<ReadAck> flushedAcks() {
+        ArgumentCaptor<Collection<ReadAck>> acks = ArgumentCaptor.forClass(Collection.class);
+        verify(notificationRepo).markReadByIds(acks.capture());
+        return acks.getValue();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import com.example.backend.model.NotificationKind;
+import com.example.backend.model.Role;
+import com.example.backend.model.RoleName;
+import com.example.backend.repository.EventRepository;
+import com.example.backend.repository.IdAndName;
+import com.example.backend.repository.RoleRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.service.NotificationRenderer.Template;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationRendererTest {
+
+    private static final Locale EN = Locale.ENGLISH;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final EventRepository eventRepository = mock(EventRepository.class);
+    private final RoleRepository roleRepository = mock(RoleRepository.class);
+    private NotificationRenderer renderer;
+
+    @BeforeEach
+    void setUp() {
+        // Same setup as spring.messages.* in application.properties
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+
+        renderer = new NotificationRenderer(messageSource, userRepository, eventRepository, roleRepository);
+        ReflectionTestUtils.setField(renderer, "nameCacheSize", 100L);
+        ReflectionTestUtils.setField(renderer, "nameCacheTtlMinutes", 10L);
+        renderer.init();
+
+        when(userRepository.findNamesByIdIn(anyCollection()))
+                .thenReturn(List.of(new Name(1L, "ann"), new Name(2L, "ben"), new Name(3L, "cat")));
+        when(eventRepository.findNamesByIdIn(anyCollection()))
+                .thenReturn(List.of(new Name(10L, "Beach cleanup")));
+    }
+
+    @Test
+    void rendersActorAndEventNames() {
+        assertThat(render(NotificationKind.EVENT_REGISTERED, List.of(1L), 1, 10L, EN))
+                .isEqualTo("<b>ann</b> registered for event <b>Beach cleanup</b>");
+    }
+
+    @Test
+    void summarisesGroupedActors() {
+        assertThat(render(NotificationKind.POST_LIKE, List.of(1L, 2L), 2, 5L, EN))
+                .isEqualTo("<b>ann</b> and <b>ben</b> liked your post");
+        assertThat(render(NotificationKind.POST_LIKE, List.of(1L), 4, 5L, EN))
+                .isEqualTo("<b>ann</b> and 3 others liked your post");
+        // Only the two newest actors are named
+        assertThat(render(NotificationKind.POST_LIKE, List.of(3L, 2L, 1L), 25, 5L, EN))
+                .isEqualTo("<b>cat</b>, <b>ben</b> and 23 others liked your post");
+    }
+
+    @Test
+    void rendersTheDefaultLocale() {
+        assertThat(
+                        render(
+                                NotificationKind.POST_LIKE,
+                                List.of(1L, 2L),
+                                25,
+                                5L,
+                                NotificationRenderer.DEFAULT_LOCALE))
+                .isEqualTo("<b>ann</b>, <b>ben</b> và 23 người khác vừa thích bài viết của bạn");
+    }
+
+    @Test
+    void namesAnUnknownActorOrEventGenerically() {
+        assertThat(render(NotificationKind.EVENT_CREATED, List.of(99L), 1, 77L, EN))
+                .isEqualTo("Organizer <b>Someone</b> created a new event <b>Someone</b>, awaiting approval");
+    }
+
+    @Test
+    void rendersRoleNames() {
+        Role host = Role.builder().name(RoleName.HOST).build();
+        host.setId(2L);
+        when(roleRepository.findAllById(anyCollection())).thenReturn(List.of(host));
+
+        assertThat(render(NotificationKind.ROLE_CHANGED, List.of(), 1, 2L, EN))
+                .isEqualTo(
+                        "[ROLE_CHANGED] Your role has been changed to <b>HOST</b>. Please refresh to apply changes.");
+    }
+
+    @Test
+    void keepsLiteralContent() {
+        Template literal = new Template(null, List.of(), 1, null, "Maintenance tonight");
+
+        assertThat(renderer.render(literal, EN)).isEqualTo("Maintenance tonight");
+    }
+
+    @Test
+    void looksUpEachNameOncePerPageAndCachesIt() {
+        List<Template> page =
+                List.of(
+                        new Template(NotificationKind.POST_LIKE, List.of(1L, 2L), 2, 5L, null),
+                        new Template(NotificationKind.COMMENT_LIKE, List.of(2L), 1, 6L, null),
+                        new Template(NotificationKind.EVENT_POST, List.of(), 1, 10L, null));
+
+        assertThat(renderer.renderAll(page, EN))
+                .containsExactly(
+                        "<b>ann</b> and <b>ben</b> liked your post",
+                        "<b>ben</b> liked your comment",
+                        "There is a new post in event <b>Beach cleanup</b>");
+        renderer.renderAll(page, EN);
+
+        verify(userRepository, times(1)).findNamesByIdIn(anyCollection());
+        verify(eventRepository, times(1)).findNamesByIdIn(anyCollection());
+    }
+
+    @Test
+    void parsesAndJoinsActorIds() {
+        assertThat(NotificationRenderer.parseActorIds("3,2,1", 9L)).containsExactly(3L, 2L, 1L);
+        assertThat(NotificationRenderer.parseActorIds(null, 9L)).containsExactly(9L);
+        assertThat(NotificationRenderer.parseActorIds("", null)).isEmpty();
+        assertThat(NotificationRenderer.joinActorIds(List.of(3L, 2L, 1L))).isEqualTo("3,2,1");
+    }
+
+    private String render(NotificationKind kind, List<Long> actorIds, int actorCount, Long entityId, Locale locale) {
+        return renderer.render(new Template(kind, actorIds, actorCount, entityId, null), locale);
+    }
+
+    private record Name(Long getId, String getName) implements IdAndName {}
+}
@@ -0,0 +1,163 @@
+package com.example.backend.service;
+
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationRetentionJobTest extends PostgresTest {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private NotificationRetentionJob job;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        job = new NotificationRetentionJob(jdbcTemplate);
+        ReflectionTestUtils.setField(job, "enabled", true);
+        ReflectionTestUtils.setField(job, "mode", "archive");
+        ReflectionTestUtils.setField(job, "readMaxAgeDays", 90);
+        ReflectionTestUtils.setField(job, "archiveMonths", 12);
+        // Small chunks so a run takes several statements
+        ReflectionTestUtils.setField(job, "chunkSize", 2);
+        ReflectionTestUtils.setField(job, "chunkPauseMs", 0L);
+        userId = user("reader").getId();
+    }
+
+    @Test
+    void movesOldReadRowsIntoTheirMonthsPartition() {
+        List<Long> old = List.of(insert(100, true), insert(130, true), insert(160, true));
+        Long oldUnread = insert(160, false);
+        Long recentRead = insert(10, true);
+
+        job.run();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications ORDER BY id", Long.class))
+                .containsExactly(oldUnread, recentRead);
+
+        List<Map<String, Object>> archived =
+                jdbcTemplate.queryForList(
+                        "SELECT id, tableoid::regclass::text AS part, created_at, updated_at, content"
+                                + " FROM notifications_archive");
+        assertThat(archived).extracting(row -> row.get("id")).containsExactlyInAnyOrderElementsOf(old);
+        assertThat(archived)
+                .allSatisfy(
+                        row -> {
+                            LocalDateTime createdAt = ((Timestamp) row.get("created_at")).toLocalDateTime();
+                            assertThat(row.get("part"))
+                                    .isEqualTo("notifications_archive_" + YearMonth.from(createdAt).format(SUFFIX));
+                            assertThat(row.get("updated_at")).isEqualTo(row.get("created_at"));
+                            assertThat(row.get("content")).isEqualTo("old news");
+                        });
+    }
+
+    @Test
+    void deleteModeDropsOldReadRows() {
+        ReflectionTestUtils.setField(job, "mode", "delete");
+        insert(100, true);
+        insert(130, true);
+        insert(160, true);
+        Long oldUnread = insert(160, false);
+
+        job.run();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications", Long.class))
+                .containsExactly(oldUnread);
+        assertThat(count("notifications_archive")).isZero();
+    }
+
+    @Test
+    void dropsArchivePartitionsPastTheRetainedMonths() {
+        YearMonth expired = YearMonth.now().minusMonths(13);
+        YearMonth kept = YearMonth.now().minusMonths(11);
+        createPartition(expired);
+        createPartition(kept);
+
+        job.run();
+
+        assertThat(partitions())
+                .contains("notifications_archive_default", "notifications_archive_" + kept.format(SUFFIX))
+                .doesNotContain("notifications_archive_" + expired.format(SUFFIX));
+    }
+
+    @Test
+    void trimsTheDefaultPartitionToTheRetainedMonths() {
+        // No monthly partitions exist, so both rows land in the default one
+        archived(YearMonth.now().minusMonths(13).atDay(1).atStartOfDay());
+        Long kept = archived(YearMonth.now().minusMonths(11).atDay(1).atStartOfDay());
+        archived(YearMonth.now().minusMonths(14).atDay(1).atStartOfDay());
+        archived(YearMonth.now().minusMonths(15).atDay(1).atStartOfDay());
+
+        job.run();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM notifications_archive_default", Long.class))
+                .containsExactly(kept);
+    }
+
+    @Test
+    void doesNothingWhenDisabled() {
+        ReflectionTestUtils.setField(job, "enabled", false);
+        insert(100, true);
+
+        job.run();
+
+        assertThat(count("notifications")).isEqualTo(1);
+    }
+
+    private Long insert(int daysAgo, boolean read) {
+        Timestamp createdAt =
+                Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo).truncatedTo(ChronoUnit.MICROS));
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO notifications (user_id, content, is_read, created_at, updated_at, actor_count)"
+                        + " VALUES (?, 'old news', ?, ?, ?, 1) RETURNING id",
+                Long.class,
+                userId,
+                read,
+                createdAt,
+                createdAt);
+    }
+
+    private Long archived(LocalDateTime createdAt) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO notifications_archive (id, user_id, content, is_read, created_at, updated_at)"
+                        + " VALUES (nextval('notifications_id_seq'), ?, 'old news', true, ?, ?) RETURNING id",
+                Long.class,
+                userId,
+                Timestamp.valueOf(createdAt),
+                Timestamp.valueOf(createdAt));
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute(
+                "CREATE TABLE notifications_archive_" + month.format(SUFFIX)
+                        + " PARTITION OF notifications_archive FOR VALUES FROM ('" + month.atDay(1)
+                        + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid"
+                        + " WHERE i.inhparent = 'notifications_archive'::regclass",
+                String.class);
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Integer.class);
+    }
+}
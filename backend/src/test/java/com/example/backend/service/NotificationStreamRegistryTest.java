@@ -0,0 +1,308 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationResponse;
+import com.example.backend.model.Notification;
+import com.example.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static com.example.backend.support.Await.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class NotificationStreamRegistryTest {
+
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final NotificationRepository notificationRepo = mock(NotificationRepository.class);
+    private final NotificationRenderer renderer = mock(NotificationRenderer.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private final List<RecordingEmitter> opened = new CopyOnWriteArrayList<>();
+
+    private NotificationStreamRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any()))
+                .thenAnswer(
+                        invocation -> {
+                            inTransaction.set(true);
+                            return null;
+                        });
+        doAnswer(
+                        invocation -> {
+                            inTransaction.set(false);
+                            return null;
+                        })
+                .when(transactionManager)
+                .commit(any());
+
+        registry =
+                new NotificationStreamRegistry(notificationRepo, renderer, transactionManager) {
+                    @Override
+                    SseEmitter newEmitter() {
+                        RecordingEmitter emitter = new RecordingEmitter();
+                        opened.add(emitter);
+                        return emitter;
+                    }
+                };
+        ReflectionTestUtils.setField(registry, "timeoutMs", 60_000L);
+        // Heartbeats are sent by hand below
+        ReflectionTestUtils.setField(registry, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(registry, "maxPerUser", 2);
+        ReflectionTestUtils.setField(registry, "replayLimit", 100);
+        registry.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void evictsTheOldestStreamOnceAUserIsAtTheCap() throws Exception {
+        RecordingEmitter first = open(1L);
+        RecordingEmitter second = open(1L);
+        RecordingEmitter third = open(1L);
+
+        assertThat(first.completed).isTrue();
+        assertThat(second.completed).isFalse();
+        assertThat(third.completed).isFalse();
+        assertThat(streams().get(1L)).containsExactly(second, third);
+
+        registry.publish(1L, List.of(response(9L)));
+        await(() -> second.notificationIds().size() == 1 && third.notificationIds().size() == 1);
+        assertThat(first.notificationIds()).isEmpty();
+    }
+
+    @Test
+    void concurrentOpensNeverExceedTheCap() throws Exception {
+        int opens = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(opens);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < opens; i++) {
+                futures.add(
+                        pool.submit(
+                                () -> {
+                                    start.await();
+                                    return registry.open(1L, null);
+                                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(streams().get(1L)).hasSize(2);
+        assertThat(opened.stream().filter(emitter -> emitter.completed)).hasSize(opens - 2);
+        assertThat(streams().get(1L)).allMatch(emitter -> !((RecordingEmitter) emitter).completed);
+    }
+
+    @Test
+    void heartbeatDropsStreamsThatCanNoLongerBeWritten() throws Exception {
+        RecordingEmitter gone = open(1L);
+        RecordingEmitter alive = open(1L);
+        gone.broken = true;
+
+        ReflectionTestUtils.invokeMethod(registry, "sendHeartbeats");
+
+        await(() -> streams().get(1L).size() == 1);
+        assertThat(streams().get(1L)).containsExactly(alive);
+        await(() -> alive.comments() == 1);
+
+        // The last stream of a user takes the user's entry with it
+        alive.broken = true;
+        ReflectionTestUtils.invokeMethod(registry, "sendHeartbeats");
+        await(() -> !streams().containsKey(1L));
+    }
+
+    @Test
+    void replaysNotificationsAfterTheLastEventIdOutsideTheReadOnlyTransaction() {
+        when(notificationRepo.findByUserIdAndIdGreaterThanOrderByIdAsc(1L, 5L, PageRequest.of(0, 100)))
+                .thenReturn(List.of(notification(6L), notification(7L)));
+        when(renderer.renderAll(anyList(), any())).thenReturn(List.of("six", "seven"));
+
+        // A bare id, as sent before event ids carried updatedAt
+        RecordingEmitter emitter = open(1L, "5");
+
+        assertThat(emitter.notificationIds()).containsExactly(6L, 7L);
+        assertThat(emitter.sentInTransaction).isFalse();
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertThat(definition.getValue().isReadOnly()).isTrue();
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void publishedEventsArriveInOrder() throws Exception {
+        RecordingEmitter emitter = open(1L);
+        List<Long> ids = LongStream.rangeClosed(1, 200).boxed().toList();
+
+        for (Long id : ids) {
+            registry.publish(1L, List.of(response(id)));
+        }
+
+        await(() -> emitter.notificationIds().size() == ids.size());
+        assertThat(emitter.notificationIds()).isEqualTo(ids);
+    }
+
+    @Test
+    void eventsPublishedDuringTheReplayFollowIt() throws Exception {
+        when(notificationRepo.findByUserIdAndIdGreaterThanOrderByIdAsc(1L, 5L, PageRequest.of(0, 100)))
+                .thenReturn(List.of(notification(6L), notification(7L)));
+        // The outbox publishes 7 again and a new 8 while the replay is being loaded
+        when(renderer.renderAll(anyList(), any()))
+                .thenAnswer(
+                        invocation -> {
+                            registry.publish(
+                                    1L,
+                                    List.of(
+                                            NotificationResponse.fromNotification(notification(7L), "seven"),
+                                            NotificationResponse.fromNotification(notification(8L), "eight")));
+                            return List.of("six", "seven");
+                        });
+
+        RecordingEmitter emitter = open(1L, "5");
+
+        await(() -> emitter.notificationIds().size() == 3);
+        assertThat(emitter.notificationIds()).containsExactly(6L, 7L, 8L);
+    }
+
+    @Test
+    void eventIdsCarryTheUpdatedAtTheyWereSentWith() {
+        LocalDateTime updatedAt = LocalDateTime.of(2026, 1, 1, 12, 0, 0, 123_456_000);
+        NotificationResponse sent = new NotificationResponse(5L, "five", null, false, updatedAt, updatedAt);
+
+        String eventId = NotificationStreamRegistry.EventCursor.format(sent);
+
+        assertThat(eventId).isEqualTo("1767268800123456-5");
+        assertThat(NotificationStreamRegistry.EventCursor.parse(eventId))
+                .isEqualTo(new NotificationStreamRegistry.EventCursor(updatedAt, 5L));
+        assertThat(NotificationStreamRegistry.EventCursor.parse("5"))
+                .isEqualTo(new NotificationStreamRegistry.EventCursor(null, 5L));
+    }
+
+    @Test
+    void opensWithoutReplayForAnEventIdItDidNotWrite() {
+        RecordingEmitter emitter = open(1L, "not-an-id");
+
+        assertThat(emitter.notificationIds()).isEmpty();
+        verifyNoInteractions(notificationRepo, transactionManager);
+    }
+
+    @Test
+    void opensWithoutReplayWhenThereIsNoLastEventId() {
+        RecordingEmitter emitter = open(1L);
+
+        assertThat(emitter.notificationIds()).isEmpty();
+        verifyNoInteractions(notificationRepo, transactionManager);
+    }
+
+    private RecordingEmitter open(Long userId) {
+        return open(userId, null);
+    }
+
+    private RecordingEmitter open(Long userId, String lastEventId) {
+        return (RecordingEmitter) registry.open(userId, lastEventId);
+    }
+
+    // The open emitters per user, oldest first
+    @SuppressWarnings("unchecked")
+    private Map<Long, List<SseEmitter>> streams() {
+        Map<Long, Deque<NotificationStreamRegistry.Stream>> streams =
+                (Map<Long, Deque<NotificationStreamRegistry.Stream>>) ReflectionTestUtils.getField(registry, "streams");
+        return streams.entrySet().stream()
+                .collect(
+                        Collectors.toMap(
+                                Map.Entry::getKey,
+                                entry -> entry.getValue().stream().map(stream -> stream.emitter).toList()));
+    }
+
+    private static Notification notification(Long id) {
+        Notification notification = new Notification();
+        notification.setId(id);
+        notification.setContent("content " + id);
+        notification.setCreatedAt(CREATED_AT);
+        notification.setUpdatedAt(CREATED_AT);
+        return notification;
+    }
+
+    private static NotificationResponse response(Long id) {
+        return new NotificationResponse(id, "content " + id, null, false, null, null);
+    }
+
+    // Records what the registry sends instead of writing to a servlet response
+    private class RecordingEmitter extends SseEmitter {
+        private final List<Set<DataWithMediaType>> events = new CopyOnWriteArrayList<>();
+        volatile boolean broken;
+        volatile boolean completed;
+        volatile boolean sentInTransaction;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            sentInTransaction |= inTransaction.get();
+            events.add(builder.build());
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<Long> notificationIds() {
+            return events.stream()
+                    .flatMap(Set::stream)
+                    .filter(data -> MediaType.APPLICATION_JSON.equals(data.getMediaType()))
+                    .map(data -> (NotificationResponse) data.getData())
+                    .map(NotificationResponse::getId)
+                    .toList();
+        }
+
+        long comments() {
+            return events.stream()
+                    .flatMap(Set::stream)
+                    .filter(data -> String.valueOf(data.getData()).startsWith(":ping"))
+                    .count();
+        }
+    }
+}
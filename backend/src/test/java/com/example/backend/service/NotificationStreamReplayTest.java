@@ -0,0 +1,121 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.NotificationResponse;
+import com.example.backend.model.NotificationKind;
+import com.example.backend.repository.NotificationRepository;
+import com.example.backend.service.NotificationCoalescer.Merged;
+import com.example.backend.service.NotificationOutbox.GroupedNotification;
+import com.example.backend.support.PostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NotificationStreamReplayTest extends PostgresTest {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private NotificationCoalescer coalescer;
+    private NotificationStreamRegistry registry;
+    private final List<NotificationResponse> sent = new CopyOnWriteArrayList<>();
+    private Long recipient;
+    private List<Long> likers;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new NotificationCoalescer(notificationRepository);
+        ReflectionTestUtils.setField(coalescer, "windowMinutes", 60L);
+        ReflectionTestUtils.setField(coalescer, "sampleSize", 3);
+
+        NotificationRenderer renderer = mock(NotificationRenderer.class);
+        when(renderer.renderAll(anyList(), any()))
+                .thenAnswer(invocation -> ((List<?>) invocation.getArgument(0)).stream().map(t -> "text").toList());
+        registry =
+                new NotificationStreamRegistry(notificationRepository, renderer, transactionManager) {
+                    @Override
+                    SseEmitter newEmitter() {
+                        return new SseEmitter() {
+                            @Override
+                            public void send(SseEventBuilder builder) {
+                                builder.build().stream()
+                                        .filter(data -> MediaType.APPLICATION_JSON.equals(data.getMediaType()))
+                                        .map(data -> (NotificationResponse) data.getData())
+                                        .forEach(sent::add);
+                            }
+                        };
+                    }
+                };
+        ReflectionTestUtils.setField(registry, "timeoutMs", 60_000L);
+        ReflectionTestUtils.setField(registry, "heartbeatSeconds", 3600L);
+        ReflectionTestUtils.setField(registry, "maxPerUser", 5);
+        ReflectionTestUtils.setField(registry, "replayLimit", 100);
+        registry.init();
+
+        recipient = user("recipient").getId();
+        likers = List.of(user("liker1").getId(), user("liker2").getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.shutdown();
+    }
+
+    @Test
+    void resumesFromTheGroupAsItWasSentNotAsItIsNow() {
+        // The client receives group 1 and disconnects
+        Merged group = like(1, likers.get(0));
+        String lastEventId = NotificationStreamRegistry.EventCursor.format(response(group));
+
+        // Meanwhile a new row is created and the group takes another actor
+        Merged created = like(2, likers.get(0));
+        Merged merged = like(1, likers.get(1));
+        assertThat(merged.row().id()).isEqualTo(group.row().id());
+
+        registry.open(recipient, lastEventId);
+
+        assertThat(sent).extracting(NotificationResponse::getId)
+                .containsExactly(created.row().id(), group.row().id());
+        assertThat(sent.get(1).getUpdatedAt()).isEqualTo(merged.row().updatedAt());
+    }
+
+    @Test
+    void replaysNothingWhenNothingChangedSinceTheLastEvent() {
+        Merged group = like(1, likers.get(0));
+
+        registry.open(recipient, NotificationStreamRegistry.EventCursor.format(response(group)));
+
+        assertThat(sent).isEmpty();
+    }
+
+    private Merged like(long postId, Long actorId) {
+        return coalescer
+                .merge(
+                        List.of(
+                                new GroupedNotification(
+                                        recipient, NotificationKind.POST_LIKE, postId, actorId, "/posts/" + postId)))
+                .get(0);
+    }
+
+    // What the outbox publishes for a merged row
+    private static NotificationResponse response(Merged merged) {
+        return new NotificationResponse(
+                merged.row().id(), "text", merged.link(), false, merged.row().createdAt(), merged.row().updatedAt());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.backend.service;
+
+import com.example.backend.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadNotificationCounterTest {
+
+    private final NotificationRepository notificationRepo = mock(NotificationRepository.class);
+    private final UnreadNotificationCounter counter = new UnreadNotificationCounter(notificationRepo);
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(counter, "maxSize", 100L);
+        ReflectionTestUtils.setField(counter, "ttlMinutes", 10L);
+        counter.init();
+        when(notificationRepo.countByUserIdAndIsReadFalse(1L)).thenReturn(4L);
+    }
+
+    @Test
+    void theCountIsLoadedOnceThenServedFromMemory() {
+        assertThat(counter.get(1L)).isEqualTo(4);
+        assertThat(counter.get(1L)).isEqualTo(4);
+
+        verify(notificationRepo, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    void writesAndReadsAdjustALoadedCount() {
+        counter.get(1L);
+
+        counter.increment(1L);
+        counter.increment(1L);
+        counter.decrement(1L);
+        counter.subtract(1L, 2);
+
+        assertThat(counter.get(1L)).isEqualTo(3);
+        verify(notificationRepo, times(1)).countByUserIdAndIsReadFalse(1L);
+    }
+
+    @Test
+    void anAbsentCountIsLeftForTheNextLoad() {
+        counter.increment(1L);
+        counter.decrement(1L);
+        counter.subtract(1L, 3);
+
+        verify(notificationRepo, never()).countByUserIdAndIsReadFalse(anyLong());
+        assertThat(counter.get(1L)).isEqualTo(4);
+    }
+
+    @Test
+    void theCountNeverGoesBelowZero() {
+        counter.get(1L);
+
+        counter.subtract(1L, 10);
+        counter.decrement(1L);
+
+        assertThat(counter.get(1L)).isZero();
+    }
+
+    @Test
+    void concurrentAdjustmentsAreNotLost() throws Exception {
+        counter.get(1L);
+        int threads = 8;
+        int perThread = 10_000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(
+                        pool.submit(
+                                () -> {
+                                    start.await();
+                                    for (int i = 0; i < perThread; i++) {
+                                        counter.increment(1L);
+                                        counter.increment(1L);
+                                        counter.decrement(1L);
+                                    }
+                                    return null;
+                                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(counter.get(1L)).isEqualTo(4L + (long) threads * perThread);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.backend.support;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+public final class Await {
+
+    private Await() {}
+
+    /**
+     * Poll until the condition holds; fails the test after five seconds.
+     */
+    public static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 5 seconds");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.backend.support;
+
+import com.example.backend.counter.CounterBuffer;
+import com.example.backend.model.Role;
+import com.example.backend.model.RoleName;
+import com.example.backend.model.User;
+import com.example.backend.repository.RoleRepository;
+import com.example.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * Repository and SQL tests against a real PostgreSQL. The native statements rely on
+ * arrays, RETURNING, ON CONFLICT, recursive CTEs and partitions, which the mocks in the
+ * service tests never run. Skipped where Docker is not available. Each test runs in a
+ * transaction that is rolled back afterwards.
+ *
+ * <p>The counter buffer is part of the slice because Hibernate's entity listeners need it;
+ * it only flushes when a test calls {@link CounterBuffer#flush()}.
+ */
+@DataJpaTest(
+        properties = {
+            "spring.jpa.hibernate.ddl-auto=create-drop",
+            "counters.buffer.flush-interval-ms=3600000"
+        })
+@Import(CounterBuffer.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// The container is restarted per test class, so a cached context would point at a stale port
+@DirtiesContext
+public abstract class PostgresTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected RoleRepository roleRepository;
+
+    protected User user(String username) {
+        Role role =
+                roleRepository
+                        .findByName(RoleName.USER)
+                        .orElseGet(() -> roleRepository.save(Role.builder().name(RoleName.USER).build()));
+        return userRepository.save(
+                User.builder()
+                        .username(username)
+                        .email(username + "@example.com")
+                        .password("password")
+                        .role(role)
+                        .build());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.backend.telemetry;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RequestTelemetryFilterTest {
+
+    private static final long PHASE_MS = 20;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestTelemetryFilter filter = new RequestTelemetryFilter(meterRegistry);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/post/7");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+        ReflectionTestUtils.setField(filter, "slowThresholdMs", 60_000L);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/post/{postId}");
+    }
+
+    @Test
+    void recordsEachPhaseAndATotalThatCoversThem() throws Exception {
+        // Each phase is reported by its own component, as in a real request
+        FilterChain chain =
+                (req, res) -> {
+                    RequestTimings.record(RequestTimings.Phase.AUTH, pause());
+                    DbTimingListener listener = new DbTimingListener();
+                    listener.jdbcExecuteStatementStart();
+                    pause();
+                    listener.jdbcExecuteStatementEnd();
+                    listener.jdbcExecuteBatchStart();
+                    pause();
+                    listener.jdbcExecuteBatchEnd();
+                    new SerializationTimingAdvice().beforeBodyWrite("body", null, null, null, null, null);
+                    pause();
+                };
+
+        filter.doFilter(request, response, chain);
+
+        long auth = nanos("auth");
+        long db = nanos("db");
+        long serialization = nanos("serialization");
+        assertThat(auth).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(PHASE_MS));
+        assertThat(db).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(2 * PHASE_MS));
+        assertThat(serialization).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(PHASE_MS));
+        assertThat(nanos("total")).isGreaterThanOrEqualTo(auth + db + serialization);
+        assertThat(timer("total").count()).isEqualTo(1);
+        assertThat(currentTimings()).isNull();
+    }
+
+    @Test
+    void aFailedRequestIsStillRecordedAndItsTimingsCleared() {
+        FilterChain chain =
+                (req, res) -> {
+                    RequestTimings.record(RequestTimings.Phase.AUTH, 5);
+                    throw new ServletException("boom");
+                };
+
+        assertThatThrownBy(() -> filter.doFilter(request, response, chain)).isInstanceOf(ServletException.class);
+
+        assertThat(timer("total").count()).isEqualTo(1);
+        assertThat(nanos("auth")).isEqualTo(5);
+        assertThat(currentTimings()).isNull();
+
+        // Nothing leaks into whatever runs next on this thread
+        RequestTimings.record(RequestTimings.Phase.AUTH, 1_000);
+        assertThat(currentTimings()).isNull();
+    }
+
+    @Test
+    void anUnmatchedRequestIsTaggedWithoutItsRawUri() throws Exception {
+        request.removeAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+
+        filter.doFilter(request, response, (req, res) -> {});
+
+        assertThat(meterRegistry.find("http.request.phase").tag("route", "UNMATCHED").timers()).hasSize(4);
+    }
+
+    private long nanos(String phase) {
+        return (long) timer(phase).totalTime(TimeUnit.NANOSECONDS);
+    }
+
+    private Timer timer(String phase) {
+        return meterRegistry
+                .get("http.request.phase")
+                .tags("route", "/post/{postId}", "method", "GET", "phase", phase)
+                .timer();
+    }
+
+    private static Object currentTimings() {
+        ThreadLocal<?> current = (ThreadLocal<?>) ReflectionTestUtils.getField(RequestTimings.class, "CURRENT");
+        return current.get();
+    }
+
+    private static long pause() {
+        long start = System.nanoTime();
+        try {
+            Thread.sleep(PHASE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return System.nanoTime() - start;
+    }
+}
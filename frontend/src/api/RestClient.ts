@@ -337,6 +337,26 @@ export class RestClient {
 		return await result.json();
 	}
 
+	// Live notifications over Server-Sent Events; returns a function that closes the stream.
+	// EventSource cannot set headers, so the token goes in the query string. The browser
+	// reconnects on its own and the server replays what was missed since the last event.
+	static openNotificationStream(onNotification: (notification: any) => void): () => void {
+		const token = this.getAuthToken();
+		if (!token) return () => {};
+
+		const url = `${RestClient.baseUrl}/notifications/stream?access_token=${encodeURIComponent(token)}`;
+		const source = new EventSource(url);
+		source.addEventListener("notification", (event) => {
+			try {
+				onNotification(JSON.parse((event as MessageEvent).data));
+			} catch (err) {
+				console.error("Failed to parse notification event:", err);
+			}
+		});
+
+		return () => source.close();
+	}
+
 	static async getUnreadNotificationCount(userId: number): Promise<any> {
 		const url = `${RestClient.baseUrl}/notifications/count/${userId}`;
 
@@ -367,27 +387,20 @@ export class RestClient {
 		return await result.json();
 	}
 
+	// One request marks every unread notification of the user, not just the loaded page
 	static async markAllNotificationsAsRead(userId: number): Promise<any> {
-		// First get all notifications, then mark unread ones as read
-		const notifications = await this.getUserNotifications(userId);
-		
-		if (!notifications.data) {
-			return { success: false, message: "Failed to get notifications" };
+		const url = `${RestClient.baseUrl}/notifications/read-all/${userId}`;
+
+		const result = await fetch(url, {
+			method: "PUT",
+			headers: this.getHeaders(true),
+		});
+
+		if (!result.ok) {
+			throw new Error(`Failed to mark all notifications as read: ${result.status}`);
 		}
-		
-		const unreadNotifications = notifications.data.filter((n: any) => !n.read);
-		
-		// Mark each unread notification as read
-		const promises = unreadNotifications.map((notif: any) => 
-			this.markNotificationAsRead(notif.id).catch(err => {
-				console.error(`Failed to mark notification ${notif.id} as read:`, err);
-				return null;
-			})
-		);
-		
-		await Promise.all(promises);
-		
-		return { success: true, markedCount: unreadNotifications.length };
+
+		return await result.json();
 	}
 
 	static async subscribeToPushNotifications(userId: number, subscription: any): Promise<any> {
@@ -566,12 +579,12 @@ export class RestClient {
 		return await result.json();
 	}
 
-	static async createNewsFeedPost(userId: number, content: string, imageUrl?: string): Promise<any> {
+	// The author is the logged-in user
+	static async createNewsFeedPost(content: string, imageUrl?: string): Promise<any> {
 		const url = `${RestClient.baseUrl}/post/create`;
 
 		const body = {
 			eventId: null,
-			userId,
 			content,
 			imageUrl: imageUrl || null,
 		};
@@ -585,12 +598,11 @@ export class RestClient {
 		return await result.json();
 	}
 
-	static async createPost(eventId: number, userId: number, content: string, imageUrl?: string): Promise<any> {
+	static async createPost(eventId: number, content: string, imageUrl?: string): Promise<any> {
 		const url = `${RestClient.baseUrl}/post/create`;
 
 		const body = {
 			eventId,
-			userId,
 			content,
 			imageUrl: imageUrl || null,
 		};
@@ -616,8 +628,24 @@ export class RestClient {
 	}
 
 
-	static async getCommentsByPostId(postId: number): Promise<any> {
-		const url = `${RestClient.baseUrl}/comment/byPost/${postId}`;
+	// Comments and replies come newest first, one page at a time
+	static COMMENT_PAGE_SIZE = 20;
+
+	// Pass the last comment received to get the page after it
+	private static commentPageParams(before?: { createdAt: string; id: number }): string {
+		const params = new URLSearchParams({ size: String(RestClient.COMMENT_PAGE_SIZE) });
+		if (before) {
+			params.set("before", before.createdAt);
+			params.set("beforeId", String(before.id));
+		}
+		return params.toString();
+	}
+
+	static async getCommentsByPostId(
+		postId: number,
+		before?: { createdAt: string; id: number }
+	): Promise<any> {
+		const url = `${RestClient.baseUrl}/comment/byPost/${postId}?${this.commentPageParams(before)}`;
 
 		const result = await fetch(url, {
 			method: "GET",
@@ -627,8 +655,11 @@ export class RestClient {
 		return await result.json();
 	}
 
-	static async getRepliesByCommentId(parentId: number): Promise<any> {
-		const url = `${RestClient.baseUrl}/comment/byParent/${parentId}`;
+	static async getRepliesByCommentId(
+		parentId: number,
+		before?: { createdAt: string; id: number }
+	): Promise<any> {
+		const url = `${RestClient.baseUrl}/comment/byParent/${parentId}?${this.commentPageParams(before)}`;
 
 		const result = await fetch(url, {
 			method: "GET",
@@ -638,12 +669,11 @@ export class RestClient {
 		return await result.json();
 	}
 
-	static async createComment(postId: number, userId: number, content: string, parentCommentId?: number): Promise<any> {
+	static async createComment(postId: number, content: string, parentCommentId?: number): Promise<any> {
 		const url = `${RestClient.baseUrl}/comment/create`;
 
 		const body = {
 			postId,
-			userId,
 			content,
 			parentCommentId: parentCommentId || 0,
 		};
@@ -672,30 +702,50 @@ export class RestClient {
 
 	// ========== LIKE APIs ==========
 
-	static async toggleLikePost(userId: number, postId: number): Promise<any> {
-		const url = `${RestClient.baseUrl}/like/post?user_id=${userId}&post_id=${postId}`;
+	// PUT likes and DELETE unlikes as the logged-in user; both are idempotent, so a retried request is harmless
+	static async setPostLike(postId: number, liked: boolean): Promise<any> {
+		const url = `${RestClient.baseUrl}/like/post/${postId}`;
 
 		const result = await fetch(url, {
-			method: "POST",
+			method: liked ? "PUT" : "DELETE",
 			headers: this.getHeaders(true),
 		});
 
 		return await result.json();
 	}
 
-	static async toggleLikeComment(userId: number, commentId: number): Promise<any> {
-		const url = `${RestClient.baseUrl}/like/comment?user_id=${userId}&comment_id=${commentId}`;
+	static async setCommentLike(commentId: number, liked: boolean): Promise<any> {
+		const url = `${RestClient.baseUrl}/like/comment/${commentId}`;
 
 		const result = await fetch(url, {
-			method: "POST",
+			method: liked ? "PUT" : "DELETE",
 			headers: this.getHeaders(true),
 		});
 
 		return await result.json();
 	}
 
-	static async checkLikePost(userId: number, postId: number): Promise<any> {
-		const url = `${RestClient.baseUrl}/like/post/check?user_id=${userId}&post_id=${postId}`;
+	// Subset of the given posts and comments the logged-in user has liked, in one request
+	static async getLikeStatus(
+		postIds: number[],
+		commentIds: number[]
+	): Promise<{ likedPostIds: number[]; likedCommentIds: number[] }> {
+		const params = new URLSearchParams();
+		if (postIds.length > 0) params.set("post_ids", postIds.join(","));
+		if (commentIds.length > 0) params.set("comment_ids", commentIds.join(","));
+		const url = `${RestClient.baseUrl}/like/status?${params}`;
+
+		const result = await fetch(url, {
+			method: "GET",
+			headers: this.getHeaders(true),
+		});
+
+		const json = await result.json();
+		return json.data ?? { likedPostIds: [], likedCommentIds: [] };
+	}
+
+	static async checkLikePost(postId: number): Promise<any> {
+		const url = `${RestClient.baseUrl}/like/post/check?post_id=${postId}`;
 
 		const result = await fetch(url, {
 			method: "GET",
@@ -705,8 +755,8 @@ export class RestClient {
 		return await result.json();
 	}
 
-	static async checkLikeComment(userId: number, commentId: number): Promise<any> {
-		const url = `${RestClient.baseUrl}/like/comment/check?user_id=${userId}&comment_id=${commentId}`;
+	static async checkLikeComment(commentId: number): Promise<any> {
+		const url = `${RestClient.baseUrl}/like/comment/check?comment_id=${commentId}`;
 
 		const result = await fetch(url, {
 			method: "GET",
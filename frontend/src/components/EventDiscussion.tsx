@@ -71,6 +71,8 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 	const [replyContent, setReplyContent] = useState("");
 	const [expandedReplies, setExpandedReplies] = useState<Set<number>>(new Set());
 	const [commentReplies, setCommentReplies] = useState<Record<number, Comment[]>>({});
+	const [moreComments, setMoreComments] = useState<Set<number>>(new Set());
+	const [moreReplies, setMoreReplies] = useState<Set<number>>(new Set());
 	const { showToast } = useToast();
 	const { confirm, ConfirmDialogComponent } = useConfirmDialog();
 	const auth = useAuth();
@@ -100,26 +102,21 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 				// Check if there are more posts to load
 				setHasMore(newPosts.length === limit);
 				
-				// Check which posts the user has liked (parallel requests)
+				// Check which posts the user has liked (one request for the page)
 			if (auth.user?.id && newPosts.length > 0) {
-				const userId = auth.user.id;
-				const likeChecks = newPosts.map((post: Post) => 
-					RestClient.checkLikePost(userId, post.id)
-						.then(result => ({ postId: post.id, isLiked: result.data === true }))
-						.catch(() => ({ postId: post.id, isLiked: false }))
-				);
-				
-				const likeResults = await Promise.all(likeChecks);
-				const newLikedSet = new Set<number>();
-				likeResults.forEach(({ postId, isLiked }) => {
-					if (isLiked) newLikedSet.add(postId);
-				});
-				
-				setLikedPosts(prev => {
-					const next = new Set(prev);
-					newLikedSet.forEach(id => next.add(id));
-					return next;
-				});
+				try {
+					const { likedPostIds } = await RestClient.getLikeStatus(
+						newPosts.map((post: Post) => post.id),
+						[]
+					);
+					setLikedPosts(prev => {
+						const next = new Set(prev);
+						likedPostIds.forEach(id => next.add(id));
+						return next;
+					});
+				} catch {
+					// Like state is cosmetic; leave posts shown as not liked
+				}
 			}
 			} else {
 				if (pageNum === 0) setPosts([]);
@@ -213,7 +210,6 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 
 			const result = await RestClient.createPost(
 				parseInt(eventId),
-				auth.user.id,
 				newPostContent,
 				imageUrl
 			);
@@ -239,8 +235,8 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 		}
 
 		try {
-			await RestClient.toggleLikePost(auth.user.id, postId);
 			const isLiked = likedPosts.has(postId);
+			await RestClient.setPostLike(postId, !isLiked);
 			
 			// Update local state
 			const newLikedPosts = new Set(likedPosts);
@@ -301,8 +297,8 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 		}
 
 		try {
-			await RestClient.toggleLikeComment(auth.user.id, commentId);
 			const isLiked = likedComments.has(commentId);
+			await RestClient.setCommentLike(commentId, !isLiked);
 			
 			const newLikedComments = new Set(likedComments);
 			if (isLiked) {
@@ -377,6 +373,24 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 		}
 	};
 
+	// Check which comments the user has liked (one request for the list)
+	const markLikedComments = async (comments: Comment[]) => {
+		if (!auth.user?.id || comments.length === 0) return;
+		try {
+			const { likedCommentIds } = await RestClient.getLikeStatus(
+				[],
+				comments.map(comment => comment.id)
+			);
+			setLikedComments(prev => {
+				const next = new Set(prev);
+				likedCommentIds.forEach(id => next.add(id));
+				return next;
+			});
+		} catch {
+			// Like state is cosmetic; leave comments shown as not liked
+		}
+	};
+
 	const toggleComments = async (postId: number) => {
 		const newExpanded = new Set(expandedComments);
 		if (newExpanded.has(postId)) {
@@ -388,24 +402,10 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 				try {
 					const result = await RestClient.getCommentsByPostId(postId);
 					if (result.data) {
-					setPostComments(prev => ({ ...prev, [postId]: result.data }));
-					// Check which comments the user has liked (in parallel)
-					if (auth.user?.id && result.data.length > 0) {
-						const userId = auth.user.id; // Cache user ID for type safety
-						const commentLikeChecks = result.data.map((comment: Comment) =>
-							RestClient.checkLikeComment(userId, comment.id)
-								.then(likeResult => ({ commentId: comment.id, isLiked: likeResult.data === true }))
-								.catch(() => ({ commentId: comment.id, isLiked: false }))
-						);
-						
-						const likeResults = await Promise.all(commentLikeChecks);
-						const newLikedComments = new Set(likedComments);
-						likeResults.forEach(({ commentId, isLiked }) => {
-							if (isLiked) newLikedComments.add(commentId);
-						});
-						setLikedComments(newLikedComments);
+						setPostComments(prev => ({ ...prev, [postId]: result.data }));
+						setHasMoreFor(setMoreComments, postId, result.data.length);
+						await markLikedComments(result.data);
 					}
-				}	
 				} catch (error) {
 					console.error("Failed to fetch comments:", error);
 				}
@@ -414,6 +414,49 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 		setExpandedComments(newExpanded);
 	};
 
+	// A full page means there may be older comments or replies to load
+	const setHasMoreFor = (
+		setter: (update: (prev: Set<number>) => Set<number>) => void,
+		id: number,
+		pageLength: number
+	) => {
+		setter(prev => {
+			const next = new Set(prev);
+			if (pageLength === RestClient.COMMENT_PAGE_SIZE) next.add(id);
+			else next.delete(id);
+			return next;
+		});
+	};
+
+	const loadMoreComments = async (postId: number) => {
+		const loaded = postComments[postId] ?? [];
+		const last = loaded[loaded.length - 1];
+		if (!last) return;
+		try {
+			const result = await RestClient.getCommentsByPostId(postId, last);
+			const page: Comment[] = result.data ?? [];
+			setPostComments(prev => ({ ...prev, [postId]: [...(prev[postId] ?? []), ...page] }));
+			setHasMoreFor(setMoreComments, postId, page.length);
+			await markLikedComments(page);
+		} catch (error) {
+			console.error("Failed to fetch comments:", error);
+		}
+	};
+
+	const loadMoreReplies = async (commentId: number) => {
+		const loaded = commentReplies[commentId] ?? [];
+		const last = loaded[loaded.length - 1];
+		if (!last) return;
+		try {
+			const result = await RestClient.getRepliesByCommentId(commentId, last);
+			const page: Comment[] = result.data ?? [];
+			setCommentReplies(prev => ({ ...prev, [commentId]: [...(prev[commentId] ?? []), ...page] }));
+			setHasMoreFor(setMoreReplies, commentId, page.length);
+		} catch (error) {
+			console.error("Failed to fetch replies:", error);
+		}
+	};
+
 	const toggleReplies = async (commentId: number) => {
 		const newExpanded = new Set(expandedReplies);
 		if (newExpanded.has(commentId)) {
@@ -426,6 +469,7 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 					const result = await RestClient.getRepliesByCommentId(commentId);
 					if (result.data) {
 						setCommentReplies(prev => ({ ...prev, [commentId]: result.data }));
+						setHasMoreFor(setMoreReplies, commentId, result.data.length);
 					}
 				} catch (error) {
 					console.error("Failed to fetch replies:", error);
@@ -452,7 +496,6 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 		try {
 			const result = await RestClient.createComment(
 				postId,
-				auth.user.id,
 				replyContent,
 				actualParentId
 			);
@@ -625,6 +668,14 @@ export default function EventDiscussion({ eventId }: EventDiscussionProps) {
 				{!isReply && expandedReplies.has(comment.id) && commentReplies[comment.id]?.map(reply => (
 					<CommentItem key={reply.id} comment={reply} postId={postId} isReply rootCommentId={comment.id} />
 				))}
+				{!isReply && expandedReplies.has(comment.id) && moreReplies.has(comment.id) && (
+					<button
+						onClick={() => loadMoreReplies(comment.id)}
+						className="mt-2 text-xs font-medium text-[#556b2f] hover:text-[#6d8c3a] transition-colors cursor-pointer"
+					>
+						Load more replies
+					</button>
+				)}
 			</div>
 		</div>
 	);
@@ -882,6 +933,14 @@ if (loading) {
 														<CommentItem key={comment.id} comment={comment} postId={post.id} />
 													))
 												)}
+												{moreComments.has(post.id) && (
+													<button
+														onClick={() => loadMoreComments(post.id)}
+														className="w-full py-3 text-sm font-medium text-[#556b2f] hover:text-[#6d8c3a] transition-colors cursor-pointer font-(family-name:--font-dmsans)"
+													>
+														Load more comments
+													</button>
+												)}
 											</div>
 										</div>
 									)}
@@ -109,6 +109,11 @@ export default function Header() {
 		}
 	});
 
+	// Unread count follows the list, whether it was fetched or streamed
+	useEffect(() => {
+		setUnreadCount(notifications.filter((n: any) => !n.read).length);
+	}, [notifications]);
+
 	// Fetch notifications
 	const fetchNotifications = useCallback(async () => {
 		if (!auth.user?.id) return;
@@ -118,9 +123,6 @@ export default function Header() {
 
 			if (notifResult.data) {
 				setNotifications(notifResult.data);
-				// Count unread notifications manually
-				const unreadNotifications = notifResult.data.filter((n: any) => !n.read);
-				setUnreadCount(unreadNotifications.length);
 			}
 		} catch (err) {
 			console.error("Failed to fetch notifications:", err);
@@ -130,9 +132,16 @@ export default function Header() {
 	useEffect(() => {
 		if (auth.isAuthenticated && auth.user?.id) {
 			fetchNotifications();
-			// Poll for new notifications every 30 seconds
-			const interval = setInterval(fetchNotifications, 30000);
-			return () => clearInterval(interval);
+			// New and coalesced notifications arrive on the stream; a coalesced one replaces its old entry
+			const closeStream = RestClient.openNotificationStream((notification) => {
+				setNotifications((prev) => [notification, ...prev.filter((n: any) => n.id !== notification.id)]);
+			});
+			// Reads from other tabs are not streamed, so resync every few minutes
+			const interval = setInterval(fetchNotifications, 5 * 60 * 1000);
+			return () => {
+				closeStream();
+				clearInterval(interval);
+			};
 		}
 	}, [auth.isAuthenticated, auth.user?.id, fetchNotifications]);
 
@@ -308,7 +317,7 @@ export default function Header() {
 														/>
 														<p className="text-xs text-[#556b2f]/70 mt-1 font-(family-name:--font-dmsans)">
 															{new Date(
-																notif.createdAt,
+																notif.updatedAt ?? notif.createdAt,
 															).toLocaleString()}
 														</p>
 													</div>
@@ -98,6 +98,8 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 	const [mainCommentContent, setMainCommentContent] = useState<Record<number, string>>({});
 	const [expandedReplies, setExpandedReplies] = useState<Set<number>>(new Set());
 	const [commentReplies, setCommentReplies] = useState<Record<number, Comment[]>>({});
+	const [moreComments, setMoreComments] = useState<Set<number>>(new Set());
+	const [moreReplies, setMoreReplies] = useState<Set<number>>(new Set());
 	const [animatingLike, setAnimatingLike] = useState<number | null>(null);
 	
 	const { showToast } = useToast();
@@ -137,23 +139,19 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 				
 				// Check which posts the user has liked
 				if (user?.id && newPosts.length > 0) {
-					const newLikedSet = new Set<number>();
-					// Combine check requests in future optimization, for now loop is acceptable for 5 items
-					for (const post of newPosts) {
-						try {
-							const likeResult = await RestClient.checkLikePost(user.id, post.id);
-							if (likeResult.data === true) {
-								newLikedSet.add(post.id);
-							}
-						} catch {
-							// Ignore individual like check errors
-						}
+					try {
+						const { likedPostIds } = await RestClient.getLikeStatus(
+							newPosts.map((post: Post) => post.id),
+							[]
+						);
+						setLikedPosts(prev => {
+							const next = new Set(prev);
+							likedPostIds.forEach(id => next.add(id));
+							return next;
+						});
+					} catch {
+						// Ignore like check errors
 					}
-					setLikedPosts(prev => {
-						const next = new Set(prev);
-						newLikedSet.forEach(id => next.add(id));
-						return next;
-					});
 				}
 			} else {
 				console.log("No data in response or data is null");
@@ -260,7 +258,6 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 			}
 
 			const result = await RestClient.createNewsFeedPost(
-				user.id,
 				newPostContent,
 				imageUrl
 			);
@@ -290,8 +287,8 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 		setTimeout(() => setAnimatingLike(null), 600);
 
 		try {
-			await RestClient.toggleLikePost(user.id, postId);
 			const isLiked = likedPosts.has(postId);
+			await RestClient.setPostLike(postId, !isLiked);
 			
 			const newLikedPosts = new Set(likedPosts);
 			if (isLiked) {
@@ -343,6 +340,24 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 		}
 	};
 
+	// Check which comments the user has liked (one request for the list)
+	const markLikedComments = async (comments: Comment[]) => {
+		if (!user?.id || comments.length === 0) return;
+		try {
+			const { likedCommentIds } = await RestClient.getLikeStatus(
+				[],
+				comments.map(comment => comment.id)
+			);
+			setLikedComments(prev => {
+				const next = new Set(prev);
+				likedCommentIds.forEach(id => next.add(id));
+				return next;
+			});
+		} catch {
+			// Ignore like check errors
+		}
+	};
+
 	const toggleComments = async (postId: number) => {
 		const newExpanded = new Set(expandedComments);
 		if (newExpanded.has(postId)) {
@@ -354,20 +369,8 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 					const result = await RestClient.getCommentsByPostId(postId);
 					if (result.data) {
 						setPostComments(prev => ({ ...prev, [postId]: result.data }));
-						if (user?.id) {
-							const likedSet = new Set(likedComments);
-							for (const comment of result.data) {
-								try {
-									const likeResult = await RestClient.checkLikeComment(user.id, comment.id);
-									if (likeResult.data === true) {
-										likedSet.add(comment.id);
-									}
-								} catch {
-									// Ignore
-								}
-							}
-							setLikedComments(likedSet);
-						}
+						setHasMoreFor(setMoreComments, postId, result.data.length);
+						await markLikedComments(result.data);
 					}
 				} catch (error) {
 					console.error("Failed to fetch comments:", error);
@@ -377,6 +380,49 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 		setExpandedComments(newExpanded);
 	};
 
+	// A full page means there may be older comments or replies to load
+	const setHasMoreFor = (
+		setter: (update: (prev: Set<number>) => Set<number>) => void,
+		id: number,
+		pageLength: number
+	) => {
+		setter(prev => {
+			const next = new Set(prev);
+			if (pageLength === RestClient.COMMENT_PAGE_SIZE) next.add(id);
+			else next.delete(id);
+			return next;
+		});
+	};
+
+	const loadMoreComments = async (postId: number) => {
+		const loaded = postComments[postId] ?? [];
+		const last = loaded[loaded.length - 1];
+		if (!last) return;
+		try {
+			const result = await RestClient.getCommentsByPostId(postId, last);
+			const page: Comment[] = result.data ?? [];
+			setPostComments(prev => ({ ...prev, [postId]: [...(prev[postId] ?? []), ...page] }));
+			setHasMoreFor(setMoreComments, postId, page.length);
+			await markLikedComments(page);
+		} catch (error) {
+			console.error("Failed to fetch comments:", error);
+		}
+	};
+
+	const loadMoreReplies = async (commentId: number) => {
+		const loaded = commentReplies[commentId] ?? [];
+		const last = loaded[loaded.length - 1];
+		if (!last) return;
+		try {
+			const result = await RestClient.getRepliesByCommentId(commentId, last);
+			const page: Comment[] = result.data ?? [];
+			setCommentReplies(prev => ({ ...prev, [commentId]: [...(prev[commentId] ?? []), ...page] }));
+			setHasMoreFor(setMoreReplies, commentId, page.length);
+		} catch (error) {
+			console.error("Failed to fetch replies:", error);
+		}
+	};
+
 	const toggleReplies = async (commentId: number) => {
 		const newExpanded = new Set(expandedReplies);
 		if (newExpanded.has(commentId)) {
@@ -388,6 +434,7 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 					const result = await RestClient.getRepliesByCommentId(commentId);
 					if (result.data) {
 						setCommentReplies(prev => ({ ...prev, [commentId]: result.data }));
+						setHasMoreFor(setMoreReplies, commentId, result.data.length);
 					}
 				} catch (error) {
 					console.error("Failed to fetch replies:", error);
@@ -404,8 +451,8 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 		}
 
 		try {
-			await RestClient.toggleLikeComment(user.id, commentId);
 			const isLiked = likedComments.has(commentId);
+			await RestClient.setCommentLike(commentId, !isLiked);
 			
 			const newLikedComments = new Set(likedComments);
 			if (isLiked) {
@@ -492,7 +539,6 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 		try {
 			const result = await RestClient.createComment(
 				postId,
-				user.id,
 				replyContent,
 				actualParentId
 			);
@@ -547,7 +593,6 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 		try {
 			const result = await RestClient.createComment(
 				postId,
-				user.id,
 				content
 			);
 			
@@ -689,6 +734,14 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 						rootCommentId={comment.id}
 					/>
 				))}
+				{expandedReplies.has(comment.id) && moreReplies.has(comment.id) && (
+					<button
+						onClick={() => loadMoreReplies(comment.id)}
+						className="mt-2 text-xs font-medium text-[#556b2f] hover:text-[#6d8c3a] transition-colors cursor-pointer"
+					>
+						Load more replies
+					</button>
+				)}
 			</div>
 		</div>
 	);
@@ -940,6 +993,14 @@ export default function NewsFeed({ isEmbedded = false }: NewsFeedProps) {
 														postId={post.id}
 													/>
 												))}
+												{moreComments.has(post.id) && (
+													<button
+														onClick={() => loadMoreComments(post.id)}
+														className="w-full py-3 text-sm font-medium text-[#556b2f] hover:text-[#6d8c3a] transition-colors cursor-pointer font-(family-name:--font-dmsans)"
+													>
+														Load more comments
+													</button>
+												)}
 												
 												{(!postComments[post.id] || postComments[post.id].length === 0) && (
 													<div className="text-center py-8">
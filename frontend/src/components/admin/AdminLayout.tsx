@@ -29,6 +29,11 @@ export default function AdminLayout() {
 		navigate("/");
 	};
 
+	// Unread count follows the list, whether it was fetched or streamed
+	useEffect(() => {
+		setUnreadCount(notifications.filter((n: any) => !n.read).length);
+	}, [notifications]);
+
 	// Fetch notifications
 	const fetchNotifications = useCallback(async () => {
 		if (!auth.user?.id) return;
@@ -38,8 +43,6 @@ export default function AdminLayout() {
 
 			if (notifResult.data) {
 				setNotifications(notifResult.data);
-				const unreadNotifications = notifResult.data.filter((n: any) => !n.read);
-				setUnreadCount(unreadNotifications.length);
 			}
 		} catch (err) {
 			console.error("Failed to fetch notifications:", err);
@@ -56,8 +59,16 @@ export default function AdminLayout() {
 		
 		if (auth.isAuthenticated && auth.user?.id) {
 			fetchNotifications();
-			const interval = setInterval(fetchNotifications, 30000);
-			return () => clearInterval(interval);
+			// New and coalesced notifications arrive on the stream; a coalesced one replaces its old entry
+			const closeStream = RestClient.openNotificationStream((notification) => {
+				setNotifications((prev) => [notification, ...prev.filter((n: any) => n.id !== notification.id)]);
+			});
+			// Reads from other tabs are not streamed, so resync every few minutes
+			const interval = setInterval(fetchNotifications, 5 * 60 * 1000);
+			return () => {
+				closeStream();
+				clearInterval(interval);
+			};
 		} else {
 			console.warn('⚠️ Admin: Not fetching notifications - auth not ready', { 
 				isAuthenticated: auth.isAuthenticated, 
@@ -300,7 +311,7 @@ export default function AdminLayout() {
 															dangerouslySetInnerHTML={{ __html: notif.content }}
 														/>
 														<p className="text-xs text-[#556b2f]/70 mt-1 font-(family-name:--font-dmsans)">
-															{new Date(notif.createdAt).toLocaleString()}
+															{new Date(notif.updatedAt ?? notif.createdAt).toLocaleString()}
 														</p>
 													</div>
 												))